@@ -0,0 +1,46 @@
+package com.banquito.gestion_vehiculos.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escribe las cabeceras X-Db-Calls, X-Db-Documents y X-Db-Bytes con el consumo de Mongo de
+ * la petición justo antes del cuerpo, cuando ya se hicieron las consultas del controlador.
+ */
+@ControllerAdvice
+public class CabecerasConsumoMongo implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ConsumoMongo consumo = ConsumoMongo.actual();
+        if (consumo != null) {
+            response.getHeaders().set(ConsumoMongo.HEADER_COMANDOS, String.valueOf(consumo.getComandos()));
+            response.getHeaders().set(ConsumoMongo.HEADER_DOCUMENTOS, String.valueOf(consumo.getDocumentos()));
+            response.getHeaders().set(ConsumoMongo.HEADER_BYTES, String.valueOf(consumo.getBytes()));
+        }
+        return body;
+    }
+
+    static void escribir(HttpServletResponse response, ConsumoMongo consumo) {
+        if (consumo == null) {
+            return;
+        }
+        response.setHeader(ConsumoMongo.HEADER_COMANDOS, String.valueOf(consumo.getComandos()));
+        response.setHeader(ConsumoMongo.HEADER_DOCUMENTOS, String.valueOf(consumo.getDocumentos()));
+        response.setHeader(ConsumoMongo.HEADER_BYTES, String.valueOf(consumo.getBytes()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cachés locales acotadas (Caffeine). Cada caché se registra con su propio tamaño y TTL;
+ * no se crean cachés dinámicas para que un nombre mal escrito falle al arrancar.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CONCESIONARIO_POR_EMAIL_VENDEDOR = "concesionarioPorEmailVendedor";
+    public static final String IDENTIDADES_USUARIO = "identidadesUsuario";
+    public static final String CONCESIONARIOS_POR_RUC = "concesionariosPorRuc";
+    public static final String IDENTIFICADORES_POR_PLACA = "identificadoresPorPlaca";
+
+    @Value("${cache.concesionario-por-email-vendedor.tamanio-maximo:1000}")
+    private long concesionarioPorEmailVendedorTamanio;
+
+    @Value("${cache.concesionario-por-email-vendedor.ttl:PT10M}")
+    private Duration concesionarioPorEmailVendedorTtl;
+
+    @Value("${cache.identidades-usuario.tamanio-maximo:10000}")
+    private long identidadesUsuarioTamanio;
+
+    @Value("${cache.identidades-usuario.ttl:PT5M}")
+    private Duration identidadesUsuarioTtl;
+
+    @Value("${cache.concesionarios-por-ruc.tamanio-maximo:500}")
+    private long concesionariosPorRucTamanio;
+
+    @Value("${cache.concesionarios-por-ruc.ttl:PT1M}")
+    private Duration concesionariosPorRucTtl;
+
+    @Value("${cache.identificadores-por-placa.tamanio-maximo:20000}")
+    private long identificadoresPorPlacaTamanio;
+
+    @Value("${cache.identificadores-por-placa.ttl:PT10M}")
+    private Duration identificadoresPorPlacaTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(CONCESIONARIO_POR_EMAIL_VENDEDOR,
+                crear(concesionarioPorEmailVendedorTamanio, concesionarioPorEmailVendedorTtl));
+        cacheManager.registerCustomCache(IDENTIDADES_USUARIO,
+                crear(identidadesUsuarioTamanio, identidadesUsuarioTtl));
+        cacheManager.registerCustomCache(CONCESIONARIOS_POR_RUC,
+                crear(concesionariosPorRucTamanio, concesionariosPorRucTtl));
+        cacheManager.registerCustomCache(IDENTIFICADORES_POR_PLACA,
+                crear(identificadoresPorPlacaTamanio, identificadoresPorPlacaTtl));
+        return cacheManager;
+    }
+
+    /**
+     * Actuator ya publica cache.gets (hit/miss), cache.evictions y cache.size de cada caché;
+     * aquí se agrega la tasa de aciertos acumulada para no tener que derivarla.
+     */
+    @Bean
+    public MeterBinder metricasTasaAciertosCache(CacheManager cacheManager) {
+        return registry -> {
+            for (String nombre : cacheManager.getCacheNames()) {
+                if (cacheManager.getCache(nombre) instanceof CaffeineCache cache) {
+                    Gauge.builder("cache.tasa.aciertos", cache.getNativeCache(), c -> c.stats().hitRate())
+                            .description("Proporción de lecturas resueltas por la caché")
+                            .tag("cache", nombre)
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> crear(long tamanioMaximo, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
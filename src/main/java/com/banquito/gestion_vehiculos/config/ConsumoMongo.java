@@ -0,0 +1,87 @@
+package com.banquito.gestion_vehiculos.config;
+
+/**
+ * Comandos, documentos y bytes de respuesta de Mongo acumulados en el hilo actual entre
+ * {@link #iniciar()} y {@link #finalizar()}. Lo alimenta {@link MetricasComandosMongo},
+ * que recibe los eventos del driver en el hilo que ejecuta el comando.
+ *
+ * Los ámbitos se pueden anidar: al finalizar uno interno su consumo se suma al externo.
+ * Las consultas que se ejecutan en otros hilos (exportación asíncrona) no se cuentan.
+ */
+public final class ConsumoMongo {
+
+    public static final String HEADER_COMANDOS = "X-Db-Calls";
+    public static final String HEADER_DOCUMENTOS = "X-Db-Documents";
+    public static final String HEADER_BYTES = "X-Db-Bytes";
+
+    private static final ThreadLocal<ConsumoMongo> ACTUAL = new ThreadLocal<>();
+
+    private final ConsumoMongo anterior;
+    private int comandos;
+    private long documentos;
+    private long bytes;
+
+    private ConsumoMongo(ConsumoMongo anterior) {
+        this.anterior = anterior;
+    }
+
+    public static ConsumoMongo iniciar() {
+        ConsumoMongo consumo = new ConsumoMongo(ACTUAL.get());
+        ACTUAL.set(consumo);
+        return consumo;
+    }
+
+    /**
+     * Cierra el ámbito actual y devuelve su consumo; null si no había ninguno abierto.
+     */
+    public static ConsumoMongo finalizar() {
+        ConsumoMongo consumo = ACTUAL.get();
+        if (consumo == null) {
+            return null;
+        }
+        if (consumo.anterior != null) {
+            consumo.anterior.sumar(consumo.comandos, consumo.documentos, consumo.bytes);
+            ACTUAL.set(consumo.anterior);
+        } else {
+            ACTUAL.remove();
+        }
+        return consumo;
+    }
+
+    /**
+     * Consumo del ámbito abierto en este hilo, o null.
+     */
+    public static ConsumoMongo actual() {
+        return ACTUAL.get();
+    }
+
+    static void registrar(long documentos, long bytes) {
+        ConsumoMongo consumo = ACTUAL.get();
+        if (consumo != null) {
+            consumo.sumar(1, documentos, bytes);
+        }
+    }
+
+    private void sumar(int comandos, long documentos, long bytes) {
+        this.comandos += comandos;
+        this.documentos += documentos;
+        this.bytes += bytes;
+    }
+
+    public int getComandos() {
+        return comandos;
+    }
+
+    public long getDocumentos() {
+        return documentos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return comandos + " comandos, " + documentos + " documentos, " + bytes + " bytes";
+    }
+}
@@ -0,0 +1,33 @@
+package com.banquito.gestion_vehiculos.config;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Agrega al timer http.server.requests (que ya lleva la ruta como plantilla en "uri" y el
+ * resultado en "outcome") la etiqueta "operacion" con el método del controlador que
+ * atendió la petición, por ejemplo ConcesionarioController.getByRuc.
+ */
+public class ConvencionMetricasPeticiones extends DefaultServerRequestObservationConvention {
+
+    static final String OPERACION = "operacion";
+    static final String SIN_OPERACION = "ninguna";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(operacion(context));
+    }
+
+    private KeyValue operacion(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod metodo) {
+            return KeyValue.of(OPERACION, metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName());
+        }
+        return KeyValue.of(OPERACION, SIN_OPERACION);
+    }
+}
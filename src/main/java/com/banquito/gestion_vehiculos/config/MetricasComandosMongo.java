@@ -0,0 +1,127 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas por comando de Mongo, etiquetadas por comando, colección y estado:
+ * <ul>
+ * <li>mongodb.comandos: latencia (timer).</li>
+ * <li>mongodb.comandos.documentos: documentos devueltos; el lote del cursor en
+ * find/aggregate/getMore y "n" en count y escrituras.</li>
+ * <li>mongodb.comandos.respuesta: tamaño en bytes de la respuesta BSON.</li>
+ * </ul>
+ * La colección se toma del comando al iniciarse y se empareja con la respuesta por el
+ * requestId. Cada comando se suma además al {@link ConsumoMongo} de la petición en curso.
+ */
+public class MetricasComandosMongo implements CommandListener {
+
+    static final String SIN_COLECCION = "ninguna";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, String> coleccionPorSolicitud = new ConcurrentHashMap<>();
+
+    public MetricasComandosMongo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        coleccionPorSolicitud.put(event.getRequestId(), coleccion(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Tags tags = tags(event.getRequestId(), event.getCommandName(), "exito");
+        Timer.builder("mongodb.comandos")
+                .description("Latencia de los comandos enviados a Mongo")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        BsonDocument respuesta = event.getResponse();
+        if (respuesta == null) {
+            ConsumoMongo.registrar(0, 0);
+            return;
+        }
+        int documentos = documentos(respuesta);
+        int bytes = bytes(respuesta);
+        ConsumoMongo.registrar(documentos, bytes);
+        DistributionSummary.builder("mongodb.comandos.documentos")
+                .description("Documentos devueltos o afectados por comando")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(documentos);
+        DistributionSummary.builder("mongodb.comandos.respuesta")
+                .description("Tamaño de la respuesta BSON por comando")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        ConsumoMongo.registrar(0, 0);
+        Timer.builder("mongodb.comandos")
+                .description("Latencia de los comandos enviados a Mongo")
+                .tags(tags(event.getRequestId(), event.getCommandName(), "error"))
+                .register(meterRegistry)
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Tags tags(int requestId, String comando, String estado) {
+        String coleccion = coleccionPorSolicitud.remove(requestId);
+        return Tags.of("comando", comando, "coleccion", coleccion != null ? coleccion : SIN_COLECCION, "estado", estado);
+    }
+
+    // find/aggregate/update... llevan la colección como valor del nombre del comando; getMore en "collection"
+    static String coleccion(String comando, BsonDocument comandoBson) {
+        BsonValue valor = comandoBson.get("getMore".equals(comando) ? "collection" : comando);
+        return valor != null && valor.isString() ? valor.asString().getValue() : SIN_COLECCION;
+    }
+
+    static int documentos(BsonDocument respuesta) {
+        BsonValue cursor = respuesta.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonDocument documento = cursor.asDocument();
+            BsonValue lote = documento.containsKey("firstBatch") ? documento.get("firstBatch") : documento.get("nextBatch");
+            return lote instanceof BsonArray arreglo ? arreglo.size() : 0;
+        }
+        BsonValue n = respuesta.get("n");
+        if (n != null && n.isNumber()) {
+            return n.asNumber().intValue();
+        }
+        BsonValue valor = respuesta.get("value");
+        return valor != null && valor.isDocument() ? 1 : 0;
+    }
+
+    // El driver entrega la respuesta sin decodificar (RawBsonDocument): el tamaño sale del buffer
+    static int bytes(BsonDocument respuesta) {
+        if (respuesta instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(buffer), respuesta, EncoderContext.builder().build());
+        return buffer.getPosition();
+    }
+}
@@ -0,0 +1,32 @@
+package com.banquito.gestion_vehiculos.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas de peticiones HTTP por operación y de comandos de Mongo, exportadas (junto con
+ * el resto) en /actuator/prometheus, y presupuesto de Mongo por petición.
+ */
+@Configuration
+@EnableConfigurationProperties(PresupuestoMongoProperties.class)
+public class MetricasConfig {
+
+    @Bean
+    public ServerRequestObservationConvention convencionMetricasPeticiones() {
+        return new ConvencionMetricasPeticiones();
+    }
+
+    /**
+     * Reemplaza al listener de comandos de Spring Boot (management.metrics.mongo.command.enabled=false),
+     * que solo mide la latencia.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer metricasComandosMongo(MeterRegistry meterRegistry) {
+        return settings -> settings.addCommandListener(new MetricasComandosMongo(meterRegistry));
+    }
+}
@@ -0,0 +1,149 @@
+package com.banquito.gestion_vehiculos.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Usuario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepositoryCustomImpl;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepositoryCustomImpl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crea los índices de los que dependen las consultas del servicio. La creación
+ * automática de índices de Spring Data está deshabilitada por defecto, por lo que
+ * se aseguran explícitamente al arrancar: los únicos antes de atender peticiones y
+ * los de rendimiento cuando la aplicación ya está lista.
+ */
+@Slf4j
+@Component
+public class MongoIndexConfig {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Los índices únicos son la única garantía de que la cédula y el email del vendedor no se
+     * repiten, así que se crean al inicializar el bean, antes de atender peticiones y de que
+     * corra el backfill de vendedores. Si no se pueden crear, por ejemplo porque ya hay
+     * repetidos, el arranque falla en lugar de seguir sin unicidad.
+     */
+    @PostConstruct
+    public void asegurarIndicesUnicos() {
+        // Unicidad global de la cédula y del email del vendedor; el email sin distinguir mayúsculas
+        asegurarObligatorio(Vendedor.class, new Index()
+                .on("cedula", Sort.Direction.ASC)
+                .named("idxuVendedor_cedula")
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("cedula").exists(true))));
+        asegurarObligatorio(Vendedor.class, new Index()
+                .on("email", Sort.Direction.ASC)
+                .named("idxuVendedor_email")
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("email").exists(true)))
+                .collation(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS));
+    }
+
+    /**
+     * Índices de rendimiento: se crean con la aplicación ya lista y un fallo solo se registra.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void asegurarIndices() {
+        // Búsqueda indexada por razón social: términos n-grama sin stemming ni palabras vacías
+        asegurar(Concesionario.class, new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named("idxConcesionario_razonSocialNgramas")
+                .onField("razonSocialNgramas")
+                .withDefaultLanguage("none")
+                .build());
+        // Paginación por keyset: cada orden publicado necesita un índice (filtro, campo, _id)
+        asegurar(Concesionario.class, keyset("idxConcesionario_ruc_id", "ruc"));
+        asegurar(Concesionario.class, keyset("idxConcesionario_razonSocial_id", "razonSocial"));
+        asegurar(Concesionario.class, keyset("idxConcesionario_estado_id", "estado"));
+        asegurar(Concesionario.class, keyset("idxConcesionario_estado_ruc_id", "estado", "ruc"));
+        asegurar(Concesionario.class, keyset("idxConcesionario_estado_razonSocial_id", "estado", "razonSocial"));
+        // Cambios de un vehículo embebido por placa sin distinguir mayúsculas: la consulta lleva la collation
+        asegurar(Concesionario.class, new Index()
+                .on("ruc", Sort.Direction.ASC)
+                .named("idxConcesionario_ruc_ci")
+                .collation(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS));
+        asegurar(Usuario.class, keyset("idxUsuario_email_id", "email"));
+        asegurar(Usuario.class, keyset("idxUsuario_rol_id", "rol"));
+        // Vehículos por concesionario: listado, filtros por estado y condición y cada orden del keyset
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_id", "concesionarioId"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_marca_id", "concesionarioId", "marca"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_modelo_id", "concesionarioId", "modelo"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_anio_id", "concesionarioId", "anio"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_valor_id", "concesionarioId", "valor"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_placa_id", "concesionarioId", "placa"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_estado_id", "concesionarioId", "estado"));
+        asegurar(Vehiculo.class, keyset("idxVehiculo_concesionarioId_condicion_id", "concesionarioId", "condicion"));
+        // Vehículo por placa sin distinguir mayúsculas: misma collation que la consulta
+        asegurar(Vehiculo.class, new Index()
+                .on("concesionarioId", Sort.Direction.ASC)
+                .on("placa", Sort.Direction.ASC)
+                .named("idxVehiculo_concesionarioId_placa_ci")
+                .collation(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS));
+        // Concesionarios con una placa, para invalidar sus ETags al crearse su identificador
+        asegurar(Vehiculo.class, new Index()
+                .on("placa", Sort.Direction.ASC)
+                .on("concesionarioId", Sort.Direction.ASC)
+                .named("idxVehiculo_placa_concesionarioId"));
+        // Estadísticas del inventario: cubre la proyección de la agregación, por concesionario o global
+        asegurar(Vehiculo.class, new Index()
+                .on("concesionarioId", Sort.Direction.ASC)
+                .on("estado", Sort.Direction.ASC)
+                .on("tipo", Sort.Direction.ASC)
+                .on("combustible", Sort.Direction.ASC)
+                .on("condicion", Sort.Direction.ASC)
+                .on("valor", Sort.Direction.ASC)
+                .named(VehiculoRepositoryCustomImpl.INDICE_ESTADISTICAS));
+        // Vendedores por concesionario: listado, filtro y estadísticas por estado, búsqueda por cédula y cada orden del keyset
+        asegurar(Vendedor.class, keyset("idxVendedor_concesionarioId_id", "concesionarioId"));
+        asegurar(Vendedor.class, keyset("idxVendedor_concesionarioId_nombre_id", "concesionarioId", "nombre"));
+        asegurar(Vendedor.class, keyset("idxVendedor_concesionarioId_cedula_id", "concesionarioId", "cedula"));
+        asegurar(Vendedor.class, keyset("idxVendedor_concesionarioId_email_id", "concesionarioId", "email"));
+        asegurar(Vendedor.class, keyset("idxVendedor_concesionarioId_estado_id", "concesionarioId", "estado"));
+    }
+
+    private Index keyset(String nombre, String... campos) {
+        Index indice = new Index().named(nombre);
+        for (String campo : campos) {
+            indice.on(campo, Sort.Direction.ASC);
+        }
+        return indice.on("_id", Sort.Direction.ASC);
+    }
+
+    private void asegurarObligatorio(Class<?> entidad, IndexDefinition indice) {
+        try {
+            mongoTemplate.indexOps(entidad).ensureIndex(indice);
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo crear el índice único " + indice.getIndexOptions().get("name")
+                    + " en " + mongoTemplate.getCollectionName(entidad)
+                    + "; corregir los valores repetidos antes de arrancar: " + e.getMessage(), e);
+        }
+    }
+
+    private void asegurar(Class<?> entidad, IndexDefinition indice) {
+        try {
+            mongoTemplate.indexOps(entidad).ensureIndex(indice);
+        } catch (Exception e) {
+            log.warn("No se pudo crear el índice {} en {}: {}", indice.getIndexOptions().get("name"),
+                    mongoTemplate.getCollectionName(entidad), e.getMessage());
+        }
+    }
+}
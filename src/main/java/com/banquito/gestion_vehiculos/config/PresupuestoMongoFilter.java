@@ -0,0 +1,111 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mide el consumo de Mongo de cada petición HTTP (comandos, documentos y bytes), lo
+ * publica como métricas por ruta y registra un aviso con la ruta cuando supera el
+ * presupuesto configurado en {@link PresupuestoMongoProperties}. Es el filtro más externo,
+ * así que también cuenta los accesos a la sesión.
+ *
+ * Las cabeceras X-Db-* las escribe {@link CabecerasConsumoMongo} justo antes del cuerpo;
+ * aquí solo se agregan si la respuesta no tuvo cuerpo y aún no se ha enviado.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PresupuestoMongoFilter extends OncePerRequestFilter {
+
+    static final String SIN_RUTA = "UNKNOWN";
+
+    private final PresupuestoMongoProperties presupuesto;
+    private final MeterRegistry meterRegistry;
+
+    public PresupuestoMongoFilter(PresupuestoMongoProperties presupuesto, MeterRegistry meterRegistry) {
+        this.presupuesto = presupuesto;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsumoMongo.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsumoMongo consumo = ConsumoMongo.finalizar();
+            if (!response.isCommitted()) {
+                CabecerasConsumoMongo.escribir(response, consumo);
+            }
+            registrar(request, consumo);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ConsumoMongo consumo) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String ruta = patron != null ? patron.toString() : SIN_RUTA;
+        Tags tags = Tags.of("method", request.getMethod(), "uri", ruta);
+        DistributionSummary.builder("http.server.requests.mongo.comandos")
+                .description("Comandos de Mongo por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consumo.getComandos());
+        DistributionSummary.builder("http.server.requests.mongo.documentos")
+                .description("Documentos de Mongo devueltos o afectados por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consumo.getDocumentos());
+        DistributionSummary.builder("http.server.requests.mongo.bytes")
+                .description("Bytes de respuesta de Mongo por petición")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consumo.getBytes());
+
+        List<String> excesos = excesos(ruta, consumo);
+        if (!excesos.isEmpty()) {
+            Counter.builder("http.server.requests.mongo.presupuesto.excedido")
+                    .description("Peticiones que superaron su presupuesto de Mongo")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Presupuesto de Mongo excedido en {} {} ({}): {}", request.getMethod(), ruta,
+                    request.getRequestURI(), String.join(", ", excesos));
+        }
+    }
+
+    private List<String> excesos(String ruta, ConsumoMongo consumo) {
+        List<String> excesos = new ArrayList<>(3);
+        Integer comandos = presupuesto.comandos(ruta);
+        if (comandos != null && consumo.getComandos() > comandos) {
+            excesos.add(consumo.getComandos() + " comandos (máximo " + comandos + ")");
+        }
+        Long documentos = presupuesto.documentos(ruta);
+        if (documentos != null && consumo.getDocumentos() > documentos) {
+            excesos.add(consumo.getDocumentos() + " documentos (máximo " + documentos + ")");
+        }
+        Long bytes = presupuesto.bytes(ruta);
+        if (bytes != null && consumo.getBytes() > bytes) {
+            excesos.add(consumo.getBytes() + " bytes (máximo " + bytes + ")");
+        }
+        return excesos;
+    }
+}
@@ -0,0 +1,46 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Límites de comandos, documentos y bytes de Mongo por petición. Las rutas se indican con
+ * su plantilla, tal como aparecen en la etiqueta uri de http.server.requests:
+ * <pre>
+ * presupuesto.mongo.rutas[/api/concesionarios/v1/ruc/{ruc}].comandos=2
+ * </pre>
+ * Los límites no definidos en la ruta se toman de por-defecto; null es sin límite.
+ */
+@Data
+@ConfigurationProperties(prefix = "presupuesto.mongo")
+public class PresupuestoMongoProperties {
+
+    private Presupuesto porDefecto = new Presupuesto();
+    private Map<String, Presupuesto> rutas = new HashMap<>();
+
+    @Data
+    public static class Presupuesto {
+        private Integer comandos;
+        private Long documentos;
+        private Long bytes;
+    }
+
+    Integer comandos(String ruta) {
+        Presupuesto presupuesto = rutas.get(ruta);
+        return presupuesto != null && presupuesto.getComandos() != null ? presupuesto.getComandos() : porDefecto.getComandos();
+    }
+
+    Long documentos(String ruta) {
+        Presupuesto presupuesto = rutas.get(ruta);
+        return presupuesto != null && presupuesto.getDocumentos() != null ? presupuesto.getDocumentos() : porDefecto.getDocumentos();
+    }
+
+    Long bytes(String ruta) {
+        Presupuesto presupuesto = rutas.get(ruta);
+        return presupuesto != null && presupuesto.getBytes() != null ? presupuesto.getBytes() : porDefecto.getBytes();
+    }
+}
@@ -1,6 +1,7 @@
 package com.banquito.gestion_vehiculos.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,9 +23,12 @@ public class SecurityConfig {
     @Autowired
     private UserAuthenticationFilter userAuthenticationFilter;
 
+    @Value("${seguridad.bcrypt.fuerza:10}")
+    private int fuerzaBcrypt;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(fuerzaBcrypt);
     }
 
     @Bean
@@ -68,7 +72,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-User-Email"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-User-Email", "X-Total-Count", "X-Next-Cursor", "ETag", "X-Db-Calls", "X-Db-Documents", "X-Db-Bytes"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
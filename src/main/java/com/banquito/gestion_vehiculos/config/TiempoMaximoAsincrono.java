@@ -0,0 +1,35 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Tiempo máximo propio de una respuesta asíncrona, como las exportaciones con
+ * StreamingResponseBody, sin cambiar el global de spring.mvc.async.request-timeout. El
+ * controlador lo fija con {@link #fijar(WebRequest, Duration)} y se aplica justo antes de
+ * iniciar el procesamiento asíncrono de esa petición.
+ */
+public class TiempoMaximoAsincrono implements CallableProcessingInterceptor {
+
+    private static final String ATRIBUTO = TiempoMaximoAsincrono.class.getName() + ".tiempo";
+
+    public static void fijar(WebRequest request, Duration tiempo) {
+        if (tiempo != null) {
+            request.setAttribute(ATRIBUTO, tiempo, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) instanceof Duration tiempo
+                && request instanceof AsyncWebRequest asincrona) {
+            asincrona.setTimeout(tiempo.toMillis());
+        }
+    }
+}
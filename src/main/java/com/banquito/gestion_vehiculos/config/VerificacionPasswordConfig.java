@@ -0,0 +1,51 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Pool dedicado y acotado para verificar contraseñas con BCrypt fuera de los hilos de
+ * Tomcat. Con la cola llena las tareas se rechazan de inmediato (AbortPolicy) y el login
+ * responde 503, de modo que una ráfaga de logins no bloquea al resto de la API.
+ */
+@Configuration
+public class VerificacionPasswordConfig {
+
+    public static final String EXECUTOR = "verificacionPasswordExecutor";
+
+    @Bean(name = EXECUTOR, destroyMethod = "shutdown")
+    public ThreadPoolExecutor verificacionPasswordExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${seguridad.bcrypt.hilos:0}") int hilos,
+            @Value("${seguridad.bcrypt.capacidad-cola:64}") int capacidadCola) {
+        int tamanio = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ArrayBlockingQueue<Runnable> cola = new ArrayBlockingQueue<>(capacidadCola);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(tamanio, tamanio, 0L, TimeUnit.MILLISECONDS,
+                cola, hilosConNombre(), new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("auth.bcrypt.cola", cola, ArrayBlockingQueue::size)
+                .description("Verificaciones de contraseña en espera")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "verificacion.password", java.util.List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    private ThreadFactory hilosConNombre() {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread hilo = new Thread(runnable, "bcrypt-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
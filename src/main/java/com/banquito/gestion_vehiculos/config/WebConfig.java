@@ -1,6 +1,7 @@
 package com.banquito.gestion_vehiculos.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -22,8 +23,13 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
-                .exposedHeaders("Authorization", "X-User-Email")
+                .exposedHeaders("Authorization", "X-User-Email", "X-Total-Count", "X-Next-Cursor", "ETag", "X-Db-Calls", "X-Db-Documents", "X-Db-Bytes")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new TiempoMaximoAsincrono());
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.banquito.gestion_vehiculos.controller;
 import com.banquito.gestion_vehiculos.dto.LoginRequestDTO;
 import com.banquito.gestion_vehiculos.dto.LoginResponseDTO;
 import com.banquito.gestion_vehiculos.dto.UsuarioDTO;
+import com.banquito.gestion_vehiculos.repository.PaginaKeyset;
 import com.banquito.gestion_vehiculos.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -42,10 +43,21 @@ public class AuthController {
         return ResponseEntity.ok(authService.findUsuarioByEmail(email));
     }
 
-    @Operation(summary = "Listar todos los usuarios", description = "Obtiene todos los usuarios (solo admin)")
+    @Operation(summary = "Listar todos los usuarios", description = "Obtiene todos los usuarios (solo admin). Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping("/usuarios")
-    public ResponseEntity<List<UsuarioDTO>> getAllUsuarios() {
-        return ResponseEntity.ok(authService.findAllUsuarios());
+    public ResponseEntity<List<UsuarioDTO>> getAllUsuarios(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort) {
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(authService.findAllUsuarios());
+        }
+        PaginaKeyset<UsuarioDTO> pagina = authService.findUsuarios(sort, cursor, limit);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.siguienteCursor() != null) {
+            respuesta.header(PaginaKeyset.HEADER_SIGUIENTE_CURSOR, pagina.siguienteCursor());
+        }
+        return respuesta.body(pagina.contenido());
     }
 
     @Operation(summary = "Actualizar usuario", description = "Actualiza un usuario existente")
@@ -1,13 +1,38 @@
 package com.banquito.gestion_vehiculos.controller;
 
+import com.banquito.gestion_vehiculos.config.TiempoMaximoAsincrono;
 import com.banquito.gestion_vehiculos.dto.ConcesionarioDTO;
+import com.banquito.gestion_vehiculos.dto.EstadisticasInventarioDTO;
+import com.banquito.gestion_vehiculos.dto.ResultadoBusquedaVehiculosDTO;
+import com.banquito.gestion_vehiculos.dto.VendedorBusquedaDTO;
 import com.banquito.gestion_vehiculos.dto.VendedorDTO;
 import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
 import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
 import com.banquito.gestion_vehiculos.service.ConcesionarioService;
+import com.banquito.gestion_vehiculos.service.ExportacionVehiculosService;
+import com.banquito.gestion_vehiculos.service.FiltroVehiculos;
+import com.banquito.gestion_vehiculos.service.IdentificadoresPorPlaca;
+import com.banquito.gestion_vehiculos.service.ImportacionVehiculosService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,53 +40,90 @@ import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository
 import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
 import com.banquito.gestion_vehiculos.dto.IdentificadorVehiculoDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import com.banquito.gestion_vehiculos.mapper.IdentificadorVehiculoMapper;
-import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
-import com.banquito.gestion_vehiculos.model.Concesionario;
-import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
-import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.repository.PaginaKeyset;
 
 @Tag(name = "Concesionarios", description = "Operaciones relacionadas con concesionarios, vendedores y vehículos")
 @RestController
 @RequestMapping("/api/concesionarios/v1")
 public class ConcesionarioController {
 
+    private static final String HEADER_TOTAL = "X-Total-Count";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ConcesionarioService concesionarioService;
     @Autowired
     private IdentificadorVehiculoRepository identificadorVehiculoRepository;
     @Autowired
     private IdentificadorVehiculoMapper identificadorVehiculoMapper;
     @Autowired
-    private VendedorMapper vendedorMapper;
+    private ExportacionVehiculosService exportacionVehiculosService;
+    @Autowired
+    private ImportacionVehiculosService importacionVehiculosService;
     @Autowired
-    private ConcesionarioRepository concesionarioRepository;
+    private IdentificadoresPorPlaca identificadoresPorPlaca;
+    // Solo la exportación puede superar el tiempo máximo global de las respuestas asíncronas
+    @Value("${exportacion.vehiculos.tiempo-maximo:PT30M}")
+    private Duration tiempoMaximoExportacion;
 
     public ConcesionarioController(ConcesionarioService concesionarioService) {
         this.concesionarioService = concesionarioService;
     }
 
-    @Operation(summary = "Listar todos los concesionarios", description = "Obtiene todos los concesionarios (solo admin)")
+    @Operation(summary = "Listar todos los concesionarios", description = "Obtiene todos los concesionarios (solo admin). Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping
-    public ResponseEntity<List<ConcesionarioDTO>> getAllConcesionarios() {
-        return ResponseEntity.ok(concesionarioService.findAllConcesionarios());
+    public ResponseEntity<List<ConcesionarioDTO>> getAllConcesionarios(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort) {
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(concesionarioService.findAllConcesionarios());
+        }
+        return paginada(concesionarioService.findConcesionarios(null, null, sort, cursor, limit));
     }
 
     @Operation(summary = "Buscar concesionario por RUC", description = "Obtiene un concesionario usando su RUC")
     @GetMapping("/ruc/{ruc}")
-    public ResponseEntity<ConcesionarioDTO> getByRuc(@PathVariable String ruc) {
+    public ResponseEntity<ConcesionarioDTO> getByRuc(@PathVariable String ruc, WebRequest request) {
+        if (noModificado(ruc, request)) {
+            return null;
+        }
         return ResponseEntity.ok(concesionarioService.findConcesionarioByRuc(ruc));
     }
 
-    @Operation(summary = "Buscar concesionarios por estado", description = "Obtiene una lista de concesionarios filtrados por estado")
+    @Operation(summary = "Buscar concesionarios por estado", description = "Obtiene una lista de concesionarios filtrados por estado. Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<ConcesionarioDTO>> getByEstado(@PathVariable EstadoConcesionarioEnum estado) {
-        return ResponseEntity.ok(concesionarioService.findConcesionariosByEstado(estado));
+    public ResponseEntity<List<ConcesionarioDTO>> getByEstado(
+            @PathVariable EstadoConcesionarioEnum estado,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort) {
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(concesionarioService.findConcesionariosByEstado(estado));
+        }
+        return paginada(concesionarioService.findConcesionarios(estado, null, sort, cursor, limit));
     }
 
-    @Operation(summary = "Buscar concesionarios por razón social", description = "Obtiene una lista de concesionarios filtrados por razón social")
+    @Operation(summary = "Buscar concesionarios por razón social", description = "Obtiene una lista de concesionarios filtrados por razón social. Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping("/razon-social/{razonSocial}")
-    public ResponseEntity<List<ConcesionarioDTO>> getByRazonSocial(@PathVariable String razonSocial) {
-        return ResponseEntity.ok(concesionarioService.findConcesionariosByRazonSocial(razonSocial));
+    public ResponseEntity<List<ConcesionarioDTO>> getByRazonSocial(
+            @PathVariable String razonSocial,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort) {
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(concesionarioService.findConcesionariosByRazonSocial(razonSocial));
+        }
+        return paginada(concesionarioService.findConcesionarios(null, razonSocial, sort, cursor, limit));
+    }
+
+    @Operation(summary = "Búsqueda de concesionarios por razón social", description = "Búsqueda indexada por razón social, sin distinguir mayúsculas ni tildes, ordenada por relevancia y limitada. Las palabras de menos de tres letras se buscan como prefijo")
+    @GetMapping("/razon-social")
+    public ResponseEntity<List<ConcesionarioDTO>> buscarPorRazonSocial(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(concesionarioService.buscarConcesionariosPorRazonSocial(texto, limit));
     }
 
     @Operation(summary = "Buscar concesionario por email de contacto", description = "Obtiene un concesionario usando su email de contacto")
@@ -78,26 +140,52 @@ public class ConcesionarioController {
 
     @Operation(summary = "Actualizar concesionario por RUC", description = "Actualiza los datos de un concesionario usando su RUC")
     @PutMapping("/ruc/{ruc}")
-    public ResponseEntity<ConcesionarioDTO> update(@PathVariable String ruc, @Valid @RequestBody ConcesionarioDTO dto) {
-        return ResponseEntity.ok(concesionarioService.updateConcesionario(ruc, dto));
+    public ResponseEntity<ConcesionarioDTO> update(@PathVariable String ruc, @Valid @RequestBody ConcesionarioDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ConcesionarioDTO actualizado = concesionarioService.updateConcesionario(ruc, dto, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(actualizado.getVersion())).body(actualizado);
     }
 
     @Operation(summary = "Desactivar concesionario por RUC", description = "Desactiva un concesionario usando su RUC")
     @PutMapping("/ruc/{ruc}/desactivar")
-    public ResponseEntity<ConcesionarioDTO> desactivar(@PathVariable String ruc) {
-        return ResponseEntity.ok(concesionarioService.desactivateConcesionario(ruc));
+    public ResponseEntity<ConcesionarioDTO> desactivar(@PathVariable String ruc,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ConcesionarioDTO actualizado = concesionarioService.desactivateConcesionario(ruc, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(actualizado.getVersion())).body(actualizado);
     }
 
-    @Operation(summary = "Listar vendedores por RUC de concesionario", description = "Obtiene los vendedores asociados a un concesionario")
+    @Operation(summary = "Listar vendedores por RUC de concesionario", description = "Obtiene los vendedores asociados a un concesionario. Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping("/ruc/{ruc}/vendedores")
-    public ResponseEntity<List<VendedorDTO>> getVendedoresByRuc(@PathVariable String ruc) {
-        return ResponseEntity.ok(concesionarioService.findVendedoresByRuc(ruc));
+    public ResponseEntity<List<VendedorDTO>> getVendedoresByRuc(
+            @PathVariable String ruc,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        if (noModificado(ruc, request)) {
+            return null;
+        }
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(concesionarioService.findVendedoresByRuc(ruc));
+        }
+        return paginada(concesionarioService.findVendedoresByRuc(ruc, sort, cursor, limit));
     }
 
-    @Operation(summary = "Listar vehículos por RUC de concesionario", description = "Obtiene los vehículos asociados a un concesionario")
+    @Operation(summary = "Listar vehículos por RUC de concesionario", description = "Obtiene los vehículos asociados a un concesionario. Con limit, cursor o sort se pagina por keyset y el cursor siguiente se devuelve en la cabecera X-Next-Cursor")
     @GetMapping("/ruc/{ruc}/vehiculos")
-    public ResponseEntity<List<VehiculoDTO>> getVehiculosByRuc(@PathVariable String ruc) {
-        return ResponseEntity.ok(concesionarioService.findVehiculosByRuc(ruc));
+    public ResponseEntity<List<VehiculoDTO>> getVehiculosByRuc(
+            @PathVariable String ruc,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        if (noModificado(ruc, request)) {
+            return null;
+        }
+        if (limit == null && cursor == null && sort == null) {
+            return ResponseEntity.ok(concesionarioService.findVehiculosByRuc(ruc));
+        }
+        return paginada(concesionarioService.findVehiculosByRuc(ruc, sort, cursor, limit));
     }
 
     @Operation(summary = "Crear vendedor en concesionario", description = "Crea un nuevo vendedor en un concesionario específico")
@@ -108,14 +196,20 @@ public class ConcesionarioController {
 
     @Operation(summary = "Actualizar vendedor por cédula", description = "Actualiza los datos de un vendedor en un concesionario usando la cédula")
     @PutMapping("/ruc/{ruc}/vendedores/{cedula}")
-    public ResponseEntity<VendedorDTO> updateVendedor(@PathVariable String ruc, @PathVariable String cedula, @Valid @RequestBody VendedorDTO dto) {
-        return ResponseEntity.ok(concesionarioService.updateVendedorInConcesionarioByCedula(ruc, cedula, dto));
+    public ResponseEntity<VendedorDTO> updateVendedor(@PathVariable String ruc, @PathVariable String cedula, @Valid @RequestBody VendedorDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versionEsperada = Etags.versionEsperada(ifMatch);
+        return conNuevaVersion(versionEsperada,
+            concesionarioService.updateVendedorInConcesionarioByCedula(ruc, cedula, dto, versionEsperada));
     }
 
     @Operation(summary = "Desactivar vendedor por cédula", description = "Desactiva un vendedor en un concesionario usando la cédula")
     @PutMapping("/ruc/{ruc}/vendedores/{cedula}/desactivar")
-    public ResponseEntity<VendedorDTO> desactivarVendedor(@PathVariable String ruc, @PathVariable String cedula) {
-        return ResponseEntity.ok(concesionarioService.desactivarVendedorInConcesionarioByCedula(ruc, cedula));
+    public ResponseEntity<VendedorDTO> desactivarVendedor(@PathVariable String ruc, @PathVariable String cedula,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versionEsperada = Etags.versionEsperada(ifMatch);
+        return conNuevaVersion(versionEsperada,
+            concesionarioService.desactivarVendedorInConcesionarioByCedula(ruc, cedula, versionEsperada));
     }
 
     @Operation(summary = "Buscar vendedor por cédula", description = "Obtiene un vendedor en un concesionario usando la cédula")
@@ -146,14 +240,20 @@ public class ConcesionarioController {
 
     @Operation(summary = "Actualizar vehículo por placa", description = "Actualiza los datos de un vehículo en un concesionario usando la placa")
     @PutMapping("/ruc/{ruc}/vehiculos/{placa}")
-    public ResponseEntity<VehiculoDTO> updateVehiculo(@PathVariable String ruc, @PathVariable String placa, @Valid @RequestBody VehiculoDTO dto) {
-        return ResponseEntity.ok(concesionarioService.updateVehiculoInConcesionarioByPlaca(ruc, placa, dto));
+    public ResponseEntity<VehiculoDTO> updateVehiculo(@PathVariable String ruc, @PathVariable String placa, @Valid @RequestBody VehiculoDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versionEsperada = Etags.versionEsperada(ifMatch);
+        return conNuevaVersion(versionEsperada,
+            concesionarioService.updateVehiculoInConcesionarioByPlaca(ruc, placa, dto, versionEsperada));
     }
 
     @Operation(summary = "Desactivar vehículo por placa", description = "Desactiva un vehículo en un concesionario usando la placa")
     @PutMapping("/ruc/{ruc}/vehiculos/{placa}/desactivar")
-    public ResponseEntity<VehiculoDTO> desactivarVehiculo(@PathVariable String ruc, @PathVariable String placa) {
-        return ResponseEntity.ok(concesionarioService.desactivarVehiculoInConcesionarioByPlaca(ruc, placa));
+    public ResponseEntity<VehiculoDTO> desactivarVehiculo(@PathVariable String ruc, @PathVariable String placa,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versionEsperada = Etags.versionEsperada(ifMatch);
+        return conNuevaVersion(versionEsperada,
+            concesionarioService.desactivarVehiculoInConcesionarioByPlaca(ruc, placa, versionEsperada));
     }
 
     @Operation(summary = "Listar vehículos por estado", description = "Obtiene los vehículos de un concesionario filtrados por estado")
@@ -187,15 +287,23 @@ public class ConcesionarioController {
     @Operation(summary = "Crear identificador de vehículo", description = "Crea un identificador de vehículo (placa, chasis, motor)")
     @PostMapping("/identificadores-vehiculo")
     public ResponseEntity<?> createIdentificadorVehiculo(@RequestBody IdentificadorVehiculoDTO dto) {
-        // Comentar temporalmente la validación de duplicados para permitir crear vehículos
-        // if (identificadorVehiculoRepository.findByPlaca(dto.getPlaca()) != null) {
-        //     return ResponseEntity.badRequest().body("Ya existe un identificador con la placa: " + dto.getPlaca());
-        // }
+        // La mayoría de placas nuevas no están en el filtro de Bloom y no llegan a Mongo; si el
+        // filtro de esta instancia aún no tiene una placa creada en otra, responde el índice único
+        if (identificadoresPorPlaca.buscarNueva(dto.getPlaca()).isPresent()) {
+            return ResponseEntity.badRequest().body("Ya existe un identificador con la placa: " + dto.getPlaca());
+        }
         IdentificadorVehiculo identificador = new IdentificadorVehiculo();
         identificador.setPlaca(dto.getPlaca());
         identificador.setChasis(dto.getChasis());
         identificador.setMotor(dto.getMotor());
-        IdentificadorVehiculo saved = identificadorVehiculoRepository.save(identificador);
+        IdentificadorVehiculo saved;
+        try {
+            saved = identificadorVehiculoRepository.save(identificador);
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.badRequest().body("Ya existe un identificador con la placa: " + dto.getPlaca());
+        }
+        identificadoresPorPlaca.registrar(saved);
+        concesionarioService.invalidarVersionesPorPlaca(saved.getPlaca());
         return ResponseEntity.ok(saved);
     }
 
@@ -207,35 +315,111 @@ public class ConcesionarioController {
             .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Listar todos los vendedores del sistema", description = "Obtiene todos los vendedores de todos los concesionarios (solo admin)")
+    @Operation(summary = "Listar todos los vendedores del sistema", description = "Obtiene una página de los vendedores de todos los concesionarios (solo admin), por defecto la página 0 de 50. El total se devuelve en la cabecera X-Total-Count")
     @GetMapping("/vendedores")
-    public ResponseEntity<List<VendedorDTO>> getAllVendedores() {
-        return ResponseEntity.ok(concesionarioService.findAllVendedores());
+    public ResponseEntity<List<VendedorDTO>> getAllVendedores(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort) {
+        Page<VendedorDTO> pagina = concesionarioService.findAllVendedores(page, size, sort);
+        return ResponseEntity.ok()
+            .header(HEADER_TOTAL, String.valueOf(pagina.getTotalElements()))
+            .body(pagina.getContent());
     }
 
-    @Operation(summary = "Listar todos los vehículos del sistema", description = "Obtiene todos los vehículos de todos los concesionarios (solo admin)")
+    @Operation(summary = "Listar todos los vehículos del sistema", description = "Obtiene una página de los vehículos de todos los concesionarios (solo admin), por defecto la página 0 de 50. El total se devuelve en la cabecera X-Total-Count. Para el inventario completo, pedir la exportación con Accept application/x-ndjson o text/csv")
     @GetMapping("/vehiculos")
-    public ResponseEntity<List<VehiculoDTO>> getAllVehiculos() {
-        return ResponseEntity.ok(concesionarioService.findAllVehiculos());
+    public ResponseEntity<List<VehiculoDTO>> getAllVehiculos(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort) {
+        Page<VehiculoDTO> pagina = concesionarioService.findAllVehiculos(page, size, sort);
+        return ResponseEntity.ok()
+            .header(HEADER_TOTAL, String.valueOf(pagina.getTotalElements()))
+            .body(pagina.getContent());
+    }
+
+    @Operation(summary = "Búsqueda facetada de vehículos", description = "Busca vehículos de todos los concesionarios por marca, modelo, tipo, combustible, condición, estado y rangos de valor y año, y devuelve los conteos por faceta del resultado")
+    @GetMapping("/vehiculos/busqueda")
+    public ResponseEntity<ResultadoBusquedaVehiculosDTO> buscarVehiculos(
+            @RequestParam(required = false) String ruc,
+            @RequestParam(required = false) String marca,
+            @RequestParam(required = false) String modelo,
+            @RequestParam(required = false) TipoVehiculoEnum tipo,
+            @RequestParam(required = false) CombustibleVehiculoEnum combustible,
+            @RequestParam(required = false) CondicionVehiculoEnum condicion,
+            @RequestParam(required = false) EstadoVehiculoEnum estado,
+            @RequestParam(required = false) BigDecimal valorMin,
+            @RequestParam(required = false) BigDecimal valorMax,
+            @RequestParam(required = false) Integer anioMin,
+            @RequestParam(required = false) Integer anioMax,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        FiltroVehiculos filtro = new FiltroVehiculos(ruc, marca, modelo, tipo, combustible, condicion, estado,
+            valorMin, valorMax, anioMin, anioMax);
+        return ResponseEntity.ok(concesionarioService.buscarVehiculos(filtro, offset, limit));
+    }
+
+    @Operation(summary = "Estadísticas globales del inventario", description = "Obtiene los conteos de vehículos por estado, tipo, combustible y condición, el valor total y promedio y los conteos de vendedores por estado de todos los concesionarios, agregados en la base de datos")
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasInventarioDTO> getEstadisticasInventario() {
+        return ResponseEntity.ok(concesionarioService.findEstadisticasInventario(null));
+    }
+
+    @Operation(summary = "Estadísticas del inventario de un concesionario", description = "Obtiene los conteos de vehículos por estado, tipo, combustible y condición, el valor total y promedio y los conteos de vendedores por estado del concesionario, agregados en la base de datos")
+    @GetMapping("/ruc/{ruc}/estadisticas")
+    public ResponseEntity<EstadisticasInventarioDTO> getEstadisticasInventarioByRuc(@PathVariable String ruc) {
+        return ResponseEntity.ok(concesionarioService.findEstadisticasInventario(ruc));
+    }
+
+    @Operation(summary = "Exportar todos los vehículos (NDJSON)", description = "Exporta el inventario completo de vehículos como un objeto JSON por línea, en streaming (solo admin). Se selecciona con Accept: application/x-ndjson")
+    @GetMapping(value = "/vehiculos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarVehiculosNdjson(WebRequest request) {
+        TiempoMaximoAsincrono.fijar(request, tiempoMaximoExportacion);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(exportacionVehiculosService::exportarNdjson);
+    }
+
+    @Operation(summary = "Exportar todos los vehículos (CSV)", description = "Exporta el inventario completo de vehículos en CSV, en streaming (solo admin). Se selecciona con Accept: text/csv")
+    @GetMapping(value = "/vehiculos", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarVehiculosCsv(WebRequest request) {
+        TiempoMaximoAsincrono.fijar(request, tiempoMaximoExportacion);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vehiculos.csv\"")
+            .body(exportacionVehiculosService::exportarCsv);
+    }
+
+    @Operation(summary = "Importar vehículos (NDJSON)", description = "Crea en lote los vehículos de un concesionario desde un objeto JSON por línea (campos de vehículo más placa, chasis y motor). Responde en streaming un reporte NDJSON con el resultado de cada fila y una última línea con los totales")
+    @PostMapping(value = "/ruc/{ruc}/vehiculos/importacion", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importarVehiculosNdjson(@PathVariable String ruc, InputStream entrada, HttpServletResponse respuesta) throws IOException {
+        importacionVehiculosService.importarNdjson(ruc, entrada, () -> reporteImportacion(respuesta));
+    }
+
+    @Operation(summary = "Importar vehículos (CSV)", description = "Crea en lote los vehículos de un concesionario desde un CSV con cabecera, con las mismas columnas que la exportación. Responde en streaming un reporte NDJSON con el resultado de cada fila y una última línea con los totales")
+    @PostMapping(value = "/ruc/{ruc}/vehiculos/importacion", consumes = TEXT_CSV_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importarVehiculosCsv(@PathVariable String ruc, InputStream entrada, HttpServletResponse respuesta) throws IOException {
+        importacionVehiculosService.importarCsv(ruc, entrada, () -> reporteImportacion(respuesta));
     }
 
-    @Operation(summary = "Buscar vendedores por nombre en concesionario", description = "Obtiene una lista de vendedores de un concesionario cuyo nombre contiene el texto dado (ignore case)")
+    @Operation(summary = "Buscar vendedores por nombre en concesionario", description = "Obtiene los vendedores de un concesionario cuyo nombre contiene el texto dado, sin distinguir mayúsculas ni tildes y ordenados por relevancia. Con menos de tres caracteres busca palabras que empiezan por el texto")
     @GetMapping("/ruc/{ruc}/vendedores/nombre/{nombre}")
-    public ResponseEntity<List<VendedorDTO>> getVendedoresByNombre(@PathVariable String ruc, @PathVariable String nombre) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        if (concesionario.getVendedores() == null) return ResponseEntity.ok(List.of());
-        List<VendedorDTO> dtos = concesionario.getVendedores().stream()
-            .filter(v -> {
-                if (nombre.length() == 1) {
-                    return v.getNombre() != null && v.getNombre().toLowerCase().startsWith(nombre.toLowerCase());
-                } else {
-                    return v.getNombre() != null && v.getNombre().toLowerCase().contains(nombre.toLowerCase());
-                }
-            })
-            .map(vendedorMapper::toDTO)
-            .toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<VendedorDTO>> getVendedoresByNombre(
+            @PathVariable String ruc,
+            @PathVariable String nombre,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(concesionarioService.buscarVendedoresPorNombreInConcesionario(ruc, nombre, limit));
+    }
+
+    @Operation(summary = "Autocompletar vendedores por nombre", description = "Busca vendedores de todos los concesionarios por nombre, sin distinguir mayúsculas ni tildes y ordenados por relevancia")
+    @GetMapping("/vendedores/busqueda")
+    public ResponseEntity<List<VendedorBusquedaDTO>> buscarVendedores(
+            @RequestParam String nombre,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(concesionarioService.buscarVendedoresPorNombre(nombre, limit));
     }
 
     @Operation(summary = "Buscar concesionario por email de vendedor", description = "Obtiene el concesionario al que pertenece un vendedor usando su email")
@@ -243,4 +427,45 @@ public class ConcesionarioController {
     public ResponseEntity<ConcesionarioDTO> getConcesionarioByVendedorEmail(@PathVariable String email) {
         return ResponseEntity.ok(concesionarioService.findConcesionarioByVendedorEmail(email));
     }
-} 
\ No newline at end of file
+
+    /**
+     * La importación lee la petición y escribe el reporte en el mismo hilo, a medida que
+     * se guardan los lotes; la respuesta se configura solo cuando el servicio abre el reporte.
+     */
+    private OutputStream reporteImportacion(HttpServletResponse respuesta) throws IOException {
+        respuesta.setStatus(HttpServletResponse.SC_OK);
+        respuesta.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        respuesta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return respuesta.getOutputStream();
+    }
+
+    private <T> ResponseEntity<List<T>> paginada(PaginaKeyset<T> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.siguienteCursor() != null) {
+            respuesta.header(PaginaKeyset.HEADER_SIGUIENTE_CURSOR, pagina.siguienteCursor());
+        }
+        return respuesta.body(pagina.contenido());
+    }
+
+    /**
+     * Compara If-None-Match con la versión del concesionario leída por proyección. Si
+     * coincide deja la respuesta en 304 y el handler no debe cargar ni serializar nada;
+     * en otro caso solo agrega la cabecera ETag.
+     */
+    private boolean noModificado(String ruc, WebRequest request) {
+        String etag = Etags.deVersion(concesionarioService.findVersionConcesionario(ruc));
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    /**
+     * Con If-Match la escritura se aplicó exactamente sobre esa versión, así que la nueva
+     * versión del concesionario es la siguiente y puede devolverse como ETag.
+     */
+    private <T> ResponseEntity<T> conNuevaVersion(Long versionEsperada, T cuerpo) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (versionEsperada != null) {
+            respuesta.eTag(Etags.deVersion(versionEsperada + 1));
+        }
+        return respuesta.body(cuerpo);
+    }
+}
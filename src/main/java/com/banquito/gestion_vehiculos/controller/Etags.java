@@ -0,0 +1,38 @@
+package com.banquito.gestion_vehiculos.controller;
+
+import com.banquito.gestion_vehiculos.exception.PrecondicionFallidaException;
+
+/**
+ * ETags fuertes derivadas de la versión del concesionario. Todo cambio del concesionario,
+ * de sus vendedores o de sus vehículos incrementa esa versión, y también la creación de
+ * un identificador para una placa que tiene, por lo que sirve para validar cualquiera de
+ * sus representaciones.
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String deVersion(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Versión esperada a partir de la cabecera If-Match; null si no se envió o es "*".
+     * Una ETag débil o que no es una versión nunca coincide y produce 412.
+     */
+    static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.valueOf(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException e) {
+                // cae al 412
+            }
+        }
+        throw new PrecondicionFallidaException("Concesionario", "If-Match no corresponde a una versión vigente: " + valor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.banquito.gestion_vehiculos.controller;
+
+import com.banquito.gestion_vehiculos.dto.ResultadoValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.dto.ValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.service.ValidacionIdentificacionesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Validaciones", description = "Validación de identificaciones ecuatorianas")
+@RestController
+@RequestMapping("/api/concesionarios/v1/validaciones")
+public class ValidacionController {
+
+    private final ValidacionIdentificacionesService validacionIdentificacionesService;
+
+    public ValidacionController(ValidacionIdentificacionesService validacionIdentificacionesService) {
+        this.validacionIdentificacionesService = validacionIdentificacionesService;
+    }
+
+    @Operation(summary = "Validar cédulas y RUC en lote", description = "Valida hasta validacion.identificaciones.maximo-por-solicitud cédulas y RUC (en total) por solicitud. Devuelve la validez de cada uno en el mismo orden y la cantidad de inválidos")
+    @PostMapping("/identificaciones")
+    public ResponseEntity<ResultadoValidacionIdentificacionesDTO> validarIdentificaciones(
+            @RequestBody ValidacionIdentificacionesDTO solicitud) {
+        return ResponseEntity.ok(validacionIdentificacionesService.validar(solicitud));
+    }
+}
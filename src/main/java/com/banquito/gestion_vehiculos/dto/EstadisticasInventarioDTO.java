@@ -0,0 +1,43 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estadísticas del inventario de un concesionario o de todo el sistema")
+public class EstadisticasInventarioDTO {
+
+    @Schema(description = "RUC del concesionario; nulo en las estadísticas globales", example = "1790012345001")
+    private String ruc;
+
+    @Schema(description = "Cantidad total de vehículos", example = "128")
+    private long totalVehiculos;
+
+    @Schema(description = "Cantidad de vehículos por estado")
+    private Map<String, Long> vehiculosPorEstado;
+
+    @Schema(description = "Cantidad de vehículos por tipo")
+    private Map<String, Long> vehiculosPorTipo;
+
+    @Schema(description = "Cantidad de vehículos por combustible")
+    private Map<String, Long> vehiculosPorCombustible;
+
+    @Schema(description = "Cantidad de vehículos por condición")
+    private Map<String, Long> vehiculosPorCondicion;
+
+    @Schema(description = "Suma del valor de los vehículos", example = "2450000.00")
+    private BigDecimal valorTotal;
+
+    @Schema(description = "Valor promedio de los vehículos con valor", example = "19140.63")
+    private BigDecimal valorPromedio;
+
+    @Schema(description = "Cantidad de vendedores por estado")
+    private Map<String, Long> vendedoresPorEstado;
+}
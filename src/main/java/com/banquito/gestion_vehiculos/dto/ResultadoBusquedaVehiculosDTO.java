@@ -0,0 +1,25 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de la búsqueda facetada de vehículos")
+public class ResultadoBusquedaVehiculosDTO {
+
+    @Schema(description = "Cantidad total de vehículos que cumplen los filtros", example = "128")
+    private int total;
+
+    @Schema(description = "Página de vehículos encontrados")
+    private List<VehiculoBusquedaDTO> vehiculos;
+
+    @Schema(description = "Conteo por valor de cada faceta (tipo, combustible, condicion, estado) dentro del resultado")
+    private Map<String, Map<String, Integer>> facetas;
+}
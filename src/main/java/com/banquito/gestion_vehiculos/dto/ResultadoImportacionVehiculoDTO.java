@@ -0,0 +1,36 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado de una fila de la importación masiva de vehículos")
+public class ResultadoImportacionVehiculoDTO {
+
+    public static final String CREADO = "CREADO";
+    public static final String ERROR = "ERROR";
+
+    @Schema(description = "Número de registro en el archivo, sin contar la cabecera CSV", example = "1")
+    private int fila;
+
+    @Schema(description = "CREADO o ERROR", example = "CREADO")
+    private String estado;
+
+    @Schema(description = "Placa de la fila, si se pudo leer", example = "PBA1234")
+    private String placa;
+
+    @Schema(description = "ID asignado al vehículo creado")
+    private String id;
+
+    @Schema(description = "Motivos por los que la fila no se importó")
+    private List<String> errores;
+}
@@ -0,0 +1,25 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de la validación en lote, en el mismo orden que la solicitud")
+public class ResultadoValidacionIdentificacionesDTO {
+
+    @Schema(description = "Validez de cada cédula", example = "[true, false]")
+    private boolean[] cedulas;
+
+    @Schema(description = "Validez de cada RUC", example = "[true]")
+    private boolean[] rucs;
+
+    @Schema(description = "Cantidad de cédulas inválidas", example = "1")
+    private int cedulasInvalidas;
+
+    @Schema(description = "Cantidad de RUC inválidos", example = "0")
+    private int rucsInvalidos;
+}
@@ -0,0 +1,17 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Totales de la importación masiva de vehículos; última línea del reporte")
+public class ResumenImportacionVehiculosDTO {
+
+    private int filas;
+    private int creados;
+    private int errores;
+}
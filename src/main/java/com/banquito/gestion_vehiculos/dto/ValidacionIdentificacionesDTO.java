@@ -0,0 +1,19 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Lote de cédulas y RUC a validar")
+public class ValidacionIdentificacionesDTO {
+
+    @Schema(description = "Cédulas ecuatorianas", example = "[\"1710034065\", \"1710034066\"]")
+    private List<String> cedulas;
+
+    @Schema(description = "RUC de personas naturales", example = "[\"1710034065001\"]")
+    private List<String> rucs;
+}
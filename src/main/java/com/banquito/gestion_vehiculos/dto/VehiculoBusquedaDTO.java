@@ -0,0 +1,18 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Vehículo encontrado en la búsqueda entre concesionarios")
+public class VehiculoBusquedaDTO {
+
+    @Schema(description = "RUC del concesionario al que pertenece el vehículo", example = "1790012345001")
+    private String concesionarioRuc;
+
+    private VehiculoDTO vehiculo;
+}
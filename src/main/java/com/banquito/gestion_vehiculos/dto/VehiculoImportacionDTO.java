@@ -0,0 +1,26 @@
+package com.banquito.gestion_vehiculos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "Fila de la importación masiva de vehículos: datos del vehículo más su chasis y motor")
+public class VehiculoImportacionDTO extends VehiculoDTO {
+
+    @Size(min = 17, max = 17, message = "El chasis debe tener exactamente 17 caracteres")
+    @Schema(description = "Número de chasis", example = "1HGCM82633A004352")
+    private String chasis;
+
+    @Size(max = 20, message = "El número de motor no puede exceder 20 caracteres")
+    @Schema(description = "Número de motor", example = "MTR123456789")
+    private String motor;
+}
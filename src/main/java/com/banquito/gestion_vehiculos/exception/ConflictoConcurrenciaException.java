@@ -0,0 +1,20 @@
+package com.banquito.gestion_vehiculos.exception;
+
+public class ConflictoConcurrenciaException extends RuntimeException {
+
+    private final Integer errorCode;
+
+    public ConflictoConcurrenciaException(String entityName, String message) {
+        super(entityName + ": " + message);
+        this.errorCode = 409;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Error code: " + this.errorCode + ", message: " + super.getMessage();
+    }
+
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+}
@@ -1,5 +1,6 @@
 package com.banquito.gestion_vehiculos.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +19,40 @@ public class ManejadorGlobalExcepciones {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<Map<String, String>> manejarSolicitudInvalida(SolicitudInvalidaException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Solicitud inválida");
+        error.put("detalle", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ConflictoConcurrenciaException.class)
+    public ResponseEntity<Map<String, String>> manejarConflictoConcurrencia(ConflictoConcurrenciaException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Conflicto de concurrencia");
+        error.put("detalle", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<Map<String, String>> manejarPrecondicionFallida(PrecondicionFallidaException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Precondición fallida");
+        error.put("detalle", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<Map<String, String>> manejarServicioSaturado(ServicioSaturadoException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Servicio saturado");
+        error.put("detalle", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler({ CreateEntityException.class, UpdateEntityException.class, DeleteEntityException.class })
     public ResponseEntity<Map<String, String>> manejarErroresDeNegocio(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
@@ -0,0 +1,20 @@
+package com.banquito.gestion_vehiculos.exception;
+
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final Integer errorCode;
+
+    public ServicioSaturadoException(String message) {
+        super(message);
+        this.errorCode = 503;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Error code: " + this.errorCode + ", message: " + super.getMessage();
+    }
+
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+}
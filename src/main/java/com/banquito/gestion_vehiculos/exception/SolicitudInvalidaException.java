@@ -0,0 +1,20 @@
+package com.banquito.gestion_vehiculos.exception;
+
+public class SolicitudInvalidaException extends RuntimeException {
+
+    private final Integer errorCode;
+
+    public SolicitudInvalidaException(String message) {
+        super(message);
+        this.errorCode = 400;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Error code: " + this.errorCode + ", message: " + super.getMessage();
+    }
+
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+}
@@ -1,10 +1,15 @@
 package com.banquito.gestion_vehiculos.mapper;
 
 import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
 import com.banquito.gestion_vehiculos.model.Vehiculo;
-import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.banquito.gestion_vehiculos.service.IdentificadoresPorPlaca;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,13 +19,42 @@ import org.springframework.stereotype.Component;
 public class VehiculoMapper {
 
     @Autowired
-    private IdentificadorVehiculoRepository identificadorVehiculoRepository;
+    private IdentificadoresPorPlaca identificadoresPorPlaca;
 
     @Autowired
     private IdentificadorVehiculoMapper identificadorVehiculoMapper;
 
     public VehiculoDTO toDTO(Vehiculo model) {
         if (model == null) return null;
+        VehiculoDTO dto = toDTOSinIdentificador(model);
+        if (model.getPlaca() != null) {
+            dto.setIdentificadorVehiculo(
+                this.identificadorVehiculoMapper.toDTO(
+                    identificadoresPorPlaca.buscar(model.getPlaca()).orElse(null)
+                )
+            );
+        }
+        return dto;
+    }
+
+    /**
+     * Respuesta del alta de un vehículo: su placa se busca como nueva, así que si el filtro
+     * de Bloom no la contiene no se consulta Mongo.
+     */
+    public VehiculoDTO toDTONuevo(Vehiculo model) {
+        if (model == null) return null;
+        VehiculoDTO dto = toDTOSinIdentificador(model);
+        if (model.getPlaca() != null) {
+            dto.setIdentificadorVehiculo(
+                this.identificadorVehiculoMapper.toDTO(
+                    identificadoresPorPlaca.buscarNueva(model.getPlaca()).orElse(null)
+                )
+            );
+        }
+        return dto;
+    }
+
+    private VehiculoDTO toDTOSinIdentificador(Vehiculo model) {
         VehiculoDTO dto = new VehiculoDTO();
         dto.setId(model.getId());
         dto.setMarca(model.getMarca());
@@ -36,13 +70,6 @@ public class VehiculoMapper {
         dto.setVersion(model.getVersion());
         dto.setCondicion(model.getCondicion());
         dto.setPlaca(model.getPlaca());
-        if (model.getPlaca() != null) {
-            dto.setIdentificadorVehiculo(
-                this.identificadorVehiculoMapper.toDTO(
-                    identificadorVehiculoRepository.findByPlaca(model.getPlaca())
-                )
-            );
-        }
         return dto;
     }
 
@@ -66,8 +93,29 @@ public class VehiculoMapper {
         return model;
     }
 
+    /**
+     * Mapea un lote de vehículos resolviendo todos sus identificadores con una sola
+     * consulta por placa ($in) en lugar de una consulta por vehículo; las placas que
+     * están en caché no se consultan.
+     */
     public List<VehiculoDTO> toDTOList(List<Vehiculo> entityList) {
-        return entityList.stream().map(this::toDTO).collect(Collectors.toList());
+        if (entityList == null || entityList.isEmpty()) return new ArrayList<>();
+        Set<String> placas = entityList.stream()
+            .filter(Objects::nonNull)
+            .map(Vehiculo::getPlaca)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<String, IdentificadorVehiculo> identificadores = identificadoresPorPlaca.buscarTodas(placas);
+        List<VehiculoDTO> dtos = new ArrayList<>(entityList.size());
+        for (Vehiculo model : entityList) {
+            if (model == null) continue;
+            VehiculoDTO dto = toDTOSinIdentificador(model);
+            if (model.getPlaca() != null) {
+                dto.setIdentificadorVehiculo(identificadorVehiculoMapper.toDTO(identificadores.get(model.getPlaca())));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     public void updateEntity(Vehiculo entity, VehiculoDTO dto) {
@@ -32,5 +32,14 @@ public class Concesionario {
     private List<Vendedor> vendedores;
     private List<Vehiculo> vehiculos;
     private Long version;
+    // Campos derivados de razonSocial para la búsqueda indexada; no se exponen en el DTO
+    private String razonSocialNormalizada;
+    private String razonSocialNgramas;
+    // Marca de MigracionVehiculos: sus vehículos embebidos ya están en la colección vehiculos
+    private Boolean vehiculosMigrados;
+    // Marca de BackfillVendedores: sus vendedores están en la colección vendedores y ya no se embeben
+    private Boolean vendedoresMigrados;
+    // Vendedores embebidos que el backfill no pudo copiar por cédula o email repetidos
+    private List<String> vendedoresEnConflicto;
 
 }
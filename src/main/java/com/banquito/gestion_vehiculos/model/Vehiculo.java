@@ -3,6 +3,8 @@ package com.banquito.gestion_vehiculos.model;
 import java.math.BigDecimal;
 
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
 import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
@@ -28,6 +30,8 @@ public class Vehiculo {
     private String modelo;
     private double cilindraje;
     private String anio;
+    // Decimal128 para que el orden y los rangos por valor sean numéricos y no de texto
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal valor;
     private String color;
     private String extras;
@@ -37,5 +41,7 @@ public class Vehiculo {
     private String placa;
     private Long version;
     private CondicionVehiculoEnum condicion;
+    // Concesionario dueño en la colección vehiculos; no se guarda en los arreglos embebidos
+    private String concesionarioId;
 
 }
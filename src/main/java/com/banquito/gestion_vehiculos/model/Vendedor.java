@@ -1,6 +1,5 @@
 package com.banquito.gestion_vehiculos.model;
 
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum;
@@ -20,13 +19,13 @@ import lombok.ToString;
 public class Vendedor {
 
     private String id;
+    // Concesionario al que pertenece en la colección vendedores
+    private String concesionarioId;
     private String nombre;
     private String telefono;
-    @Indexed(name = "idxuVendedor_email", unique = true)
     private String email;
     private EstadoVendedorEnum estado;
     private Long version;
-    @Indexed(name = "idxuVendedor_cedula", unique = true)
     private String cedula;
 
 }
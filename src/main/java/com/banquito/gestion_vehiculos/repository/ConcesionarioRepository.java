@@ -2,16 +2,10 @@ package com.banquito.gestion_vehiculos.repository;
 
 import com.banquito.gestion_vehiculos.model.Concesionario;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
 
-import java.util.List;
 import java.util.Optional;
 
-public interface ConcesionarioRepository extends MongoRepository<Concesionario, String> {
-
-    List<Concesionario> findByEstado(EstadoConcesionarioEnum estado);
-
-    Optional<Concesionario> findByEmailContacto(String emailContacto);
+public interface ConcesionarioRepository extends MongoRepository<Concesionario, String>, ConcesionarioRepositoryCustom {
 
     boolean existsByEmailContacto(String emailContacto);
 
@@ -19,12 +13,7 @@ public interface ConcesionarioRepository extends MongoRepository<Concesionario,
 
     boolean existsByTelefono(String telefono);
 
-    List<Concesionario> findByRazonSocialContainingIgnoreCase(String razonSocial);
-
     Optional<Concesionario> findByRuc(String ruc);
 
     boolean existsByRuc(String ruc);
-    
-    // Buscar concesionario que contiene un vendedor específico
-    Optional<Concesionario> findByVendedoresId(String vendedorId);
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Consultas sobre los arreglos embebidos de concesionarios que se resuelven en Mongo
+ * mediante agregaciones, sin hidratar documentos completos en memoria.
+ *
+ * Las escrituras reciben la versión esperada del concesionario (compare-and-set): solo se
+ * aplican si la versión almacenada coincide, y siempre la incrementan. Con null se aplican
+ * sin condición de versión.
+ */
+public interface ConcesionarioRepositoryCustom {
+
+    List<Vehiculo> findVehiculosPaginados(Pageable pageable);
+
+    long countVehiculos();
+
+    /**
+     * Recorre todos los vehículos con un cursor de Mongo en lotes del tamaño indicado, sin
+     * materializar el inventario. El stream debe cerrarse para liberar el cursor.
+     */
+    Stream<Vehiculo> streamVehiculos(int tamanioLote);
+
+    /**
+     * Recorre con un cursor los concesionarios trayendo solo el RUC y los vehículos.
+     */
+    Stream<Concesionario> streamInventario();
+
+    // Listados de concesionarios con solo la cabecera: los arreglos embebidos y los campos
+    // derivados de búsqueda no se leen, porque ConcesionarioDTO no los expone.
+
+    List<Concesionario> findCabeceras();
+
+    List<Concesionario> findCabecerasByEstado(EstadoConcesionarioEnum estado);
+
+    /**
+     * Razón social que contiene el texto, sin distinguir mayúsculas.
+     */
+    List<Concesionario> findCabecerasByRazonSocialContiene(String parteRazon);
+
+    Optional<Concesionario> findCabeceraByEmailContacto(String emailContacto);
+
+    /**
+     * Página de concesionarios por keyset, filtrada opcionalmente por estado y por razón
+     * social (contiene, sin distinguir mayúsculas). Los filtros null no se aplican. Solo
+     * trae la cabecera.
+     */
+    PaginaKeyset<Concesionario> findConcesionariosKeyset(EstadoConcesionarioEnum estado, String razonSocial, Keyset keyset);
+
+    /**
+     * Página por keyset sobre los vehículos embebidos de un concesionario: solo viaja y se
+     * mapea la página pedida. Vacía también si no existe el concesionario.
+     */
+    PaginaKeyset<Vehiculo> findVehiculosKeyset(String ruc, Keyset keyset);
+
+    /**
+     * Promedios de los arreglos embebidos sobre todos los concesionarios, en una sola agregación.
+     */
+    TamanioEmbebidos promediarEmbebidos();
+
+    /**
+     * Estadísticas de los vehículos embebidos del concesionario, o de todos si el RUC es
+     * nulo, con $unwind del arreglo y la misma faceta que la colección vehiculos.
+     */
+    EstadisticasVehiculos estadisticasVehiculosEmbebidos(String ruc);
+
+    /**
+     * Convierte a Decimal128 el valor guardado como texto de los vehículos embebidos, sin
+     * incrementar la versión porque el dato de negocio no cambia.
+     *
+     * @return cantidad de concesionarios modificados
+     */
+    long convertirValorVehiculosEmbebidosADecimal();
+
+    /**
+     * Búsqueda por razón social sobre el índice de texto de razonSocialNgramas: deben estar
+     * todos los términos y, si se indica, la razón social normalizada debe contener el texto.
+     * Los resultados (solo cabecera) se ordenan por puntaje de texto.
+     */
+    List<Concesionario> buscarPorRazonSocial(Collection<String> terminos, String contiene, int limite);
+
+    /**
+     * Concesionarios creados antes de la búsqueda indexada (sin razonSocialNgramas); solo
+     * se leen el id y la razón social.
+     */
+    Stream<Concesionario> streamSinCamposBusqueda();
+
+    /**
+     * Escribe en lote los campos derivados de búsqueda por id de concesionario, sin
+     * incrementar la versión porque no cambian datos del negocio.
+     */
+    void completarCamposBusqueda(Map<String, Map<String, Object>> camposPorId);
+
+    /**
+     * Lee solo la versión del concesionario; vacío si no existe o no tiene versión.
+     */
+    Optional<Long> findVersionByRuc(String ruc);
+
+    /**
+     * Devuelve solo la cabecera del concesionario, sin los arreglos embebidos.
+     */
+    Optional<Concesionario> findCabeceraByRuc(String ruc);
+
+    Optional<Concesionario> findCabeceraById(String id);
+
+    /**
+     * Lee solo los vehículos embebidos del concesionario; vacío si no existe.
+     */
+    Optional<List<Vehiculo>> findVehiculosEmbebidosByRuc(String ruc);
+
+    /**
+     * Recorre con un cursor el id y el RUC de todos los concesionarios.
+     */
+    Stream<Concesionario> streamIdentificacion();
+
+    /**
+     * Incrementa la versión sin cambiar otros campos, para escrituras que se aplican fuera del
+     * documento del concesionario pero deben invalidar sus ETags.
+     *
+     * @return false si no existe el concesionario o cambió su versión
+     */
+    boolean incrementarVersion(String ruc, Long versionEsperada);
+
+    /**
+     * Incrementa sin condición la versión de los concesionarios indicados, para cambios de
+     * datos que su representación incluye pero que viven en otra colección.
+     */
+    void incrementarVersiones(Collection<String> ids);
+
+    /**
+     * Ids de los concesionarios con algún vehículo embebido de esas placas.
+     */
+    List<String> findIdsByPlacaVehiculoEmbebidoIn(Collection<String> placas);
+
+    /**
+     * Concesionarios cuyos vehículos embebidos faltan por copiar a la colección vehiculos,
+     * trayendo solo el id y los vehículos. Con conArreglo también los ya copiados que aún
+     * conservan el arreglo.
+     */
+    Stream<Concesionario> streamPendientesMigracionVehiculos(boolean conArreglo, int tamanioLote);
+
+    long countPendientesMigracionVehiculos();
+
+    /**
+     * Marca el concesionario como migrado y, si se indica, elimina su arreglo de vehículos.
+     * No incrementa la versión: la representación del concesionario no cambia.
+     */
+    void marcarVehiculosMigrados(String id, boolean quitarArreglo);
+
+    /**
+     * Concesionarios cuyos vendedores siguen embebidos, trayendo solo el RUC y los vendedores.
+     */
+    Stream<Concesionario> streamPendientesMigracionVendedores();
+
+    /**
+     * Lee solo los vendedores embebidos del concesionario; vacío si no existe.
+     */
+    Optional<List<Vendedor>> findVendedoresEmbebidosById(String id);
+
+    /**
+     * Marca el concesionario como migrado y elimina su arreglo de vendedores, sin incrementar
+     * la versión.
+     */
+    void marcarVendedoresMigrados(String id);
+
+    /**
+     * Deja constancia de los vendedores embebidos que el backfill no pudo copiar por chocar con
+     * la cédula o el email de otro vendedor; el arreglo se conserva y sigue siendo su fuente.
+     */
+    void marcarVendedoresEnConflicto(String id, List<String> idsVendedores);
+
+    /**
+     * Página por keyset de los vendedores embebidos del concesionario.
+     */
+    PaginaKeyset<Vendedor> findVendedoresKeyset(String ruc, Keyset keyset);
+
+    /**
+     * Aplica un $set sobre los campos de cabecera indicados e incrementa la versión.
+     *
+     * @return la cabecera actualizada, vacío si no existe el concesionario o cambió su versión
+     */
+    Optional<Concesionario> actualizarCabecera(String ruc, Map<String, Object> campos, Long versionEsperada);
+
+    /**
+     * Agrega un lote de vehículos con un único $push $each.
+     *
+     * @return false si no existe el concesionario o cambió su versión
+     */
+    boolean agregarVehiculos(String ruc, List<Vehiculo> vehiculos, Long versionEsperada);
+
+    /**
+     * Lee solo las placas de los vehículos del concesionario; vacío si no existe.
+     */
+    Optional<List<String>> findPlacasVehiculosByRuc(String ruc);
+
+    // Actualizaciones posicionales ($set sobre vehiculos.$) con findAndModify.
+    // Solo viajan los campos modificados y se devuelve únicamente el elemento actualizado;
+    // el resultado es vacío si el concesionario o el elemento no existen o cambió la versión.
+
+    Optional<Vehiculo> actualizarVehiculoPorId(String ruc, String idVehiculo, Map<String, Object> campos, Long versionEsperada);
+
+    Optional<Vehiculo> actualizarVehiculoPorPlaca(String ruc, String placa, Map<String, Object> campos, Long versionEsperada);
+}
@@ -0,0 +1,468 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class ConcesionarioRepositoryCustomImpl implements ConcesionarioRepositoryCustom {
+
+    /** Collation de comparación sin mayúsculas; debe coincidir con la del índice para poder usarlo. */
+    public static final Collation COLACION_SIN_MAYUSCULAS = Collation.of("es").strength(Collation.ComparisonLevel.secondary());
+
+    private static final String VEHICULOS = "vehiculos";
+    private static final String VENDEDORES = "vendedores";
+    private static final String RAZON_SOCIAL_NORMALIZADA = "razonSocialNormalizada";
+    private static final String RAZON_SOCIAL_NGRAMAS = "razonSocialNgramas";
+    private static final String VEHICULOS_MIGRADOS = "vehiculosMigrados";
+    private static final String VENDEDORES_MIGRADOS = "vendedoresMigrados";
+    private static final String VENDEDORES_EN_CONFLICTO = "vendedoresEnConflicto";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ConcesionarioRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Vehiculo> findVehiculosPaginados(Pageable pageable) {
+        return mongoTemplate.aggregate(paginarArreglo(VEHICULOS, pageable), coleccion(), Vehiculo.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public long countVehiculos() {
+        return contarElementos(VEHICULOS);
+    }
+
+    @Override
+    public Stream<Vehiculo> streamVehiculos(int tamanioLote) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(VEHICULOS + ".0").exists(true)),
+                Aggregation.project(VEHICULOS).andExclude("_id"),
+                Aggregation.unwind(VEHICULOS),
+                Aggregation.replaceRoot(VEHICULOS))
+                .withOptions(AggregationOptions.builder().cursorBatchSize(tamanioLote).build());
+        return mongoTemplate.aggregateStream(aggregation, coleccion(), Vehiculo.class);
+    }
+
+    @Override
+    public Stream<Concesionario> streamInventario() {
+        Query query = new Query(Criteria.where(VEHICULOS + ".0").exists(true));
+        query.fields().include("ruc").include(VEHICULOS);
+        return mongoTemplate.stream(query, Concesionario.class);
+    }
+
+    @Override
+    public List<Concesionario> findCabeceras() {
+        return mongoTemplate.find(soloCabecera(new Query()), Concesionario.class);
+    }
+
+    @Override
+    public List<Concesionario> findCabecerasByEstado(EstadoConcesionarioEnum estado) {
+        return mongoTemplate.find(soloCabecera(new Query(Criteria.where("estado").is(estado.name()))), Concesionario.class);
+    }
+
+    @Override
+    public List<Concesionario> findCabecerasByRazonSocialContiene(String parteRazon) {
+        Query query = new Query(Criteria.where("razonSocial").regex(Pattern.quote(parteRazon), "i"));
+        return mongoTemplate.find(soloCabecera(query), Concesionario.class);
+    }
+
+    @Override
+    public Optional<Concesionario> findCabeceraByEmailContacto(String emailContacto) {
+        Query query = new Query(Criteria.where("emailContacto").is(emailContacto));
+        return Optional.ofNullable(mongoTemplate.findOne(soloCabecera(query), Concesionario.class));
+    }
+
+    @Override
+    public PaginaKeyset<Concesionario> findConcesionariosKeyset(EstadoConcesionarioEnum estado, String razonSocial, Keyset keyset) {
+        List<Criteria> filtros = new ArrayList<>();
+        if (estado != null) {
+            filtros.add(Criteria.where("estado").is(estado.name()));
+        }
+        if (razonSocial != null) {
+            filtros.add(Criteria.where("razonSocial").regex(Pattern.quote(razonSocial), "i"));
+        }
+        Criteria filtro = filtros.isEmpty() ? null
+                : filtros.size() == 1 ? filtros.get(0)
+                : new Criteria().andOperator(filtros);
+        return keyset.buscar(mongoTemplate, filtro, Concesionario.class, VENDEDORES, VEHICULOS, RAZON_SOCIAL_NGRAMAS);
+    }
+
+    @Override
+    public PaginaKeyset<Vehiculo> findVehiculosKeyset(String ruc, Keyset keyset) {
+        return paginarArregloKeyset(ruc, VEHICULOS, keyset, Vehiculo.class);
+    }
+
+    @Override
+    public TamanioEmbebidos promediarEmbebidos() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project()
+                        .and(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(VEHICULOS).then(List.of())))
+                        .as(VEHICULOS)
+                        .and(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(VENDEDORES).then(List.of())))
+                        .as(VENDEDORES),
+                Aggregation.group().count().as("concesionarios")
+                        .avg(VEHICULOS).as(VEHICULOS)
+                        .avg(VENDEDORES).as(VENDEDORES));
+        Document resultado = mongoTemplate.aggregate(aggregation, coleccion(), Document.class)
+                .getUniqueMappedResult();
+        if (resultado == null) {
+            return new TamanioEmbebidos(0, 0, 0);
+        }
+        return new TamanioEmbebidos(((Number) resultado.get("concesionarios")).longValue(),
+                ((Number) resultado.get(VEHICULOS)).doubleValue(),
+                ((Number) resultado.get(VENDEDORES)).doubleValue());
+    }
+
+    @Override
+    public EstadisticasVehiculos estadisticasVehiculosEmbebidos(String ruc) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(ruc != null
+                        ? Criteria.where("ruc").is(ruc)
+                        : Criteria.where(VEHICULOS + ".0").exists(true)),
+                Aggregation.project(VEHICULOS).andExclude("_id"),
+                Aggregation.unwind(VEHICULOS),
+                Aggregation.replaceRoot(VEHICULOS),
+                Aggregation.project(EstadisticasVehiculos.CAMPOS),
+                EstadisticasVehiculos.facetas());
+        return EstadisticasVehiculos.de(mongoTemplate.aggregate(aggregation, coleccion(), Document.class)
+                .getUniqueMappedResult());
+    }
+
+    @Override
+    public long convertirValorVehiculosEmbebidosADecimal() {
+        Query query = new Query(Criteria.where(VEHICULOS + ".valor").type(JsonSchemaObject.Type.STRING));
+        Document vehiculo = new Document("$mergeObjects", List.of("$$v",
+                new Document("valor", VehiculoRepositoryCustomImpl.aDecimal("$$v.valor"))));
+        Document conversion = new Document("$set", new Document(VEHICULOS, new Document("$map",
+                new Document("input", "$" + VEHICULOS).append("as", "v").append("in", vehiculo))));
+        return mongoTemplate.updateMulti(query, AggregationUpdate.from(List.of(Aggregation.stage(conversion))), coleccion())
+                .getModifiedCount();
+    }
+
+    private String coleccion() {
+        return mongoTemplate.getCollectionName(Concesionario.class);
+    }
+
+    @Override
+    public List<Concesionario> buscarPorRazonSocial(Collection<String> terminos, String contiene, int limite) {
+        TextCriteria texto = TextCriteria.forDefaultLanguage();
+        terminos.forEach(texto::matchingPhrase);
+        Query query = TextQuery.queryText(texto).sortByScore().limit(limite);
+        if (contiene != null) {
+            query.addCriteria(Criteria.where(RAZON_SOCIAL_NORMALIZADA).regex(Pattern.quote(contiene)));
+        }
+        return mongoTemplate.find(soloCabecera(query), Concesionario.class);
+    }
+
+    @Override
+    public Stream<Concesionario> streamSinCamposBusqueda() {
+        Query query = new Query(Criteria.where(RAZON_SOCIAL_NGRAMAS).exists(false));
+        query.fields().include("razonSocial");
+        return mongoTemplate.stream(query, Concesionario.class);
+    }
+
+    @Override
+    public void completarCamposBusqueda(Map<String, Map<String, Object>> camposPorId) {
+        if (camposPorId.isEmpty()) {
+            return;
+        }
+        BulkOperations operaciones = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Concesionario.class);
+        camposPorId.forEach((id, campos) -> {
+            Update update = new Update();
+            campos.forEach(update::set);
+            operaciones.updateOne(new Query(Criteria.where("id").is(id)), update);
+        });
+        operaciones.execute();
+    }
+
+    @Override
+    public Optional<Long> findVersionByRuc(String ruc) {
+        Query query = new Query(Criteria.where("ruc").is(ruc));
+        query.fields().include("version").exclude("_id");
+        Document documento = mongoTemplate.findOne(query, Document.class, coleccion());
+        if (documento == null || !(documento.get("version") instanceof Number version)) {
+            return Optional.empty();
+        }
+        return Optional.of(version.longValue());
+    }
+
+    @Override
+    public Optional<Concesionario> findCabeceraByRuc(String ruc) {
+        Query query = new Query(Criteria.where("ruc").is(ruc));
+        return Optional.ofNullable(mongoTemplate.findOne(soloCabecera(query), Concesionario.class));
+    }
+
+    @Override
+    public Optional<Concesionario> findCabeceraById(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        return Optional.ofNullable(mongoTemplate.findOne(soloCabecera(query), Concesionario.class));
+    }
+
+    @Override
+    public Optional<List<Vehiculo>> findVehiculosEmbebidosByRuc(String ruc) {
+        Query query = new Query(Criteria.where("ruc").is(ruc));
+        query.fields().include(VEHICULOS);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Concesionario.class))
+                .map(concesionario -> concesionario.getVehiculos() != null ? concesionario.getVehiculos() : List.of());
+    }
+
+    @Override
+    public Stream<Concesionario> streamIdentificacion() {
+        Query query = new Query();
+        query.fields().include("ruc");
+        return mongoTemplate.stream(query, Concesionario.class);
+    }
+
+    @Override
+    public boolean incrementarVersion(String ruc, Long versionEsperada) {
+        Query query = new Query(filtroConcesionario(ruc, versionEsperada));
+        return mongoTemplate.updateFirst(query, new Update().inc("version", 1), Concesionario.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void incrementarVersiones(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().inc("version", 1),
+                    Concesionario.class);
+        }
+    }
+
+    @Override
+    public List<String> findIdsByPlacaVehiculoEmbebidoIn(Collection<String> placas) {
+        Query query = new Query(Criteria.where(VEHICULOS + ".placa").in(placas));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Concesionario.class).stream().map(Concesionario::getId).toList();
+    }
+
+    @Override
+    public Stream<Concesionario> streamPendientesMigracionVehiculos(boolean conArreglo, int tamanioLote) {
+        Criteria sinMigrar = Criteria.where(VEHICULOS_MIGRADOS).ne(true);
+        Query query = new Query(conArreglo
+                ? new Criteria().orOperator(sinMigrar, Criteria.where(VEHICULOS).exists(true))
+                : sinMigrar);
+        query.fields().include(VEHICULOS);
+        query.cursorBatchSize(tamanioLote);
+        return mongoTemplate.stream(query, Concesionario.class);
+    }
+
+    @Override
+    public long countPendientesMigracionVehiculos() {
+        return mongoTemplate.count(new Query(Criteria.where(VEHICULOS_MIGRADOS).ne(true)), Concesionario.class);
+    }
+
+    @Override
+    public void marcarVehiculosMigrados(String id, boolean quitarArreglo) {
+        Update update = new Update().set(VEHICULOS_MIGRADOS, true);
+        if (quitarArreglo) {
+            update.unset(VEHICULOS);
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), update, Concesionario.class);
+    }
+
+    @Override
+    public Stream<Concesionario> streamPendientesMigracionVendedores() {
+        Query query = new Query(Criteria.where(VENDEDORES_MIGRADOS).ne(true));
+        query.fields().include("ruc").include(VENDEDORES);
+        return mongoTemplate.stream(query, Concesionario.class);
+    }
+
+    @Override
+    public Optional<List<Vendedor>> findVendedoresEmbebidosById(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(VENDEDORES);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Concesionario.class))
+                .map(concesionario -> concesionario.getVendedores() != null ? concesionario.getVendedores() : List.of());
+    }
+
+    @Override
+    public void marcarVendedoresMigrados(String id) {
+        Update update = new Update().set(VENDEDORES_MIGRADOS, true).unset(VENDEDORES).unset(VENDEDORES_EN_CONFLICTO);
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), update, Concesionario.class);
+    }
+
+    @Override
+    public void marcarVendedoresEnConflicto(String id, List<String> idsVendedores) {
+        Update update = new Update().set(VENDEDORES_EN_CONFLICTO, idsVendedores);
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), update, Concesionario.class);
+    }
+
+    @Override
+    public PaginaKeyset<Vendedor> findVendedoresKeyset(String ruc, Keyset keyset) {
+        return paginarArregloKeyset(ruc, VENDEDORES, keyset, Vendedor.class);
+    }
+
+    @Override
+    public Optional<Concesionario> actualizarCabecera(String ruc, Map<String, Object> campos, Long versionEsperada) {
+        Query query = soloCabecera(new Query(filtroConcesionario(ruc, versionEsperada)));
+        Update update = new Update().inc("version", 1);
+        campos.forEach(update::set);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Concesionario.class));
+    }
+
+    @Override
+    public boolean agregarVehiculos(String ruc, List<Vehiculo> vehiculos, Long versionEsperada) {
+        Query query = new Query(filtroConcesionario(ruc, versionEsperada));
+        Update update = new Update().push(VEHICULOS).each(vehiculos.toArray()).inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, Concesionario.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<List<String>> findPlacasVehiculosByRuc(String ruc) {
+        Query query = new Query(Criteria.where("ruc").is(ruc));
+        query.fields().include(VEHICULOS + ".placa").exclude("_id");
+        Document documento = mongoTemplate.findOne(query, Document.class, coleccion());
+        if (documento == null) {
+            return Optional.empty();
+        }
+        List<String> placas = new ArrayList<>();
+        for (Document vehiculo : documento.getList(VEHICULOS, Document.class, List.of())) {
+            String placa = vehiculo.getString("placa");
+            if (placa != null) {
+                placas.add(placa);
+            }
+        }
+        return Optional.of(placas);
+    }
+
+    @Override
+    public Optional<Vehiculo> actualizarVehiculoPorId(String ruc, String idVehiculo, Map<String, Object> campos,
+            Long versionEsperada) {
+        return actualizarElemento(ruc, versionEsperada, VEHICULOS, Criteria.where("id").is(idVehiculo), null, campos)
+                .map(Concesionario::getVehiculos)
+                .flatMap(ConcesionarioRepositoryCustomImpl::primero);
+    }
+
+    @Override
+    public Optional<Vehiculo> actualizarVehiculoPorPlaca(String ruc, String placa, Map<String, Object> campos,
+            Long versionEsperada) {
+        // Sin distinguir mayúsculas por collation: el índice de RUC con la misma collation acota la búsqueda
+        return actualizarElemento(ruc, versionEsperada, VEHICULOS, Criteria.where("placa").is(placa),
+                COLACION_SIN_MAYUSCULAS, campos)
+                .map(Concesionario::getVehiculos)
+                .flatMap(ConcesionarioRepositoryCustomImpl::primero);
+    }
+
+    /**
+     * findAndModify sobre el primer elemento del arreglo que cumple el filtro: $set posicional de
+     * los campos, $inc de la versión del elemento y del concesionario, y proyección posicional
+     * para que la respuesta traiga solo ese elemento. La collation, si se indica, aplica a toda
+     * la consulta, RUC incluido.
+     */
+    private Optional<Concesionario> actualizarElemento(String ruc, Long versionEsperada, String arreglo,
+            Criteria filtroElemento, Collation collation, Map<String, Object> campos) {
+        Query query = new Query(filtroConcesionario(ruc, versionEsperada).and(arreglo).elemMatch(filtroElemento));
+        if (collation != null) {
+            query.collation(collation);
+        }
+        query.fields().position(arreglo, 1);
+        Update update = new Update()
+                .inc(arreglo + ".$.version", 1)
+                .inc("version", 1);
+        campos.forEach((campo, valor) -> update.set(arreglo + ".$." + campo, valor));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Concesionario.class));
+    }
+
+    /**
+     * Excluye de la consulta los arreglos embebidos y los n-gramas de la razón social, que
+     * son la mayor parte del documento.
+     */
+    private static Query soloCabecera(Query query) {
+        query.fields().exclude(VENDEDORES).exclude(VEHICULOS).exclude(RAZON_SOCIAL_NGRAMAS);
+        return query;
+    }
+
+    private static Criteria filtroConcesionario(String ruc, Long versionEsperada) {
+        Criteria criteria = Criteria.where("ruc").is(ruc);
+        return versionEsperada == null ? criteria : criteria.and("version").is(versionEsperada);
+    }
+
+    private static <T> Optional<T> primero(List<T> elementos) {
+        return elementos == null || elementos.isEmpty() ? Optional.empty() : Optional.of(elementos.get(0));
+    }
+
+    /**
+     * $match + $project + $unwind + $replaceRoot + $sort + $skip + $limit sobre el arreglo indicado.
+     * Sin orden explícito se recorre por _id del concesionario (usa el índice) y el orden del arreglo.
+     */
+    private Aggregation paginarArreglo(String arreglo, Pageable pageable) {
+        List<AggregationOperation> etapas = new ArrayList<>();
+        etapas.add(Aggregation.match(Criteria.where(arreglo + ".0").exists(true)));
+        if (pageable.getSort().isUnsorted()) {
+            etapas.add(Aggregation.sort(Sort.by("_id")));
+        }
+        etapas.add(Aggregation.project(arreglo).andExclude("_id"));
+        etapas.add(Aggregation.unwind(arreglo));
+        etapas.add(Aggregation.replaceRoot(arreglo));
+        if (pageable.getSort().isSorted()) {
+            etapas.add(Aggregation.sort(pageable.getSort().and(Sort.by("_id"))));
+        }
+        etapas.add(Aggregation.skip(pageable.getOffset()));
+        etapas.add(Aggregation.limit(pageable.getPageSize()));
+        return Aggregation.newAggregation(etapas)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    private <T> PaginaKeyset<T> paginarArregloKeyset(String ruc, String arreglo, Keyset keyset, Class<T> tipo) {
+        List<AggregationOperation> etapas = new ArrayList<>();
+        etapas.add(Aggregation.match(Criteria.where("ruc").is(ruc)));
+        etapas.add(Aggregation.project(arreglo).andExclude("_id"));
+        etapas.add(Aggregation.unwind(arreglo));
+        etapas.add(Aggregation.replaceRoot(arreglo));
+        Criteria despues = keyset.criterio();
+        if (despues != null) {
+            etapas.add(Aggregation.match(despues));
+        }
+        etapas.add(Aggregation.sort(keyset.orden()));
+        etapas.add(Aggregation.limit(keyset.limite() + 1L));
+        List<Document> documentos = mongoTemplate.aggregate(Aggregation.newAggregation(etapas), coleccion(), Document.class)
+                .getMappedResults();
+        return keyset.pagina(documentos, documento -> mongoTemplate.getConverter().read(tipo, documento));
+    }
+
+    private long contarElementos(String arreglo) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project()
+                        .and(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(arreglo).then(List.of())))
+                        .as("cantidad"),
+                Aggregation.group().sum("cantidad").as("total"));
+        Document resultado = mongoTemplate.aggregate(aggregation, coleccion(), Document.class)
+                .getUniqueMappedResult();
+        if (resultado == null || resultado.get("total") == null) {
+            return 0L;
+        }
+        return ((Number) resultado.get("total")).longValue();
+    }
+}
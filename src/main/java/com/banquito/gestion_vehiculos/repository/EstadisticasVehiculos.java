@@ -0,0 +1,92 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+
+/**
+ * Conteos de vehículos por estado, tipo, combustible y condición, con el total y el
+ * promedio de su valor. Lo calcula en el servidor una sola etapa $facet, que comparten el
+ * recorrido de la colección vehiculos y el de los arreglos embebidos.
+ */
+public record EstadisticasVehiculos(
+        long total,
+        Map<String, Long> porEstado,
+        Map<String, Long> porTipo,
+        Map<String, Long> porCombustible,
+        Map<String, Long> porCondicion,
+        BigDecimal valorTotal,
+        BigDecimal valorPromedio) {
+
+    public static final EstadisticasVehiculos VACIAS = new EstadisticasVehiculos(0, Map.of(), Map.of(), Map.of(),
+            Map.of(), BigDecimal.ZERO, BigDecimal.ZERO);
+
+    /** Campos que lee la faceta; proyectar solo estos permite cubrir la consulta con un índice. */
+    static final String[] CAMPOS = { "estado", "tipo", "combustible", "condicion", "valor" };
+
+    private static final String CANTIDAD = "cantidad";
+    private static final String VALOR = "valor";
+
+    /**
+     * El valor se convierte con $toDecimal antes de sumar y promediar porque los vehículos
+     * que aún no pasó {@code ConversionValorVehiculos} lo tienen como texto; los vehículos
+     * sin valor no cuentan en el promedio.
+     */
+    static FacetOperation facetas() {
+        return Aggregation.facet(Aggregation.group("estado").count().as(CANTIDAD)).as("estado")
+                .and(Aggregation.group("tipo").count().as(CANTIDAD)).as("tipo")
+                .and(Aggregation.group("combustible").count().as(CANTIDAD)).as("combustible")
+                .and(Aggregation.group("condicion").count().as(CANTIDAD)).as("condicion")
+                .and(Aggregation.group().count().as(CANTIDAD)
+                        .sum(ConvertOperators.valueOf(VALOR).convertToDecimal()).as("total")
+                        .avg(ConvertOperators.valueOf(VALOR).convertToDecimal()).as("promedio")).as(VALOR);
+    }
+
+    static EstadisticasVehiculos de(Document resultado) {
+        if (resultado == null) {
+            return VACIAS;
+        }
+        List<Document> valor = resultado.getList(VALOR, Document.class, List.of());
+        if (valor.isEmpty()) {
+            return VACIAS;
+        }
+        Document totales = valor.get(0);
+        return new EstadisticasVehiculos(
+                ((Number) totales.get(CANTIDAD)).longValue(),
+                conteos(resultado, "estado"),
+                conteos(resultado, "tipo"),
+                conteos(resultado, "combustible"),
+                conteos(resultado, "condicion"),
+                decimal(totales.get("total")),
+                decimal(totales.get("promedio")).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static Map<String, Long> conteos(Document resultado, String faceta) {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (Document grupo : resultado.getList(faceta, Document.class, List.of())) {
+            // Los vehículos sin el atributo forman un grupo con _id nulo que no se publica
+            if (grupo.get("_id") != null) {
+                conteos.put(grupo.get("_id").toString(), ((Number) grupo.get(CANTIDAD)).longValue());
+            }
+        }
+        return conteos;
+    }
+
+    private static BigDecimal decimal(Object valor) {
+        if (valor instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (valor instanceof Number numero) {
+            return new BigDecimal(numero.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+}
@@ -3,8 +3,18 @@ package com.banquito.gestion_vehiculos.repository;
 import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
  
 @Repository
-public interface IdentificadorVehiculoRepository extends MongoRepository<IdentificadorVehiculo, String> {
+public interface IdentificadorVehiculoRepository extends MongoRepository<IdentificadorVehiculo, String>,
+        IdentificadorVehiculoRepositoryCustom {
     IdentificadorVehiculo findByPlaca(String placa);
-} 
\ No newline at end of file
+
+    // Resuelve en una sola consulta ($in) los identificadores de un lote de placas
+    List<IdentificadorVehiculo> findByPlacaIn(Collection<String> placas);
+
+    // Deshace las inserciones de un lote de importación cuyos vehículos no se guardaron
+    long deleteByPlacaIn(Collection<String> placas);
+} 
@@ -0,0 +1,21 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+
+public interface IdentificadorVehiculoRepositoryCustom {
+
+    /**
+     * Inserta los identificadores cuya placa aún no está registrada, en una sola escritura
+     * masiva (bulkWrite desordenado de upserts con $setOnInsert). Un identificador existente
+     * nunca se modifica, aunque sea de otro concesionario. Devuelve las placas insertadas.
+     */
+    List<String> insertarPorPlaca(List<IdentificadorVehiculo> identificadores);
+
+    /**
+     * Recorre con un cursor solo las placas registradas. El stream debe cerrarse.
+     */
+    Stream<String> streamPlacas();
+}
@@ -0,0 +1,67 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.mongodb.bulk.BulkWriteUpsert;
+
+public class IdentificadorVehiculoRepositoryCustomImpl implements IdentificadorVehiculoRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public IdentificadorVehiculoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<String> insertarPorPlaca(List<IdentificadorVehiculo> identificadores) {
+        if (identificadores.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdentificadorVehiculo.class);
+        for (IdentificadorVehiculo identificador : identificadores) {
+            // Los campos ausentes no se escriben: un identificador sin motor no es uno con motor nulo
+            Update update = new Update().setOnInsert("placa", identificador.getPlaca());
+            if (identificador.getChasis() != null) {
+                update.setOnInsert("chasis", identificador.getChasis());
+            }
+            if (identificador.getMotor() != null) {
+                update.setOnInsert("motor", identificador.getMotor());
+            }
+            bulk.upsert(new Query(Criteria.where("placa").is(identificador.getPlaca())), update);
+        }
+        try {
+            return placas(identificadores, bulk.execute().getUpserts());
+        } catch (BulkOperationException e) {
+            // Sin las placas insertadas el llamador no podría deshacerlas: se eliminan aquí
+            List<String> insertadas = placas(identificadores, e.getResult().getUpserts());
+            if (!insertadas.isEmpty()) {
+                mongoTemplate.remove(new Query(Criteria.where("placa").in(insertadas)), IdentificadorVehiculo.class);
+            }
+            throw e;
+        }
+    }
+
+    private static List<String> placas(List<IdentificadorVehiculo> identificadores, List<BulkWriteUpsert> upserts) {
+        return upserts.stream().map(upsert -> identificadores.get(upsert.getIndex()).getPlaca()).toList();
+    }
+
+    @Override
+    public Stream<String> streamPlacas() {
+        Query query = new Query();
+        query.fields().include("placa").exclude("_id");
+        return mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(IdentificadorVehiculo.class))
+                .map(documento -> documento.getString("placa"))
+                .filter(Objects::nonNull);
+    }
+}
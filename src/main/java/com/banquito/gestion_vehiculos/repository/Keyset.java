@@ -0,0 +1,163 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.banquito.gestion_vehiculos.exception.SolicitudInvalidaException;
+
+/**
+ * Parámetros de una consulta paginada por keyset: en lugar de saltar documentos con skip,
+ * cada página continúa desde el último par (campo de orden, _id) devuelto, de modo que una
+ * página profunda cuesta lo mismo que la primera si existe un índice sobre (campo, _id).
+ *
+ * El cursor codifica el orden con el que se generó y los valores BSON del último elemento
+ * (JSON extendido en Base64 URL); un cursor con otro orden o alterado se rechaza con 400.
+ */
+public final class Keyset {
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private static final String ID = "_id";
+    private static final JsonWriterSettings JSON_EXTENDIDO = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final String campo;
+    private final Sort.Direction direccion;
+    private final int limite;
+    private final Document ultimo;
+
+    private Keyset(String campo, Sort.Direction direccion, int limite, Document ultimo) {
+        this.campo = campo;
+        this.direccion = direccion;
+        this.limite = limite;
+        this.ultimo = ultimo;
+    }
+
+    /**
+     * Construye el keyset a partir de los parámetros del controlador. El orden se expresa como
+     * "campo,asc|desc" (por defecto id ascendente) y solo admite los campos publicados.
+     */
+    public static Keyset de(String sort, String cursor, Integer limit, Map<String, String> camposPermitidos) {
+        int limite = limit != null ? limit : LIMITE_POR_DEFECTO;
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new SolicitudInvalidaException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        String campo = ID;
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (sort != null && !sort.isBlank()) {
+            String[] partes = sort.split(",");
+            campo = camposPermitidos.get(partes[0].trim());
+            if (campo == null) {
+                throw new SolicitudInvalidaException("No se puede ordenar por el campo: " + partes[0].trim());
+            }
+            if (partes.length > 1) {
+                direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new SolicitudInvalidaException("Dirección de orden inválida: " + partes[1].trim()));
+            }
+        }
+        Document ultimo = null;
+        if (cursor != null && !cursor.isBlank()) {
+            ultimo = decodificar(cursor);
+            if (!(campo + "," + direccion).equals(ultimo.getString("o")) || !ultimo.containsKey("i")) {
+                throw new SolicitudInvalidaException("El cursor no corresponde al orden solicitado");
+            }
+        }
+        return new Keyset(campo, direccion, limite, ultimo);
+    }
+
+    public int limite() {
+        return limite;
+    }
+
+    public Sort orden() {
+        Sort orden = Sort.by(direccion, ID);
+        return ID.equals(campo) ? orden : Sort.by(direccion, campo).and(orden);
+    }
+
+    /**
+     * Condición que deja solo los elementos posteriores al cursor, o null en la primera página.
+     * Los valores nulos se ordenan antes que cualquier otro valor, igual que en Mongo.
+     */
+    public Criteria criterio() {
+        if (ultimo == null) {
+            return null;
+        }
+        boolean asc = direccion.isAscending();
+        Object id = ultimo.get("i");
+        Criteria despuesDelId = asc ? Criteria.where(ID).gt(id) : Criteria.where(ID).lt(id);
+        if (ID.equals(campo)) {
+            return despuesDelId;
+        }
+        Object valor = ultimo.get("v");
+        Criteria mismoValor = (asc ? Criteria.where(ID).gt(id) : Criteria.where(ID).lt(id)).and(campo).is(valor);
+        if (valor == null) {
+            return asc
+                ? new Criteria().orOperator(mismoValor, Criteria.where(campo).ne(null))
+                : mismoValor;
+        }
+        return asc
+            ? new Criteria().orOperator(Criteria.where(campo).gt(valor), mismoValor)
+            : new Criteria().orOperator(Criteria.where(campo).lt(valor), mismoValor, Criteria.where(campo).is(null));
+    }
+
+    /**
+     * Consulta una colección de primer nivel con el filtro dado más la condición del cursor,
+     * sin traer los campos excluidos.
+     */
+    public <T> PaginaKeyset<T> buscar(MongoTemplate mongoTemplate, Criteria filtro, Class<T> entidad,
+            String... excluidos) {
+        Criteria despues = criterio();
+        Criteria condicion = filtro == null ? despues
+            : despues == null ? filtro
+            : new Criteria().andOperator(filtro, despues);
+        Query query = condicion == null ? new Query() : new Query(condicion);
+        query.with(orden()).limit(limite + 1);
+        for (String campo : excluidos) {
+            query.fields().exclude(campo);
+        }
+        List<Document> documentos = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(entidad));
+        return pagina(documentos, documento -> mongoTemplate.getConverter().read(entidad, documento));
+    }
+
+    /**
+     * Arma la página a partir de documentos crudos leídos con límite + 1: si sobra uno, hay
+     * página siguiente y el cursor se toma del último documento devuelto.
+     */
+    public <T> PaginaKeyset<T> pagina(List<Document> documentos, Function<Document, T> conversor) {
+        boolean haySiguiente = documentos.size() > limite;
+        List<Document> pagina = haySiguiente ? documentos.subList(0, limite) : documentos;
+        List<T> contenido = new ArrayList<>(pagina.size());
+        for (Document documento : pagina) {
+            contenido.add(conversor.apply(documento));
+        }
+        return new PaginaKeyset<>(contenido, haySiguiente ? codificar(pagina.get(pagina.size() - 1)) : null);
+    }
+
+    private String codificar(Document documento) {
+        Document cursor = new Document("o", campo + "," + direccion)
+            .append("v", ID.equals(campo) ? null : documento.get(campo))
+            .append("i", documento.get(ID));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(cursor.toJson(JSON_EXTENDIDO).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Document decodificar(String cursor) {
+        try {
+            return Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new SolicitudInvalidaException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página obtenida por keyset. El cursor es opaco para el cliente y es null en la última página.
+ */
+public record PaginaKeyset<T>(List<T> contenido, String siguienteCursor) {
+
+    /** Cabecera en la que se devuelve el cursor de la página siguiente. */
+    public static final String HEADER_SIGUIENTE_CURSOR = "X-Next-Cursor";
+
+    public <R> PaginaKeyset<R> mapear(Function<List<T>, List<R>> conversor) {
+        return new PaginaKeyset<>(conversor.apply(contenido), siguienteCursor);
+    }
+}
@@ -0,0 +1,7 @@
+package com.banquito.gestion_vehiculos.repository;
+
+/**
+ * Promedio de vehículos y vendedores embebidos por documento de concesionario.
+ */
+public record TamanioEmbebidos(long concesionarios, double vehiculosPromedio, double vendedoresPromedio) {
+}
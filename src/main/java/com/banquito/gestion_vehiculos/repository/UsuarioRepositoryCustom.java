@@ -0,0 +1,8 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import com.banquito.gestion_vehiculos.model.Usuario;
+
+public interface UsuarioRepositoryCustom {
+
+    PaginaKeyset<Usuario> findUsuariosKeyset(Keyset keyset);
+}
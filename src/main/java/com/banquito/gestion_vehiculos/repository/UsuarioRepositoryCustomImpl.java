@@ -0,0 +1,18 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import com.banquito.gestion_vehiculos.model.Usuario;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public class UsuarioRepositoryCustomImpl implements UsuarioRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UsuarioRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public PaginaKeyset<Usuario> findUsuariosKeyset(Keyset keyset) {
+        return keyset.buscar(mongoTemplate, null, Usuario.class);
+    }
+}
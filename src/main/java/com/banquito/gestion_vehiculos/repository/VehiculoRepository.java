@@ -0,0 +1,27 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+/**
+ * Colección vehiculos: un documento por vehículo con referencia al concesionario. Todas las
+ * consultas por concesionario usan los índices que empiezan por concesionarioId.
+ */
+@Repository
+public interface VehiculoRepository extends MongoRepository<Vehiculo, String>, VehiculoRepositoryCustom {
+
+    List<Vehiculo> findByConcesionarioId(String concesionarioId);
+
+    List<Vehiculo> findByConcesionarioIdAndEstado(String concesionarioId, EstadoVehiculoEnum estado);
+
+    List<Vehiculo> findByConcesionarioIdAndCondicion(String concesionarioId, CondicionVehiculoEnum condicion);
+
+    long countByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,74 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+public interface VehiculoRepositoryCustom {
+
+    /**
+     * Busca por placa sin distinguir mayúsculas dentro de los vehículos del concesionario.
+     */
+    Optional<Vehiculo> findByConcesionarioIdAndPlaca(String concesionarioId, String placa);
+
+    /**
+     * Página por keyset de los vehículos del concesionario; vacía si no tiene vehículos.
+     */
+    PaginaKeyset<Vehiculo> findKeyset(String concesionarioId, Keyset keyset);
+
+    /**
+     * Lee solo las placas de los vehículos del concesionario.
+     */
+    List<String> findPlacasByConcesionarioId(String concesionarioId);
+
+    /**
+     * Ids de los concesionarios con algún vehículo de esas placas, por el índice de placa.
+     */
+    List<String> findConcesionarioIdsByPlacaIn(Collection<String> placas);
+
+    /**
+     * Recorre todos los vehículos con un cursor en lotes del tamaño indicado. El stream
+     * debe cerrarse para liberar el cursor.
+     */
+    Stream<Vehiculo> streamTodos(int tamanioLote);
+
+    /**
+     * Inserta los vehículos que aún no existen en un bulkWrite desordenado de upserts con
+     * $setOnInsert: los que ya están, aunque tengan otros datos, no se tocan. Es la escritura
+     * de la migración y de las altas, por eso repetirla no duplica ni pisa cambios más nuevos.
+     */
+    void insertarSiNoExisten(String concesionarioId, List<Vehiculo> vehiculos);
+
+    /**
+     * Copia el vehículo completo, insertándolo si no existe, salvo que la colección ya tenga
+     * una versión igual o más nueva. Es la segunda escritura de las actualizaciones mientras
+     * los arreglos embebidos siguen siendo la fuente de las versiones.
+     */
+    void reemplazarSiMasReciente(String concesionarioId, Vehiculo vehiculo);
+
+    /**
+     * $set de los campos e $inc de la versión con findAndModify, condicionado a la versión
+     * leída del vehículo.
+     *
+     * @return el vehículo actualizado, vacío si no existe o cambió su versión
+     */
+    Optional<Vehiculo> actualizar(String id, Long versionEsperada, Map<String, Object> campos);
+
+    /**
+     * Estadísticas de los vehículos del concesionario, o de toda la colección si el id es
+     * nulo, calculadas con una agregación cubierta por el índice de estadísticas.
+     */
+    EstadisticasVehiculos estadisticas(String concesionarioId);
+
+    /**
+     * Convierte a Decimal128 el valor de los vehículos que aún lo tienen como texto, guardado
+     * así antes de mapear el campo con ese tipo. Los textos que no son números se dejan igual.
+     *
+     * @return cantidad de vehículos convertidos
+     */
+    long convertirValorADecimal();
+}
@@ -0,0 +1,166 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+public class VehiculoRepositoryCustomImpl implements VehiculoRepositoryCustom {
+
+    private static final String CONCESIONARIO_ID = "concesionarioId";
+    private static final String VALOR = "valor";
+
+    /** Índice (concesionarioId, estado, tipo, combustible, condicion, valor) que cubre las estadísticas. */
+    public static final String INDICE_ESTADISTICAS = "idxVehiculo_concesionarioId_estadisticas";
+
+    private final MongoTemplate mongoTemplate;
+
+    public VehiculoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Vehiculo> findByConcesionarioIdAndPlaca(String concesionarioId, String placa) {
+        Query query = new Query(Criteria.where(CONCESIONARIO_ID).is(concesionarioId).and("placa").is(placa))
+                .collation(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Vehiculo.class));
+    }
+
+    @Override
+    public PaginaKeyset<Vehiculo> findKeyset(String concesionarioId, Keyset keyset) {
+        return keyset.buscar(mongoTemplate, Criteria.where(CONCESIONARIO_ID).is(concesionarioId), Vehiculo.class);
+    }
+
+    @Override
+    public List<String> findConcesionarioIdsByPlacaIn(Collection<String> placas) {
+        return mongoTemplate.findDistinct(new Query(Criteria.where("placa").in(placas)), CONCESIONARIO_ID,
+                coleccion(), String.class);
+    }
+
+    @Override
+    public List<String> findPlacasByConcesionarioId(String concesionarioId) {
+        Query query = new Query(Criteria.where(CONCESIONARIO_ID).is(concesionarioId));
+        query.fields().include("placa").exclude("_id");
+        List<String> placas = new ArrayList<>();
+        for (Document documento : mongoTemplate.find(query, Document.class, coleccion())) {
+            String placa = documento.getString("placa");
+            if (placa != null) {
+                placas.add(placa);
+            }
+        }
+        return placas;
+    }
+
+    @Override
+    public Stream<Vehiculo> streamTodos(int tamanioLote) {
+        return mongoTemplate.stream(new Query().cursorBatchSize(tamanioLote), Vehiculo.class);
+    }
+
+    @Override
+    public void insertarSiNoExisten(String concesionarioId, List<Vehiculo> vehiculos) {
+        if (vehiculos.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Vehiculo.class);
+        for (Vehiculo vehiculo : vehiculos) {
+            Update update = new Update();
+            campos(concesionarioId, vehiculo).forEach(update::setOnInsert);
+            bulk.upsert(new Query(Criteria.where("id").is(vehiculo.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void reemplazarSiMasReciente(String concesionarioId, Vehiculo vehiculo) {
+        Criteria masAntigua = vehiculo.getVersion() == null
+                ? Criteria.where("version").is(null)
+                : new Criteria().orOperator(Criteria.where("version").lt(vehiculo.getVersion()),
+                        Criteria.where("version").is(null));
+        Update update = new Update();
+        campos(concesionarioId, vehiculo).forEach(update::set);
+        try {
+            mongoTemplate.upsert(new Query(Criteria.where("id").is(vehiculo.getId()).andOperator(masAntigua)),
+                    update, Vehiculo.class);
+        } catch (DuplicateKeyException e) {
+            // Ya existe con una versión igual o más nueva: esa copia gana
+        }
+    }
+
+    @Override
+    public Optional<Vehiculo> actualizar(String id, Long versionEsperada, Map<String, Object> campos) {
+        Query query = new Query(Criteria.where("id").is(id).and("version").is(versionEsperada));
+        Update update = new Update().inc("version", 1);
+        campos.forEach(update::set);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Vehiculo.class));
+    }
+
+    /**
+     * Sin filtro se fuerza el índice igualmente: recorrerlo entero es más barato que leer
+     * los documentos, porque la proyección deja la consulta cubierta.
+     */
+    @Override
+    public EstadisticasVehiculos estadisticas(String concesionarioId) {
+        List<AggregationOperation> etapas = new ArrayList<>();
+        if (concesionarioId != null) {
+            etapas.add(Aggregation.match(Criteria.where(CONCESIONARIO_ID).is(concesionarioId)));
+        }
+        etapas.add(Aggregation.project(EstadisticasVehiculos.CAMPOS).andExclude("_id"));
+        etapas.add(EstadisticasVehiculos.facetas());
+        Aggregation aggregation = Aggregation.newAggregation(etapas)
+                .withOptions(AggregationOptions.builder().hint(INDICE_ESTADISTICAS).build());
+        return EstadisticasVehiculos.de(mongoTemplate.aggregate(aggregation, coleccion(), Document.class)
+                .getUniqueMappedResult());
+    }
+
+    @Override
+    public long convertirValorADecimal() {
+        Query query = new Query(Criteria.where(VALOR).type(JsonSchemaObject.Type.STRING));
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+                Aggregation.stage(new Document("$set", new Document(VALOR, aDecimal("$" + VALOR))))));
+        return mongoTemplate.updateMulti(query, update, coleccion()).getModifiedCount();
+    }
+
+    /**
+     * Expresión $convert a decimal que, si el texto no es un número, devuelve el valor original.
+     */
+    static Document aDecimal(String expresion) {
+        return new Document("$convert", new Document("input", expresion)
+                .append("to", "decimal")
+                .append("onError", expresion));
+    }
+
+    /**
+     * Campos del vehículo tal como los escribe el conversor, sin el _id y con la referencia
+     * al concesionario.
+     */
+    private Document campos(String concesionarioId, Vehiculo vehiculo) {
+        Document documento = new Document();
+        mongoTemplate.getConverter().write(vehiculo, documento);
+        documento.remove("_id");
+        documento.put(CONCESIONARIO_ID, concesionarioId);
+        return documento;
+    }
+
+    private String coleccion() {
+        return mongoTemplate.getCollectionName(Vehiculo.class);
+    }
+}
@@ -1,13 +1,27 @@
 package com.banquito.gestion_vehiculos.repository;
 
-import com.banquito.gestion_vehiculos.model.Vendedor;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+
+/**
+ * Colección vendedores, fuente de verdad de los vendedores: un documento por vendedor con
+ * referencia al concesionario. Las consultas por concesionario usan los índices que empiezan
+ * por concesionarioId y las de email y cédula sus índices únicos.
+ */
 @Repository
-public interface VendedorRepository extends MongoRepository<Vendedor, String> {
-    List<Vendedor> findByNombreContainingIgnoreCase(String nombre);
-    Optional<Vendedor> findByEmail(String email);
-} 
\ No newline at end of file
+public interface VendedorRepository extends MongoRepository<Vendedor, String>, VendedorRepositoryCustom {
+
+    List<Vendedor> findByConcesionarioId(String concesionarioId);
+
+    List<Vendedor> findByConcesionarioIdAndEstado(String concesionarioId, EstadoVendedorEnum estado);
+
+    Optional<Vendedor> findByIdAndConcesionarioId(String id, String concesionarioId);
+
+    Optional<Vendedor> findByConcesionarioIdAndCedula(String concesionarioId, String cedula);
+}
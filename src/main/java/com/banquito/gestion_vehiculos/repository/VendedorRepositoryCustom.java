@@ -0,0 +1,57 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.banquito.gestion_vehiculos.model.Vendedor;
+
+public interface VendedorRepositoryCustom {
+
+    /**
+     * Busca por email sin distinguir mayúsculas usando el índice único con collation.
+     */
+    Optional<Vendedor> findByEmail(String email);
+
+    Optional<Vendedor> findByConcesionarioIdAndEmail(String concesionarioId, String email);
+
+    /**
+     * Página por keyset de los vendedores del concesionario; vacía si no tiene vendedores.
+     */
+    PaginaKeyset<Vendedor> findKeyset(String concesionarioId, Keyset keyset);
+
+    /**
+     * Recorre todos los vendedores con un cursor en lotes del tamaño indicado. El stream
+     * debe cerrarse para liberar el cursor.
+     */
+    Stream<Vendedor> streamTodos(int tamanioLote);
+
+    /**
+     * Inserta los vendedores que aún no existen en un bulkWrite desordenado de upserts con
+     * $setOnInsert: los que ya están no se tocan, así que el backfill puede repetirse sin
+     * pisar cambios hechos después sobre la colección.
+     */
+    void insertarSiNoExisten(String concesionarioId, List<Vendedor> vendedores);
+
+    /**
+     * Ids que ya están en la colección de entre los dados, leídos solo del índice de _id.
+     */
+    Set<String> findIdsExistentes(Collection<String> ids);
+
+    /**
+     * $set de los campos e $inc de la versión con findAndModify, condicionado a la versión
+     * leída del vendedor.
+     *
+     * @return el vendedor actualizado, vacío si no existe o cambió su versión
+     */
+    Optional<Vendedor> actualizar(String id, Long versionEsperada, Map<String, Object> campos);
+
+    /**
+     * Cantidad de vendedores por estado del concesionario, o de toda la colección si el id
+     * es nulo, agrupados en el servidor sobre el índice (concesionarioId, estado, _id).
+     */
+    Map<String, Long> contarPorEstado(String concesionarioId);
+}
@@ -0,0 +1,119 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.gestion_vehiculos.model.Vendedor;
+
+public class VendedorRepositoryCustomImpl implements VendedorRepositoryCustom {
+
+    private static final String CONCESIONARIO_ID = "concesionarioId";
+    private static final String INDICE_CONCESIONARIO_ESTADO = "idxVendedor_concesionarioId_estado_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    public VendedorRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Vendedor> findByEmail(String email) {
+        Query query = new Query(Criteria.where("email").is(email))
+                .collation(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Vendedor.class));
+    }
+
+    @Override
+    public Optional<Vendedor> findByConcesionarioIdAndEmail(String concesionarioId, String email) {
+        return findByEmail(email).filter(vendedor -> concesionarioId.equals(vendedor.getConcesionarioId()));
+    }
+
+    @Override
+    public PaginaKeyset<Vendedor> findKeyset(String concesionarioId, Keyset keyset) {
+        return keyset.buscar(mongoTemplate, Criteria.where(CONCESIONARIO_ID).is(concesionarioId), Vendedor.class);
+    }
+
+    @Override
+    public Stream<Vendedor> streamTodos(int tamanioLote) {
+        return mongoTemplate.stream(new Query().cursorBatchSize(tamanioLote), Vendedor.class);
+    }
+
+    @Override
+    public void insertarSiNoExisten(String concesionarioId, List<Vendedor> vendedores) {
+        if (vendedores.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Vendedor.class);
+        for (Vendedor vendedor : vendedores) {
+            Document documento = new Document();
+            mongoTemplate.getConverter().write(vendedor, documento);
+            documento.remove("_id");
+            documento.put(CONCESIONARIO_ID, concesionarioId);
+            Update update = new Update();
+            documento.forEach(update::setOnInsert);
+            bulk.upsert(new Query(Criteria.where("id").is(vendedor.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public Set<String> findIdsExistentes(Collection<String> ids) {
+        Set<String> existentes = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existentes;
+        }
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("_id");
+        for (Document documento : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Vendedor.class))) {
+            existentes.add(documento.get("_id").toString());
+        }
+        return existentes;
+    }
+
+    @Override
+    public Optional<Vendedor> actualizar(String id, Long versionEsperada, Map<String, Object> campos) {
+        Query query = new Query(Criteria.where("id").is(id).and("version").is(versionEsperada));
+        Update update = new Update().inc("version", 1);
+        campos.forEach(update::set);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Vendedor.class));
+    }
+
+    @Override
+    public Map<String, Long> contarPorEstado(String concesionarioId) {
+        List<AggregationOperation> etapas = new ArrayList<>();
+        if (concesionarioId != null) {
+            etapas.add(Aggregation.match(Criteria.where(CONCESIONARIO_ID).is(concesionarioId)));
+        }
+        etapas.add(Aggregation.project("estado").andExclude("_id"));
+        etapas.add(Aggregation.group("estado").count().as("cantidad"));
+        Aggregation aggregation = Aggregation.newAggregation(etapas)
+                .withOptions(AggregationOptions.builder().hint(INDICE_CONCESIONARIO_ESTADO).build());
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (Document grupo : mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Vendedor.class),
+                Document.class)) {
+            if (grupo.get("_id") != null) {
+                conteos.put(grupo.get("_id").toString(), ((Number) grupo.get("cantidad")).longValue());
+            }
+        }
+        return conteos;
+    }
+}
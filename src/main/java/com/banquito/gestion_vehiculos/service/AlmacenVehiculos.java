@@ -0,0 +1,288 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.EstadisticasVehiculos;
+import com.banquito.gestion_vehiculos.repository.Keyset;
+import com.banquito.gestion_vehiculos.repository.PaginaKeyset;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+
+/**
+ * Punto único de lectura y escritura de los vehículos de un concesionario mientras dura el
+ * paso de los arreglos embebidos a la colección vehiculos. {@link MigracionVehiculos}
+ * decide de qué lado se lee y si las escrituras se duplican en el arreglo.
+ *
+ * Toda escritura sigue pasando por {@link ConcurrenciaOptimista} e incrementa la versión
+ * del concesionario, que es la base de las ETags de sus vehículos. Con doble escritura el
+ * arreglo embebido se escribe primero, condicionado a esa versión, y su resultado se copia
+ * a la colección; con la colección como única fuente, se incrementa la versión del
+ * concesionario y luego se escribe el vehículo condicionado a su propia versión.
+ */
+@Component
+public class AlmacenVehiculos {
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final ConcesionarioPorRucService concesionarioPorRucService;
+    private final ConcurrenciaOptimista concurrencia;
+    private final MigracionVehiculos migracion;
+
+    public AlmacenVehiculos(
+            ConcesionarioRepository concesionarioRepository,
+            VehiculoRepository vehiculoRepository,
+            ConcesionarioPorRucService concesionarioPorRucService,
+            ConcurrenciaOptimista concurrencia,
+            MigracionVehiculos migracion) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.vehiculoRepository = vehiculoRepository;
+        this.concesionarioPorRucService = concesionarioPorRucService;
+        this.concurrencia = concurrencia;
+        this.migracion = migracion;
+    }
+
+    // --------- Lecturas ---------
+
+    public List<Vehiculo> listarPorRuc(String ruc) {
+        if (migracion.leerDeColeccion()) {
+            return vehiculoRepository.findByConcesionarioId(idConcesionario(ruc));
+        }
+        return embebidos(ruc);
+    }
+
+    public List<Vehiculo> listarPorConcesionarioId(String idConcesionario) {
+        if (migracion.leerDeColeccion()) {
+            List<Vehiculo> vehiculos = vehiculoRepository.findByConcesionarioId(idConcesionario);
+            if (vehiculos.isEmpty() && !concesionarioRepository.existsById(idConcesionario)) {
+                throw new ResourceNotFoundException("Concesionario no encontrado con id=" + idConcesionario);
+            }
+            return vehiculos;
+        }
+        Concesionario concesionario = concesionarioRepository.findById(idConcesionario)
+            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con id=" + idConcesionario));
+        return concesionario.getVehiculos() != null ? concesionario.getVehiculos() : List.of();
+    }
+
+    /**
+     * Los estados y condiciones que no existen no coinciden con ningún vehículo.
+     */
+    public List<Vehiculo> listarPorEstado(String ruc, String estado) {
+        if (migracion.leerDeColeccion()) {
+            String id = idConcesionario(ruc);
+            return enumPorNombre(EstadoVehiculoEnum.class, estado)
+                .map(valor -> vehiculoRepository.findByConcesionarioIdAndEstado(id, valor))
+                .orElse(List.of());
+        }
+        return filtrar(embebidos(ruc), v -> v.getEstado() != null && v.getEstado().name().equalsIgnoreCase(estado));
+    }
+
+    public List<Vehiculo> listarPorCondicion(String ruc, String condicion) {
+        if (migracion.leerDeColeccion()) {
+            String id = idConcesionario(ruc);
+            return enumPorNombre(CondicionVehiculoEnum.class, condicion)
+                .map(valor -> vehiculoRepository.findByConcesionarioIdAndCondicion(id, valor))
+                .orElse(List.of());
+        }
+        return filtrar(embebidos(ruc), v -> v.getCondicion() != null && v.getCondicion().name().equalsIgnoreCase(condicion));
+    }
+
+    public Optional<Vehiculo> buscarPorPlaca(String ruc, String placa) {
+        if (migracion.leerDeColeccion()) {
+            return vehiculoRepository.findByConcesionarioIdAndPlaca(idConcesionario(ruc), placa);
+        }
+        return embebidos(ruc).stream()
+            .filter(v -> v.getPlaca() != null && v.getPlaca().equalsIgnoreCase(placa))
+            .findFirst();
+    }
+
+    public PaginaKeyset<Vehiculo> paginaPorRuc(String ruc, Keyset keyset) {
+        if (migracion.leerDeColeccion()) {
+            return vehiculoRepository.findKeyset(idConcesionario(ruc), keyset);
+        }
+        PaginaKeyset<Vehiculo> pagina = concesionarioRepository.findVehiculosKeyset(ruc, keyset);
+        if (pagina.contenido().isEmpty() && !concesionarioRepository.existsByRuc(ruc)) {
+            throw noEncontrado(ruc);
+        }
+        return pagina;
+    }
+
+    /**
+     * Placas del concesionario; vacío si no existe.
+     */
+    public Optional<List<String>> placasPorRuc(String ruc) {
+        if (migracion.leerDeColeccion()) {
+            return concesionarioPorRucService.buscar(ruc)
+                .map(concesionario -> vehiculoRepository.findPlacasByConcesionarioId(concesionario.getId()));
+        }
+        return concesionarioRepository.findPlacasVehiculosByRuc(ruc);
+    }
+
+    public List<Vehiculo> pagina(Pageable pageable) {
+        if (migracion.leerDeColeccion()) {
+            return vehiculoRepository.findAll(pageable).getContent();
+        }
+        return concesionarioRepository.findVehiculosPaginados(pageable);
+    }
+
+    public long contar() {
+        return migracion.leerDeColeccion() ? vehiculoRepository.count() : concesionarioRepository.countVehiculos();
+    }
+
+    /**
+     * Estadísticas del concesionario dado por su cabecera, o de todo el inventario si es
+     * nula, agregadas en el servidor sobre el lado que hoy es la fuente de lectura.
+     */
+    public EstadisticasVehiculos estadisticas(Concesionario cabecera) {
+        if (migracion.leerDeColeccion()) {
+            return vehiculoRepository.estadisticas(cabecera != null ? cabecera.getId() : null);
+        }
+        return concesionarioRepository.estadisticasVehiculosEmbebidos(cabecera != null ? cabecera.getRuc() : null);
+    }
+
+    /**
+     * Recorre todo el inventario con un cursor. El stream debe cerrarse.
+     */
+    public Stream<Vehiculo> recorrer(int tamanioLote) {
+        return migracion.leerDeColeccion()
+            ? vehiculoRepository.streamTodos(tamanioLote)
+            : concesionarioRepository.streamVehiculos(tamanioLote);
+    }
+
+    /**
+     * Recorre todo el inventario junto al RUC de cada vehículo. El stream debe cerrarse.
+     */
+    public Stream<IndiceVehiculos.Entrada> recorrerConRuc(int tamanioLote) {
+        if (!migracion.leerDeColeccion()) {
+            return concesionarioRepository.streamInventario()
+                .flatMap(c -> c.getVehiculos() == null ? Stream.empty()
+                    : c.getVehiculos().stream().map(v -> new IndiceVehiculos.Entrada(c.getRuc(), v)));
+        }
+        Map<String, String> rucPorId = new HashMap<>();
+        try (Stream<Concesionario> concesionarios = concesionarioRepository.streamIdentificacion()) {
+            concesionarios.forEach(c -> rucPorId.put(c.getId(), c.getRuc()));
+        }
+        return vehiculoRepository.streamTodos(tamanioLote)
+            .filter(v -> rucPorId.containsKey(v.getConcesionarioId()))
+            .map(v -> new IndiceVehiculos.Entrada(rucPorId.get(v.getConcesionarioId()), v));
+    }
+
+    // --------- Escrituras ---------
+
+    public Vehiculo agregar(String ruc, Vehiculo vehiculo) {
+        agregarLote("crearVehiculo", ruc, List.of(vehiculo));
+        return vehiculo;
+    }
+
+    /**
+     * Incrementa la versión de los concesionarios con vehículos de esas placas. Su
+     * representación incluye el identificador del vehículo, que vive en otra colección, así
+     * que al crearse uno sus ETags deben dejar de coincidir.
+     */
+    public void invalidarVersionesPorPlacas(Collection<String> placas) {
+        if (placas.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new HashSet<>(vehiculoRepository.findConcesionarioIdsByPlacaIn(placas));
+        if (!migracion.leerDeColeccion()) {
+            ids.addAll(concesionarioRepository.findIdsByPlacaVehiculoEmbebidoIn(placas));
+        }
+        concesionarioRepository.incrementarVersiones(ids);
+    }
+
+    /**
+     * Agrega el lote con una sola escritura condicionada sobre el concesionario.
+     */
+    public void agregarLote(String operacion, String ruc, List<Vehiculo> vehiculos) {
+        concurrencia.ejecutar(operacion, ruc, c -> {
+            boolean aplicado = migracion.escribirEmbebidos()
+                ? concesionarioRepository.agregarVehiculos(ruc, vehiculos, c.getVersion())
+                : concesionarioRepository.incrementarVersion(ruc, c.getVersion());
+            if (!aplicado) {
+                return Optional.empty();
+            }
+            vehiculos.forEach(v -> v.setConcesionarioId(c.getId()));
+            vehiculoRepository.insertarSiNoExisten(c.getId(), vehiculos);
+            return Optional.of(vehiculos);
+        }, () -> noEncontrado(ruc));
+    }
+
+    public Vehiculo actualizarPorId(String ruc, String idVehiculo, Map<String, Object> campos) {
+        return concurrencia.ejecutar("actualizarVehiculo", ruc, c -> {
+            if (migracion.escribirEmbebidos()) {
+                return copiar(c, concesionarioRepository.actualizarVehiculoPorId(ruc, idVehiculo, campos, c.getVersion()));
+            }
+            return actualizarEnColeccion(ruc, c, vehiculoRepository.findById(idVehiculo)
+                .filter(v -> c.getId().equals(v.getConcesionarioId())), campos);
+        }, () -> new ResourceNotFoundException("Vehículo no encontrado con id=" + idVehiculo));
+    }
+
+    public Vehiculo actualizarPorPlaca(String ruc, String placa, Map<String, Object> campos, Long versionEsperada) {
+        return concurrencia.ejecutar("actualizarVehiculo", ruc, versionEsperada, c -> {
+            if (migracion.escribirEmbebidos()) {
+                return copiar(c, concesionarioRepository.actualizarVehiculoPorPlaca(ruc, placa, campos, c.getVersion()));
+            }
+            return actualizarEnColeccion(ruc, c, vehiculoRepository.findByConcesionarioIdAndPlaca(c.getId(), placa), campos);
+        }, () -> new ResourceNotFoundException("Vehículo no encontrado con placa=" + placa));
+    }
+
+    private Optional<Vehiculo> copiar(Concesionario cabecera, Optional<Vehiculo> actualizado) {
+        actualizado.ifPresent(v -> {
+            v.setConcesionarioId(cabecera.getId());
+            vehiculoRepository.reemplazarSiMasReciente(cabecera.getId(), v);
+        });
+        return actualizado;
+    }
+
+    /**
+     * Si el vehículo no existe no se toca la versión, para que la concurrencia optimista
+     * responda 404 en lugar de reintentar.
+     */
+    private Optional<Vehiculo> actualizarEnColeccion(String ruc, Concesionario cabecera, Optional<Vehiculo> actual,
+            Map<String, Object> campos) {
+        if (actual.isEmpty() || !concesionarioRepository.incrementarVersion(ruc, cabecera.getVersion())) {
+            return Optional.empty();
+        }
+        return vehiculoRepository.actualizar(actual.get().getId(), actual.get().getVersion(), campos);
+    }
+
+    private String idConcesionario(String ruc) {
+        return concesionarioPorRucService.buscar(ruc).map(Concesionario::getId).orElseThrow(() -> noEncontrado(ruc));
+    }
+
+    private List<Vehiculo> embebidos(String ruc) {
+        return concesionarioRepository.findVehiculosEmbebidosByRuc(ruc).orElseThrow(() -> noEncontrado(ruc));
+    }
+
+    private static List<Vehiculo> filtrar(List<Vehiculo> vehiculos, Predicate<Vehiculo> condicion) {
+        return vehiculos.stream().filter(condicion).toList();
+    }
+
+    private static <E extends Enum<E>> Optional<E> enumPorNombre(Class<E> tipo, String nombre) {
+        for (E valor : tipo.getEnumConstants()) {
+            if (valor.name().equalsIgnoreCase(nombre)) {
+                return Optional.of(valor);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static ResourceNotFoundException noEncontrado(String ruc) {
+        return new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc);
+    }
+}
@@ -3,39 +3,54 @@ package com.banquito.gestion_vehiculos.service;
 import com.banquito.gestion_vehiculos.dto.LoginRequestDTO;
 import com.banquito.gestion_vehiculos.dto.LoginResponseDTO;
 import com.banquito.gestion_vehiculos.dto.UsuarioDTO;
-import com.banquito.gestion_vehiculos.enums.RolEnum;
+import com.banquito.gestion_vehiculos.config.CacheConfig;
 import com.banquito.gestion_vehiculos.exception.CreateEntityException;
 import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
 import com.banquito.gestion_vehiculos.mapper.UsuarioMapper;
 import com.banquito.gestion_vehiculos.model.Usuario;
 import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.Keyset;
+import com.banquito.gestion_vehiculos.repository.PaginaKeyset;
 import com.banquito.gestion_vehiculos.repository.UsuarioRepository;
 import com.banquito.gestion_vehiculos.repository.VendedorRepository;
 import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class AuthService {
 
+    private static final Map<String, String> CAMPOS_ORDEN_USUARIO = Map.of(
+            "id", "_id",
+            "email", "email",
+            "rol", "rol");
+
     private final UsuarioRepository usuarioRepository;
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
     private final VendedorRepository vendedorRepository;
+    private final IdentidadUsuarioService identidadUsuarioService;
+    private final VerificadorPassword verificadorPassword;
 
     public AuthService(UsuarioRepository usuarioRepository, 
                       UsuarioMapper usuarioMapper, 
                       PasswordEncoder passwordEncoder,
                       VendedorRepository vendedorRepository,
-                      ConcesionarioRepository concesionarioRepository) {
+                      ConcesionarioRepository concesionarioRepository,
+                      IdentidadUsuarioService identidadUsuarioService,
+                      VerificadorPassword verificadorPassword) {
         this.usuarioRepository = usuarioRepository;
         this.usuarioMapper = usuarioMapper;
         this.passwordEncoder = passwordEncoder;
         this.vendedorRepository = vendedorRepository;
+        this.identidadUsuarioService = identidadUsuarioService;
+        this.verificadorPassword = verificadorPassword;
 
     }
 
@@ -48,7 +63,7 @@ public class AuthService {
             throw new CreateEntityException("Usuario", "El usuario está inactivo");
         }
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), usuario.getPassword())) {
+        if (!verificadorPassword.coincide(loginRequest.getPassword(), usuario.getPassword())) {
             throw new CreateEntityException("Usuario", "Contraseña incorrecta");
         }
 
@@ -63,6 +78,7 @@ public class AuthService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IDENTIDADES_USUARIO, allEntries = true)
     public UsuarioDTO createUsuario(UsuarioDTO dto) {
         if (usuarioRepository.existsByEmail(dto.getEmail())) {
             throw new CreateEntityException("Usuario", "Ya existe un usuario con el mismo email: " + dto.getEmail());
@@ -92,7 +108,14 @@ public class AuthService {
         return usuarios.stream().map(usuarioMapper::toDTO).toList();
     }
 
+    public PaginaKeyset<UsuarioDTO> findUsuarios(String sort, String cursor, Integer limit) {
+        Keyset keyset = Keyset.de(sort, cursor, limit, CAMPOS_ORDEN_USUARIO);
+        return usuarioRepository.findUsuariosKeyset(keyset)
+                .mapear(usuarios -> usuarios.stream().map(usuarioMapper::toDTO).toList());
+    }
+
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IDENTIDADES_USUARIO, allEntries = true)
     public UsuarioDTO updateUsuario(String id, UsuarioDTO dto) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + id));
@@ -117,6 +140,7 @@ public class AuthService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.IDENTIDADES_USUARIO, allEntries = true)
     public void deleteUsuario(String id) {
         if (!usuarioRepository.existsById(id)) {
             throw new ResourceNotFoundException("Usuario no encontrado con id: " + id);
@@ -125,15 +149,13 @@ public class AuthService {
     }
 
     public boolean isAdmin(String email) {
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElse(null);
-        return usuario != null && usuario.getRol() == RolEnum.ADMIN;
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(email);
+        return identidad != null && identidad.esAdmin();
     }
 
     public String getConcesionarioIdForVendedor(String email) {
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElse(null);
-        return usuario != null ? usuario.getConcesionarioId() : null;
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(email);
+        return identidad != null ? identidad.concesionarioId() : null;
     }
 
     public Vendedor findVendedorByEmail(String email) {
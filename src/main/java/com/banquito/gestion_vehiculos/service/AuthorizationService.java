@@ -1,45 +1,35 @@
 package com.banquito.gestion_vehiculos.service;
 
-import com.banquito.gestion_vehiculos.enums.RolEnum;
 import com.banquito.gestion_vehiculos.exception.CreateEntityException;
-import com.banquito.gestion_vehiculos.model.Concesionario;
-import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
-import com.banquito.gestion_vehiculos.repository.UsuarioRepository;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthorizationService {
 
-    private final AuthService authService;
-    private final UsuarioRepository usuarioRepository;
-    private final ConcesionarioRepository concesionarioRepository;
+    private final IdentidadUsuarioService identidadUsuarioService;
 
-    public AuthorizationService(AuthService authService, 
-                              UsuarioRepository usuarioRepository,
-                              ConcesionarioRepository concesionarioRepository) {
-        this.authService = authService;
-        this.usuarioRepository = usuarioRepository;
-        this.concesionarioRepository = concesionarioRepository;
+    public AuthorizationService(IdentidadUsuarioService identidadUsuarioService) {
+        this.identidadUsuarioService = identidadUsuarioService;
     }
 
     /**
      * Valida que el usuario tenga acceso al concesionario específico
      */
     public void validateConcesionarioAccess(String userEmail, String concesionarioRuc) {
-        if (authService.isAdmin(userEmail)) {
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(userEmail);
+        if (identidad != null && identidad.esAdmin()) {
             return; // Los admins pueden acceder a cualquier concesionario
         }
 
         // Para vendedores, verificar que pertenezcan al concesionario
-        String userConcesionarioId = authService.getConcesionarioIdForVendedor(userEmail);
-        if (userConcesionarioId == null) {
+        if (identidad == null || identidad.concesionarioId() == null) {
             throw new CreateEntityException("Autorización", "Usuario no tiene concesionario asignado");
         }
+        if (identidad.concesionarioRuc() == null) {
+            throw new CreateEntityException("Autorización", "Concesionario no encontrado");
+        }
 
-        Concesionario concesionario = concesionarioRepository.findByRuc(concesionarioRuc)
-                .orElseThrow(() -> new CreateEntityException("Autorización", "Concesionario no encontrado"));
-
-        if (!concesionario.getId().equals(userConcesionarioId)) {
+        if (!identidad.concesionarioRuc().equals(concesionarioRuc)) {
             throw new CreateEntityException("Autorización", "No tienes permisos para acceder a este concesionario");
         }
     }
@@ -48,7 +38,7 @@ public class AuthorizationService {
      * Valida que el usuario sea admin
      */
     public void validateAdminAccess(String userEmail) {
-        if (!authService.isAdmin(userEmail)) {
+        if (!isAdmin(userEmail)) {
             throw new CreateEntityException("Autorización", "Se requieren permisos de administrador");
         }
     }
@@ -57,34 +47,34 @@ public class AuthorizationService {
      * Obtiene el RUC del concesionario del usuario vendedor
      */
     public String getConcesionarioRucForVendedor(String userEmail) {
-        if (authService.isAdmin(userEmail)) {
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(userEmail);
+        if (identidad != null && identidad.esAdmin()) {
             return null; // Los admins pueden acceder a cualquier concesionario
         }
 
-        String concesionarioId = authService.getConcesionarioIdForVendedor(userEmail);
-        if (concesionarioId == null) {
+        if (identidad == null || identidad.concesionarioId() == null) {
             throw new CreateEntityException("Autorización", "Usuario no tiene concesionario asignado");
         }
+        if (identidad.concesionarioRuc() == null) {
+            throw new CreateEntityException("Autorización", "Concesionario no encontrado");
+        }
 
-        Concesionario concesionario = concesionarioRepository.findById(concesionarioId)
-                .orElseThrow(() -> new CreateEntityException("Autorización", "Concesionario no encontrado"));
-
-        return concesionario.getRuc();
+        return identidad.concesionarioRuc();
     }
 
     /**
      * Verifica si el usuario es admin
      */
     public boolean isAdmin(String userEmail) {
-        return authService.isAdmin(userEmail);
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(userEmail);
+        return identidad != null && identidad.esAdmin();
     }
 
     /**
      * Verifica si el usuario es vendedor
      */
     public boolean isVendedor(String userEmail) {
-        return usuarioRepository.findByEmail(userEmail)
-                .map(usuario -> usuario.getRol() == RolEnum.VENDEDOR)
-                .orElse(false);
+        IdentidadUsuario identidad = identidadUsuarioService.resolver(userEmail);
+        return identidad != null && identidad.esVendedor();
     }
-} 
\ No newline at end of file
+}
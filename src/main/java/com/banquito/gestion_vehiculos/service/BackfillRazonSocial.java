@@ -0,0 +1,60 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Completa al arrancar los campos de búsqueda por razón social de los concesionarios que
+ * se crearon antes de existir. Es idempotente: solo toca documentos sin razonSocialNgramas.
+ */
+@Slf4j
+@Component
+public class BackfillRazonSocial {
+
+    private static final int TAMANIO_LOTE = 500;
+
+    private final ConcesionarioRepository concesionarioRepository;
+
+    public BackfillRazonSocial(ConcesionarioRepository concesionarioRepository) {
+        this.concesionarioRepository = concesionarioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void completar() {
+        int completados = 0;
+        try (Stream<Concesionario> pendientes = concesionarioRepository.streamSinCamposBusqueda()) {
+            Map<String, Map<String, Object>> lote = new HashMap<>();
+            Iterator<Concesionario> iterador = pendientes.iterator();
+            while (iterador.hasNext()) {
+                Concesionario concesionario = iterador.next();
+                lote.put(concesionario.getId(), Map.of(
+                    "razonSocialNormalizada", NormalizadorTexto.normalizar(concesionario.getRazonSocial()),
+                    "razonSocialNgramas", NormalizadorTexto.ngramas(concesionario.getRazonSocial())));
+                if (lote.size() == TAMANIO_LOTE) {
+                    concesionarioRepository.completarCamposBusqueda(lote);
+                    completados += lote.size();
+                    lote.clear();
+                }
+            }
+            concesionarioRepository.completarCamposBusqueda(lote);
+            completados += lote.size();
+        } catch (Exception e) {
+            log.warn("No se pudieron completar los campos de búsqueda por razón social: {}", e.getMessage());
+            return;
+        }
+        if (completados > 0) {
+            log.info("Campos de búsqueda por razón social completados en {} concesionarios", completados);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pasa al arrancar los vendedores embebidos en concesionarios a la colección vendedores, que
+ * es la fuente de verdad. Por concesionario: los inserta con $setOnInsert, comprueba que
+ * están todos y recién entonces marca vendedoresMigrados y elimina el arreglo. Es idempotente
+ * y retoma lo pendiente si se interrumpe.
+ *
+ * Mientras corre, las operaciones sobre vendedores de un concesionario aún no migrado lo
+ * migran primero con {@link #asegurar(Concesionario)}, así nunca ven una colección a medias.
+ *
+ * Depende de los índices únicos de cédula y email: las inserciones repetidas que el backfill
+ * encuentre fallan contra ellos en lugar de impedir crearlos. Esos vendedores se registran en
+ * el log y en la métrica vendedores.backfill.conflictos, y el concesionario queda marcado con
+ * vendedoresEnConflicto: conserva su arreglo, que sigue siendo la fuente de sus vendedores, y
+ * deja de reintentarse en cada operación. Resuelto el choque, el siguiente arranque lo migra.
+ */
+@Slf4j
+@Component
+@DependsOn("mongoIndexConfig")
+public class BackfillVendedores {
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final VendedorRepository vendedorRepository;
+    private final ConcesionarioPorRucService concesionarioPorRucService;
+    private final IndiceNombresVendedores indiceNombresVendedores;
+    private final Counter conflictos;
+
+    public BackfillVendedores(
+            ConcesionarioRepository concesionarioRepository,
+            VendedorRepository vendedorRepository,
+            ConcesionarioPorRucService concesionarioPorRucService,
+            IndiceNombresVendedores indiceNombresVendedores,
+            MeterRegistry meterRegistry) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.vendedorRepository = vendedorRepository;
+        this.concesionarioPorRucService = concesionarioPorRucService;
+        this.indiceNombresVendedores = indiceNombresVendedores;
+        this.conflictos = Counter.builder("vendedores.backfill.conflictos")
+                .description("Vendedores embebidos que no se copiaron por cédula o email repetidos")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void completar() {
+        int concesionarios = 0;
+        int vendedores = 0;
+        int enConflicto = 0;
+        try (Stream<Concesionario> pendientes = concesionarioRepository.streamPendientesMigracionVendedores()) {
+            Iterator<Concesionario> iterador = pendientes.iterator();
+            while (iterador.hasNext()) {
+                Concesionario concesionario = iterador.next();
+                List<Vendedor> embebidos = concesionario.getVendedores() != null ? concesionario.getVendedores() : List.of();
+                if (migrar(concesionario, embebidos)) {
+                    concesionarios++;
+                    vendedores += embebidos.size();
+                } else {
+                    enConflicto++;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Backfill de vendedores detenido tras {} concesionarios: {}", concesionarios, e.getMessage());
+            return;
+        }
+        if (concesionarios > 0) {
+            log.info("Backfill de vendedores: {} vendedores de {} concesionarios en la colección", vendedores, concesionarios);
+        }
+        if (enConflicto > 0) {
+            log.warn("Backfill de vendedores: {} concesionarios siguen leyendo sus vendedores del arreglo por conflictos",
+                    enConflicto);
+        }
+    }
+
+    /**
+     * Migra el concesionario si sus vendedores siguen embebidos. Con la cabecera de un
+     * concesionario ya migrado o con conflictos pendientes no consulta la base.
+     */
+    public void asegurar(Concesionario cabecera) {
+        if (Boolean.TRUE.equals(cabecera.getVendedoresMigrados()) || enConflicto(cabecera)) {
+            return;
+        }
+        concesionarioRepository.findVendedoresEmbebidosById(cabecera.getId())
+                .ifPresent(embebidos -> migrar(cabecera, embebidos));
+    }
+
+    public static boolean enConflicto(Concesionario cabecera) {
+        return cabecera.getVendedoresEnConflicto() != null && !cabecera.getVendedoresEnConflicto().isEmpty();
+    }
+
+    /**
+     * Vendedores del arreglo embebido si el concesionario tiene conflictos pendientes; vacío si
+     * sus vendedores se leen de la colección.
+     */
+    public Optional<List<Vendedor>> embebidosEnConflicto(Concesionario cabecera) {
+        if (!enConflicto(cabecera)) {
+            return Optional.empty();
+        }
+        List<Vendedor> embebidos = concesionarioRepository.findVendedoresEmbebidosById(cabecera.getId()).orElse(List.of());
+        embebidos.forEach(vendedor -> vendedor.setConcesionarioId(cabecera.getId()));
+        return Optional.of(embebidos);
+    }
+
+    private boolean migrar(Concesionario concesionario, List<Vendedor> embebidos) {
+        try {
+            vendedorRepository.insertarSiNoExisten(concesionario.getId(), embebidos);
+        } catch (RuntimeException e) {
+            // Un email o cédula repetido en otro concesionario no frena a los demás; lo insertado queda
+            log.warn("Concesionario {}: no se pudieron copiar sus vendedores: {}", concesionario.getId(), e.getMessage());
+        }
+        Set<String> copiados = vendedorRepository.findIdsExistentes(embebidos.stream().map(Vendedor::getId).toList());
+        List<Vendedor> faltantes = embebidos.stream().filter(vendedor -> !copiados.contains(vendedor.getId())).toList();
+        if (!faltantes.isEmpty()) {
+            faltantes.forEach(vendedor -> log.warn(
+                    "Concesionario {}: el vendedor {} (cédula {}, email {}) choca con otro de la colección y sigue embebido",
+                    concesionario.getId(), vendedor.getId(), vendedor.getCedula(), vendedor.getEmail()));
+            conflictos.increment(faltantes.size());
+            concesionarioRepository.marcarVendedoresEnConflicto(concesionario.getId(),
+                    faltantes.stream().map(Vendedor::getId).toList());
+            concesionarioPorRucService.invalidar(concesionario.getRuc());
+            return false;
+        }
+        concesionarioRepository.marcarVendedoresMigrados(concesionario.getId());
+        concesionarioPorRucService.invalidar(concesionario.getRuc());
+        embebidos.forEach(vendedor -> {
+            vendedor.setConcesionarioId(concesionario.getId());
+            indiceNombresVendedores.registrar(concesionario.getRuc(), vendedor);
+        });
+        return true;
+    }
+}
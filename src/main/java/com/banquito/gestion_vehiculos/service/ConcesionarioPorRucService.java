@@ -0,0 +1,63 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+
+/**
+ * Lectura de la cabecera del concesionario por RUC, sin vehículos ni vendedores (que viven en
+ * sus propias colecciones), a través de una caché acotada con TTL. Las
+ * escrituras de esta instancia lo invalidan al pasar por {@link ConcurrenciaOptimista};
+ * las de otras instancias se ven al expirar la entrada.
+ *
+ * Los documentos cacheados se comparten entre peticiones y no deben modificarse. Las
+ * escrituras y la versión usada en ETags y compare-and-set se leen siempre de la base.
+ */
+@Service
+public class ConcesionarioPorRucService {
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final CacheManager cacheManager;
+
+    public ConcesionarioPorRucService(ConcesionarioRepository concesionarioRepository, CacheManager cacheManager) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Los RUC inexistentes no se cachean, para que un concesionario recién creado se vea
+     * de inmediato.
+     */
+    @Cacheable(cacheNames = CacheConfig.CONCESIONARIOS_POR_RUC, key = "#ruc", unless = "#result == null")
+    public Optional<Concesionario> buscar(String ruc) {
+        return concesionarioRepository.findCabeceraByRuc(ruc);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIOS_POR_RUC, key = "#ruc")
+    public void invalidar(String ruc) {
+        // La anotación hace el trabajo
+    }
+
+    /**
+     * Descarta la entrada si su versión no es la vigente, leída de la base por quien llama.
+     * Así una respuesta con ETag nunca sale de un documento cacheado más antiguo, aunque lo
+     * haya modificado otra instancia.
+     */
+    public void descartarSiDesactualizado(String ruc, Long versionVigente) {
+        Cache cache = cacheManager.getCache(CacheConfig.CONCESIONARIOS_POR_RUC);
+        Cache.ValueWrapper entrada = cache == null ? null : cache.get(ruc);
+        if (entrada != null && entrada.get() instanceof Concesionario concesionario
+                && !Objects.equals(concesionario.getVersion(), versionVigente)) {
+            cache.evict(ruc);
+        }
+    }
+}
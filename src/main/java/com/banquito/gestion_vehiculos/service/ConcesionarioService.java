@@ -1,61 +1,155 @@
 package com.banquito.gestion_vehiculos.service;
 
-import java.util.List;
 import java.util.ArrayList;
-
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banquito.gestion_vehiculos.config.CacheConfig;
 import com.banquito.gestion_vehiculos.dto.ConcesionarioDTO;
+import com.banquito.gestion_vehiculos.dto.EstadisticasInventarioDTO;
+import com.banquito.gestion_vehiculos.dto.ResultadoBusquedaVehiculosDTO;
+import com.banquito.gestion_vehiculos.dto.VehiculoBusquedaDTO;
+import com.banquito.gestion_vehiculos.dto.VendedorBusquedaDTO;
 import com.banquito.gestion_vehiculos.dto.VendedorDTO;
 import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
 import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
 import com.banquito.gestion_vehiculos.mapper.ConcesionarioMapper;
 import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.exception.ConflictoConcurrenciaException;
+import com.banquito.gestion_vehiculos.exception.PrecondicionFallidaException;
 import com.banquito.gestion_vehiculos.exception.CreateEntityException;
 import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.exception.SolicitudInvalidaException;
 import com.banquito.gestion_vehiculos.exception.UpdateEntityException;
 import com.banquito.gestion_vehiculos.model.Concesionario;
 import com.banquito.gestion_vehiculos.model.Vehiculo;
 import com.banquito.gestion_vehiculos.model.Vendedor;
 import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
 import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
-import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.banquito.gestion_vehiculos.repository.EstadisticasVehiculos;
+import com.banquito.gestion_vehiculos.repository.Keyset;
+import com.banquito.gestion_vehiculos.repository.PaginaKeyset;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
 
 @Service
 public class ConcesionarioService {
 
+    public static final int TAMANIO_MAXIMO_PAGINA = 500;
+
+    private static final Map<String, String> CAMPOS_ORDEN_CONCESIONARIO = Map.of(
+        "id", "_id",
+        "ruc", "ruc",
+        "razonSocial", "razonSocial");
+
+    private static final Map<String, String> CAMPOS_ORDEN_VEHICULO = Map.of(
+        "id", "_id",
+        "marca", "marca",
+        "modelo", "modelo",
+        "anio", "anio",
+        "valor", "valor",
+        "placa", "placa",
+        "estado", "estado");
+
+    private static final Map<String, String> CAMPOS_ORDEN_VENDEDOR = Map.of(
+        "id", "_id",
+        "nombre", "nombre",
+        "cedula", "cedula",
+        "email", "email",
+        "estado", "estado");
+
     private final ConcesionarioRepository concesionarioRepository;
+    private final ConcesionarioPorRucService concesionarioPorRucService;
     private final ConcesionarioMapper concesionarioMapper;
     private final VehiculoMapper vehiculoMapper;
     private final VendedorMapper vendedorMapper;
+    private final ConcurrenciaOptimista concurrencia;
+    private final IndiceVehiculos indiceVehiculos;
+    private final IndiceNombresVendedores indiceNombresVendedores;
+    private final AlmacenVehiculos almacenVehiculos;
+    private final VendedorRepository vendedorRepository;
+    private final BackfillVendedores backfillVendedores;
 
     public ConcesionarioService(
             ConcesionarioRepository concesionarioRepository,
+            ConcesionarioPorRucService concesionarioPorRucService,
             ConcesionarioMapper concesionarioMapper,
             VehiculoMapper vehiculoMapper,
             VendedorMapper vendedorMapper,
-            IdentificadorVehiculoRepository identificadorVehiculoRepository) {
+            ConcurrenciaOptimista concurrencia,
+            IndiceVehiculos indiceVehiculos,
+            IndiceNombresVendedores indiceNombresVendedores,
+            AlmacenVehiculos almacenVehiculos,
+            VendedorRepository vendedorRepository,
+            BackfillVendedores backfillVendedores) {
         this.concesionarioRepository = concesionarioRepository;
+        this.concesionarioPorRucService = concesionarioPorRucService;
         this.concesionarioMapper = concesionarioMapper;
         this.vehiculoMapper = vehiculoMapper;
         this.vendedorMapper = vendedorMapper;
+        this.concurrencia = concurrencia;
+        this.indiceVehiculos = indiceVehiculos;
+        this.indiceNombresVendedores = indiceNombresVendedores;
+        this.almacenVehiculos = almacenVehiculos;
+        this.vendedorRepository = vendedorRepository;
+        this.backfillVendedores = backfillVendedores;
     }
 
     // --------- Métodos para Concesionario ---------
 
     public List<ConcesionarioDTO> findAllConcesionarios() {
         try {
-            List<Concesionario> lista = concesionarioRepository.findAll();
+            List<Concesionario> lista = concesionarioRepository.findCabeceras();
             return lista.stream().map(concesionarioMapper::toDTO).toList();
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar todos los concesionarios");
         }
     }
 
+    /**
+     * Página de concesionarios por keyset; estado y razón social son filtros opcionales.
+     */
+    public PaginaKeyset<ConcesionarioDTO> findConcesionarios(EstadoConcesionarioEnum estado, String razonSocial,
+                                                            String sort, String cursor, Integer limit) {
+        Keyset keyset = Keyset.de(sort, cursor, limit, CAMPOS_ORDEN_CONCESIONARIO);
+        return concesionarioRepository.findConcesionariosKeyset(estado, razonSocial, keyset)
+            .mapear(lista -> lista.stream().map(concesionarioMapper::toDTO).toList());
+    }
+
+    /**
+     * Versión actual del concesionario leída con una proyección, sin hidratar el documento;
+     * null si no existe. Es la base de las ETags de sus recursos, por eso también descarta
+     * la copia en caché si quedó atrás.
+     */
+    public Long findVersionConcesionario(String ruc) {
+        Long version = concesionarioRepository.findVersionByRuc(ruc).orElse(null);
+        concesionarioPorRucService.descartarSiDesactualizado(ruc, version);
+        return version;
+    }
+
     public ConcesionarioDTO findConcesionarioByRuc(String ruc) {
         try {
-            Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
+            Concesionario concesionario = concesionarioPorRucService.buscar(ruc)
                     .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
             return concesionarioMapper.toDTO(concesionario);
         } catch (ResourceNotFoundException e) {
@@ -67,7 +161,7 @@ public class ConcesionarioService {
 
     public List<ConcesionarioDTO> findConcesionariosByEstado(EstadoConcesionarioEnum estado) {
         try {
-            List<Concesionario> lista = concesionarioRepository.findByEstado(estado);
+            List<Concesionario> lista = concesionarioRepository.findCabecerasByEstado(estado);
             return lista.stream().map(concesionarioMapper::toDTO).toList();
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar concesionarios por estado: " + estado);
@@ -76,16 +170,33 @@ public class ConcesionarioService {
 
     public List<ConcesionarioDTO> findConcesionariosByRazonSocial(String parteRazon) {
         try {
-            List<Concesionario> lista = concesionarioRepository.findByRazonSocialContainingIgnoreCase(parteRazon);
+            List<Concesionario> lista = concesionarioRepository.findCabecerasByRazonSocialContiene(parteRazon);
             return lista.stream().map(concesionarioMapper::toDTO).toList();
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar concesionarios por razón social: " + parteRazon);
         }
     }
 
+    /**
+     * Búsqueda indexada por razón social, sin distinguir mayúsculas ni tildes y ordenada por
+     * relevancia. Las palabras de menos de tres letras se comparan como prefijo.
+     */
+    public List<ConcesionarioDTO> buscarConcesionariosPorRazonSocial(String texto, int limite) {
+        validarLimiteBusqueda(limite);
+        Set<String> terminos = NormalizadorTexto.terminosConsulta(texto);
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        String normalizado = NormalizadorTexto.normalizar(texto);
+        String contiene = normalizado.length() >= 3 ? normalizado : null;
+        return concesionarioRepository.buscarPorRazonSocial(terminos, contiene, limite).stream()
+            .map(concesionarioMapper::toDTO)
+            .toList();
+    }
+
     public ConcesionarioDTO findConcesionarioByEmail(String emailContacto) {
         try {
-            Concesionario concesionario = concesionarioRepository.findByEmailContacto(emailContacto)
+            Concesionario concesionario = concesionarioRepository.findCabeceraByEmailContacto(emailContacto)
                 .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con email de contacto=" + emailContacto));
             return concesionarioMapper.toDTO(concesionario);
         } catch (ResourceNotFoundException e) {
@@ -96,14 +207,16 @@ public class ConcesionarioService {
     }
 
     @Transactional
-    public ConcesionarioDTO desactivateConcesionario(String ruc) {
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
+    public ConcesionarioDTO desactivateConcesionario(String ruc, Long versionEsperada) {
         try {
-            Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-                .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-            concesionario.setEstado(EstadoConcesionarioEnum.INACTIVO);
-            Concesionario actualizado = concesionarioRepository.save(concesionario);
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put("estado", EstadoConcesionarioEnum.INACTIVO);
+            Concesionario actualizado = concurrencia.ejecutar("desactivarConcesionario", ruc, versionEsperada,
+                c -> concesionarioRepository.actualizarCabecera(ruc, campos, c.getVersion()),
+                () -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
             return concesionarioMapper.toDTO(actualizado);
-        } catch (ResourceNotFoundException e) {
+        } catch (ResourceNotFoundException | ConflictoConcurrenciaException | PrecondicionFallidaException e) {
             throw e;
         } catch (Exception e) {
             throw new UpdateEntityException("Concesionario", "Error al desactivar el concesionario. Detalle: " + e.getMessage());
@@ -124,6 +237,9 @@ public class ConcesionarioService {
             }
             Concesionario objeto = concesionarioMapper.toModel(dto);
             objeto.setId(null);
+            objeto.setRazonSocialNormalizada(NormalizadorTexto.normalizar(dto.getRazonSocial()));
+            objeto.setRazonSocialNgramas(NormalizadorTexto.ngramas(dto.getRazonSocial()));
+            objeto.setVendedoresMigrados(true);
             if (objeto.getVersion() == null) {
                 objeto.setVersion(0L);
             }
@@ -137,27 +253,30 @@ public class ConcesionarioService {
     }
 
     @Transactional
-    public ConcesionarioDTO updateConcesionario(String ruc, ConcesionarioDTO dto) {
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
+    public ConcesionarioDTO updateConcesionario(String ruc, ConcesionarioDTO dto, Long versionEsperada) {
         try {
-            Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-                .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-            if (!concesionario.getEmailContacto().equals(dto.getEmailContacto()) &&
-                concesionarioRepository.existsByEmailContacto(dto.getEmailContacto())) {
-                throw new CreateEntityException("Concesionario", "Email ya en uso");
-            }
-            if (!concesionario.getTelefono().equals(dto.getTelefono()) &&
-                concesionarioRepository.existsByTelefono(dto.getTelefono())) {
-                throw new CreateEntityException("Concesionario", "Teléfono ya en uso");
-            }
-            concesionario.setRazonSocial(dto.getRazonSocial());
-            concesionario.setDireccion(dto.getDireccion());
-            concesionario.setTelefono(dto.getTelefono());
-            concesionario.setEmailContacto(dto.getEmailContacto());
-            concesionario.setEstado(dto.getEstado());
-            concesionario.setVersion(concesionario.getVersion() == null ? 1L : concesionario.getVersion() + 1);
-            Concesionario actualizado = concesionarioRepository.save(concesionario);
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put("razonSocial", dto.getRazonSocial());
+            campos.put("razonSocialNormalizada", NormalizadorTexto.normalizar(dto.getRazonSocial()));
+            campos.put("razonSocialNgramas", NormalizadorTexto.ngramas(dto.getRazonSocial()));
+            campos.put("direccion", dto.getDireccion());
+            campos.put("telefono", dto.getTelefono());
+            campos.put("emailContacto", dto.getEmailContacto());
+            campos.put("estado", dto.getEstado());
+            Concesionario actualizado = concurrencia.ejecutar("actualizarConcesionario", ruc, versionEsperada, concesionario -> {
+                if (!concesionario.getEmailContacto().equals(dto.getEmailContacto()) &&
+                    concesionarioRepository.existsByEmailContacto(dto.getEmailContacto())) {
+                    throw new CreateEntityException("Concesionario", "Email ya en uso");
+                }
+                if (!concesionario.getTelefono().equals(dto.getTelefono()) &&
+                    concesionarioRepository.existsByTelefono(dto.getTelefono())) {
+                    throw new CreateEntityException("Concesionario", "Teléfono ya en uso");
+                }
+                return concesionarioRepository.actualizarCabecera(ruc, campos, concesionario.getVersion());
+            }, () -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
             return concesionarioMapper.toDTO(actualizado);
-        } catch (ResourceNotFoundException e) {
+        } catch (ResourceNotFoundException | ConflictoConcurrenciaException | PrecondicionFallidaException e) {
             throw e;
         } catch (Exception e) {
             throw new UpdateEntityException("Concesionario", "Error al actualizar el concesionario. Detalle: " + e.getMessage());
@@ -168,347 +287,433 @@ public class ConcesionarioService {
 
     public List<VehiculoDTO> findVehiculosByConcesionario(String idConcesionario) {
         try {
-            Concesionario concesionario = concesionarioRepository.findById(idConcesionario)
-                .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con id=" + idConcesionario));
-            List<Vehiculo> lista = concesionario.getVehiculos();
-            if (lista == null) return List.of();
-            return lista.stream().map(vehiculoMapper::toDTO).toList();
+            return vehiculoMapper.toDTOList(almacenVehiculos.listarPorConcesionarioId(idConcesionario));
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar vehículos del concesionario: " + idConcesionario);
         }
     }
 
     public List<VehiculoDTO> findVehiculosByRuc(String ruc) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> lista = concesionario.getVehiculos();
-        if (lista == null) return List.of();
-        return lista.stream().map(vehiculoMapper::toDTO).toList();
+        return vehiculoMapper.toDTOList(almacenVehiculos.listarPorRuc(ruc));
+    }
+
+    public PaginaKeyset<VehiculoDTO> findVehiculosByRuc(String ruc, String sort, String cursor, Integer limit) {
+        Keyset keyset = Keyset.de(sort, cursor, limit, CAMPOS_ORDEN_VEHICULO);
+        return almacenVehiculos.paginaPorRuc(ruc, keyset).mapear(vehiculoMapper::toDTOList);
     }
 
     @Transactional
     public VehiculoDTO createVehiculoInConcesionario(String ruc, VehiculoDTO dto) {
-        System.out.println("Intentando crear vehículo en concesionario con RUC: " + ruc);
-        System.out.println("Datos del vehículo: " + dto.toString());
-        
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        
-        System.out.println("Concesionario encontrado: " + concesionario.getRazonSocial());
-        
         // Comentar temporalmente la validación de unicidad de placa
         // if (identificadorVehiculoRepository.findByPlaca(dto.getPlaca()) != null) {
         //     throw new CreateEntityException("Vehiculo", "Ya existe un vehículo con la misma placa: " + dto.getPlaca());
         // }
-        
-        System.out.println("Procediendo a crear vehículo...");
-        
         Vehiculo vehiculo = vehiculoMapper.toModel(dto);
         vehiculo.setId(java.util.UUID.randomUUID().toString());
         if (vehiculo.getVersion() == null) vehiculo.setVersion(0L);
-        
-        System.out.println("Vehículo mapeado, agregando al concesionario...");
-        
-        if (concesionario.getVehiculos() == null) concesionario.setVehiculos(new java.util.ArrayList<>());
-        concesionario.getVehiculos().add(vehiculo);
-        
-        System.out.println("Guardando concesionario...");
-        concesionarioRepository.save(concesionario);
-        
-        System.out.println("Vehículo creado exitosamente con ID: " + vehiculo.getId());
-        return vehiculoMapper.toDTO(vehiculo);
+        almacenVehiculos.agregar(ruc, vehiculo);
+        indiceVehiculos.registrar(ruc, vehiculo);
+        return vehiculoMapper.toDTONuevo(vehiculo);
+    }
+
+    /**
+     * Un identificador nuevo cambia la representación de los vehículos con su placa, en
+     * cualquier concesionario: sus ETags dejan de coincidir.
+     */
+    public void invalidarVersionesPorPlaca(String placa) {
+        almacenVehiculos.invalidarVersionesPorPlacas(List.of(placa));
     }
 
     @Transactional
     public VehiculoDTO updateVehiculoInConcesionario(String ruc, String idVehiculo, VehiculoDTO dto) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) throw new ResourceNotFoundException("No hay vehículos en el concesionario");
-        Vehiculo vehiculo = vehiculos.stream().filter(v -> v.getId().equals(idVehiculo)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vehículo no encontrado con id=" + idVehiculo));
-        vehiculo.setMarca(dto.getMarca());
-        vehiculo.setModelo(dto.getModelo());
-        vehiculo.setAnio(dto.getAnio());
-        vehiculo.setValor(dto.getValor());
-        vehiculo.setColor(dto.getColor());
-        vehiculo.setExtras(dto.getExtras());
-        vehiculo.setEstado(dto.getEstado());
-        vehiculo.setTipo(dto.getTipo());
-        vehiculo.setCombustible(dto.getCombustible());
-        vehiculo.setVersion(vehiculo.getVersion() == null ? 1L : vehiculo.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("marca", dto.getMarca());
+        campos.put("modelo", dto.getModelo());
+        campos.put("anio", dto.getAnio());
+        campos.put("valor", dto.getValor());
+        campos.put("color", dto.getColor());
+        campos.put("extras", dto.getExtras());
+        campos.put("estado", dto.getEstado());
+        campos.put("tipo", dto.getTipo());
+        campos.put("combustible", dto.getCombustible());
+        Vehiculo vehiculo = almacenVehiculos.actualizarPorId(ruc, idVehiculo, campos);
+        indiceVehiculos.registrar(ruc, vehiculo);
         return vehiculoMapper.toDTO(vehiculo);
     }
 
     @Transactional
     public VehiculoDTO desactivarVehiculoInConcesionario(String ruc, String idVehiculo) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) throw new ResourceNotFoundException("No hay vehículos en el concesionario");
-        Vehiculo vehiculo = vehiculos.stream().filter(v -> v.getId().equals(idVehiculo)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vehículo no encontrado con id=" + idVehiculo));
-        vehiculo.setEstado(com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum.INACTIVO);
-        vehiculo.setVersion(vehiculo.getVersion() == null ? 1L : vehiculo.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("estado", com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum.INACTIVO);
+        Vehiculo vehiculo = almacenVehiculos.actualizarPorId(ruc, idVehiculo, campos);
+        indiceVehiculos.registrar(ruc, vehiculo);
         return vehiculoMapper.toDTO(vehiculo);
     }
 
     public VehiculoDTO findVehiculoByPlacaInConcesionario(String ruc, String placa) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) throw new ResourceNotFoundException("No hay vehículos en el concesionario");
-        Vehiculo vehiculo = vehiculos.stream()
-            .filter(v -> v.getPlaca() != null && v.getPlaca().equalsIgnoreCase(placa))
-            .findFirst()
+        Vehiculo vehiculo = almacenVehiculos.buscarPorPlaca(ruc, placa)
             .orElseThrow(() -> new ResourceNotFoundException("Vehículo no encontrado con placa=" + placa));
         return vehiculoMapper.toDTO(vehiculo);
     }
 
     public List<VendedorDTO> findVendedoresByRuc(String ruc) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        if (concesionario.getVendedores() == null) return List.of();
-        return concesionario.getVendedores().stream().map(vendedorMapper::toDTO).toList();
+        return vendedoresDe(cabeceraConVendedores(ruc)).stream().map(vendedorMapper::toDTO).toList();
+    }
+
+    public PaginaKeyset<VendedorDTO> findVendedoresByRuc(String ruc, String sort, String cursor, Integer limit) {
+        Keyset keyset = Keyset.de(sort, cursor, limit, CAMPOS_ORDEN_VENDEDOR);
+        Concesionario concesionario = cabeceraConVendedores(ruc);
+        PaginaKeyset<Vendedor> pagina = BackfillVendedores.enConflicto(concesionario)
+            ? concesionarioRepository.findVendedoresKeyset(ruc, keyset)
+            : vendedorRepository.findKeyset(concesionario.getId(), keyset);
+        return pagina.mapear(lista -> lista.stream().map(vendedorMapper::toDTO).toList());
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
     public VendedorDTO createVendedorInConcesionario(String ruc, VendedorDTO dto) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        if (concesionario.getVendedores() == null) concesionario.setVendedores(new java.util.ArrayList<>());
-        // Validación de unicidad de cédula
-        for (Concesionario c : concesionarioRepository.findAll()) {
-            if (c.getVendedores() != null) {
-                boolean cedulaExistente = c.getVendedores().stream().anyMatch(v -> v.getCedula().equals(dto.getCedula()));
-                if (cedulaExistente) {
-                    throw new CreateEntityException("Vendedor", "Ya existe un vendedor con la misma cédula: " + dto.getCedula());
-                }
-            }
-        }
         Vendedor vendedor = vendedorMapper.toModel(dto);
         vendedor.setId(java.util.UUID.randomUUID().toString());
         if (vendedor.getVersion() == null) vendedor.setVersion(0L);
-        concesionario.getVendedores().add(vendedor);
-        concesionarioRepository.save(concesionario);
+        // Unicidad de cédula y email: índices únicos de la colección vendedores
+        try {
+            concurrencia.ejecutar("crearVendedor", ruc, c -> {
+                backfillVendedores.asegurar(c);
+                exigirVendedoresEnColeccion(c);
+                if (!concesionarioRepository.incrementarVersion(ruc, c.getVersion())) {
+                    return Optional.empty();
+                }
+                vendedor.setConcesionarioId(c.getId());
+                return Optional.of(vendedorRepository.insert(vendedor));
+            }, () -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
+        } catch (DuplicateKeyException e) {
+            throw new CreateEntityException("Vendedor", "Ya existe un vendedor con la misma cédula o email: " + dto.getCedula());
+        }
+        indiceNombresVendedores.registrar(ruc, vendedor);
         return vendedorMapper.toDTO(vendedor);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
     public VendedorDTO updateVendedorInConcesionario(String ruc, String idVendedor, VendedorDTO dto) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        if (concesionario.getVendedores() == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = concesionario.getVendedores().stream()
-            .filter(v -> v.getId().equals(idVendedor)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con id=" + idVendedor));
-        vendedor.setNombre(dto.getNombre());
-        vendedor.setTelefono(dto.getTelefono());
-        vendedor.setEmail(dto.getEmail());
-        vendedor.setEstado(dto.getEstado());
-        vendedor.setVersion(vendedor.getVersion() == null ? 1L : vendedor.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
-        return vendedorMapper.toDTO(vendedor);
+        return actualizarVendedor(ruc, null, c -> vendedorRepository.findByIdAndConcesionarioId(idVendedor, c.getId()),
+            camposVendedor(dto), () -> new ResourceNotFoundException("Vendedor no encontrado con id=" + idVendedor));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
     public VendedorDTO desactivarVendedorInConcesionario(String ruc, String idVendedor) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        if (concesionario.getVendedores() == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = concesionario.getVendedores().stream()
-            .filter(v -> v.getId().equals(idVendedor)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con id=" + idVendedor));
-        vendedor.setEstado(com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum.INACTIVO);
-        vendedor.setVersion(vendedor.getVersion() == null ? 1L : vendedor.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
-        return vendedorMapper.toDTO(vendedor);
+        return actualizarVendedor(ruc, null, c -> vendedorRepository.findByIdAndConcesionarioId(idVendedor, c.getId()),
+            camposVendedorInactivo(), () -> new ResourceNotFoundException("Vendedor no encontrado con id=" + idVendedor));
     }
 
     @Transactional
-    public VendedorDTO updateVendedorInConcesionarioByCedula(String ruc, String cedula, VendedorDTO dto) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vendedor> vendedores = concesionario.getVendedores();
-        if (vendedores == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = vendedores.stream().filter(v -> v.getCedula().equals(cedula)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con cédula=" + cedula));
-        vendedor.setNombre(dto.getNombre());
-        vendedor.setTelefono(dto.getTelefono());
-        vendedor.setEmail(dto.getEmail());
-        vendedor.setEstado(dto.getEstado());
-        vendedor.setVersion(vendedor.getVersion() == null ? 1L : vendedor.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
-        return vendedorMapper.toDTO(vendedor);
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
+    public VendedorDTO updateVendedorInConcesionarioByCedula(String ruc, String cedula, VendedorDTO dto, Long versionEsperada) {
+        return actualizarVendedor(ruc, versionEsperada, c -> vendedorRepository.findByConcesionarioIdAndCedula(c.getId(), cedula),
+            camposVendedor(dto), () -> new ResourceNotFoundException("Vendedor no encontrado con cédula=" + cedula));
     }
 
     @Transactional
-    public VendedorDTO desactivarVendedorInConcesionarioByCedula(String ruc, String cedula) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vendedor> vendedores = concesionario.getVendedores();
-        if (vendedores == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = vendedores.stream().filter(v -> v.getCedula().equals(cedula)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con cédula=" + cedula));
-        vendedor.setEstado(com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum.INACTIVO);
-        vendedor.setVersion(vendedor.getVersion() == null ? 1L : vendedor.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
+    @CacheEvict(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, allEntries = true)
+    public VendedorDTO desactivarVendedorInConcesionarioByCedula(String ruc, String cedula, Long versionEsperada) {
+        return actualizarVendedor(ruc, versionEsperada, c -> vendedorRepository.findByConcesionarioIdAndCedula(c.getId(), cedula),
+            camposVendedorInactivo(), () -> new ResourceNotFoundException("Vendedor no encontrado con cédula=" + cedula));
+    }
+
+    /**
+     * Incrementa la versión del concesionario, base de las ETags de sus vendedores, y luego
+     * actualiza el vendedor condicionado a su propia versión. Si el vendedor no existe no se
+     * toca la versión, para que la concurrencia optimista responda 404 en lugar de reintentar.
+     */
+    private VendedorDTO actualizarVendedor(String ruc, Long versionEsperada,
+            Function<Concesionario, Optional<Vendedor>> buscar, Map<String, Object> campos,
+            Supplier<ResourceNotFoundException> noEncontrado) {
+        Vendedor vendedor;
+        try {
+            vendedor = concurrencia.ejecutar("actualizarVendedor", ruc, versionEsperada, c -> {
+                backfillVendedores.asegurar(c);
+                exigirVendedoresEnColeccion(c);
+                Optional<Vendedor> actual = buscar.apply(c);
+                if (actual.isEmpty() || !concesionarioRepository.incrementarVersion(ruc, c.getVersion())) {
+                    return Optional.empty();
+                }
+                return vendedorRepository.actualizar(actual.get().getId(), actual.get().getVersion(), campos);
+            }, noEncontrado);
+        } catch (DuplicateKeyException e) {
+            throw new UpdateEntityException("Vendedor", "Ya existe un vendedor con el mismo email: " + campos.get("email"));
+        }
+        indiceNombresVendedores.registrar(ruc, vendedor);
         return vendedorMapper.toDTO(vendedor);
     }
 
+    private Map<String, Object> camposVendedor(VendedorDTO dto) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("nombre", dto.getNombre());
+        campos.put("telefono", dto.getTelefono());
+        campos.put("email", dto.getEmail());
+        campos.put("estado", dto.getEstado());
+        return campos;
+    }
+
+    private Map<String, Object> camposVendedorInactivo() {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("estado", EstadoVendedorEnum.INACTIVO);
+        return campos;
+    }
+
     public VendedorDTO findVendedorByCedulaInConcesionario(String ruc, String cedula) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vendedor> vendedores = concesionario.getVendedores();
-        if (vendedores == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = vendedores.stream().filter(v -> v.getCedula().equals(cedula)).findFirst()
+        Concesionario concesionario = cabeceraConVendedores(ruc);
+        Vendedor vendedor = backfillVendedores.embebidosEnConflicto(concesionario)
+            .map(embebidos -> embebidos.stream().filter(v -> cedula.equals(v.getCedula())).findFirst())
+            .orElseGet(() -> vendedorRepository.findByConcesionarioIdAndCedula(concesionario.getId(), cedula))
             .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con cédula=" + cedula));
         return vendedorMapper.toDTO(vendedor);
     }
 
+    /**
+     * Los estados que no existen no coinciden con ningún vendedor.
+     */
     public List<VendedorDTO> findVendedoresByEstadoInConcesionario(String ruc, String estado) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vendedor> vendedores = concesionario.getVendedores();
-        if (vendedores == null) return List.of();
-        return vendedores.stream()
-            .filter(v -> v.getEstado() != null && v.getEstado().name().equalsIgnoreCase(estado))
-            .map(vendedorMapper::toDTO)
-            .toList();
+        Concesionario concesionario = cabeceraConVendedores(ruc);
+        for (EstadoVendedorEnum valor : EstadoVendedorEnum.values()) {
+            if (valor.name().equalsIgnoreCase(estado)) {
+                return backfillVendedores.embebidosEnConflicto(concesionario)
+                    .map(embebidos -> embebidos.stream().filter(v -> v.getEstado() == valor).toList())
+                    .orElseGet(() -> vendedorRepository.findByConcesionarioIdAndEstado(concesionario.getId(), valor))
+                    .stream()
+                    .map(vendedorMapper::toDTO)
+                    .toList();
+            }
+        }
+        return List.of();
     }
 
     public VendedorDTO findVendedorByEmailInConcesionario(String ruc, String email) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vendedor> vendedores = concesionario.getVendedores();
-        if (vendedores == null) throw new ResourceNotFoundException("No hay vendedores en el concesionario");
-        Vendedor vendedor = vendedores.stream().filter(v -> v.getEmail().equalsIgnoreCase(email)).findFirst()
+        Concesionario concesionario = cabeceraConVendedores(ruc);
+        Vendedor vendedor = backfillVendedores.embebidosEnConflicto(concesionario)
+            .map(embebidos -> embebidos.stream().filter(v -> email.equalsIgnoreCase(v.getEmail())).findFirst())
+            .orElseGet(() -> vendedorRepository.findByConcesionarioIdAndEmail(concesionario.getId(), email))
             .orElseThrow(() -> new ResourceNotFoundException("Vendedor no encontrado con email=" + email));
         return vendedorMapper.toDTO(vendedor);
     }
 
-    @Transactional
-    public VehiculoDTO updateVehiculoInConcesionarioByPlaca(String ruc, String placa, VehiculoDTO dto) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
+    /**
+     * Cabecera del concesionario, migrando antes sus vendedores a la colección si el backfill
+     * todavía no llegó a él.
+     */
+    private Concesionario cabeceraConVendedores(String ruc) {
+        Concesionario concesionario = concesionarioPorRucService.buscar(ruc)
             .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) throw new ResourceNotFoundException("No hay vehículos en el concesionario");
-        Vehiculo vehiculo = vehiculos.stream().filter(v -> v.getPlaca() != null && v.getPlaca().equalsIgnoreCase(placa)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vehículo no encontrado con placa=" + placa));
-        vehiculo.setMarca(dto.getMarca());
-        vehiculo.setModelo(dto.getModelo());
-        vehiculo.setCilindraje(dto.getCilindraje());
-        vehiculo.setAnio(dto.getAnio());
-        vehiculo.setValor(dto.getValor());
-        vehiculo.setColor(dto.getColor());
-        vehiculo.setExtras(dto.getExtras());
-        vehiculo.setEstado(dto.getEstado());
-        vehiculo.setTipo(dto.getTipo());
-        vehiculo.setCombustible(dto.getCombustible());
-        vehiculo.setCondicion(dto.getCondicion());
-        vehiculo.setVersion(vehiculo.getVersion() == null ? 1L : vehiculo.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
+        backfillVendedores.asegurar(concesionario);
+        return concesionario;
+    }
+
+    /**
+     * Vendedores del concesionario: de la colección, o del arreglo embebido mientras el
+     * backfill tenga conflictos pendientes para él.
+     */
+    private List<Vendedor> vendedoresDe(Concesionario concesionario) {
+        return backfillVendedores.embebidosEnConflicto(concesionario)
+            .orElseGet(() -> vendedorRepository.findByConcesionarioId(concesionario.getId()));
+    }
+
+    /**
+     * Con conflictos de backfill pendientes el arreglo embebido sigue siendo la fuente y no
+     * se escribe en la colección, para no separar lo que se lee de lo que se escribe.
+     */
+    private static void exigirVendedoresEnColeccion(Concesionario concesionario) {
+        if (BackfillVendedores.enConflicto(concesionario)) {
+            throw new ConflictoConcurrenciaException("Vendedor", "El concesionario " + concesionario.getRuc()
+                + " tiene vendedores con cédula o email repetidos pendientes de resolver");
+        }
+    }
+
+    @Transactional
+    public VehiculoDTO updateVehiculoInConcesionarioByPlaca(String ruc, String placa, VehiculoDTO dto, Long versionEsperada) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("marca", dto.getMarca());
+        campos.put("modelo", dto.getModelo());
+        campos.put("cilindraje", dto.getCilindraje());
+        campos.put("anio", dto.getAnio());
+        campos.put("valor", dto.getValor());
+        campos.put("color", dto.getColor());
+        campos.put("extras", dto.getExtras());
+        campos.put("estado", dto.getEstado());
+        campos.put("tipo", dto.getTipo());
+        campos.put("combustible", dto.getCombustible());
+        campos.put("condicion", dto.getCondicion());
+        Vehiculo vehiculo = almacenVehiculos.actualizarPorPlaca(ruc, placa, campos, versionEsperada);
+        indiceVehiculos.registrar(ruc, vehiculo);
         return vehiculoMapper.toDTO(vehiculo);
     }
 
     @Transactional
-    public VehiculoDTO desactivarVehiculoInConcesionarioByPlaca(String ruc, String placa) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) throw new ResourceNotFoundException("No hay vehículos en el concesionario");
-        Vehiculo vehiculo = vehiculos.stream().filter(v -> v.getPlaca() != null && v.getPlaca().equalsIgnoreCase(placa)).findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Vehículo no encontrado con placa=" + placa));
-        vehiculo.setEstado(com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum.NO_DISPONIBLE);
-        vehiculo.setVersion(vehiculo.getVersion() == null ? 1L : vehiculo.getVersion() + 1);
-        concesionarioRepository.save(concesionario);
+    public VehiculoDTO desactivarVehiculoInConcesionarioByPlaca(String ruc, String placa, Long versionEsperada) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("estado", com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum.NO_DISPONIBLE);
+        Vehiculo vehiculo = almacenVehiculos.actualizarPorPlaca(ruc, placa, campos, versionEsperada);
+        indiceVehiculos.registrar(ruc, vehiculo);
         return vehiculoMapper.toDTO(vehiculo);
     }
 
     public List<VehiculoDTO> findVehiculosByEstadoInConcesionario(String ruc, String estado) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) return List.of();
-        return vehiculos.stream()
-            .filter(v -> v.getEstado() != null && v.getEstado().name().equalsIgnoreCase(estado))
-            .map(vehiculoMapper::toDTO)
-            .toList();
+        return vehiculoMapper.toDTOList(almacenVehiculos.listarPorEstado(ruc, estado));
     }
 
     public List<VehiculoDTO> findVehiculosByCondicionInConcesionario(String ruc, String condicion) {
-        Concesionario concesionario = concesionarioRepository.findByRuc(ruc)
-            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
-        List<Vehiculo> vehiculos = concesionario.getVehiculos();
-        if (vehiculos == null) return List.of();
-        return vehiculos.stream()
-            .filter(v -> v.getCondicion() != null && v.getCondicion().name().equalsIgnoreCase(condicion))
-            .map(vehiculoMapper::toDTO)
-            .toList();
+        return vehiculoMapper.toDTOList(almacenVehiculos.listarPorCondicion(ruc, condicion));
     }
 
     // --------- Métodos para Admin (todos los datos) ---------
 
-    public List<VendedorDTO> findAllVendedores() {
+    public Page<VendedorDTO> findAllVendedores(int page, int size, String sort) {
+        Pageable pageable = crearPaginacion(page, size, sort, CAMPOS_ORDEN_VENDEDOR);
         try {
-            List<Concesionario> concesionarios = concesionarioRepository.findAll();
-            List<VendedorDTO> todosVendedores = new ArrayList<>();
-            
-            for (Concesionario concesionario : concesionarios) {
-                if (concesionario.getVendedores() != null) {
-                    List<VendedorDTO> vendedoresConcesionario = concesionario.getVendedores()
-                        .stream()
-                        .map(vendedorMapper::toDTO)
-                        .toList();
-                    todosVendedores.addAll(vendedoresConcesionario);
-                }
-            }
-            
-            return todosVendedores;
+            List<VendedorDTO> contenido = vendedorRepository.findAll(pageable)
+                .stream()
+                .map(vendedorMapper::toDTO)
+                .toList();
+            return new PageImpl<>(contenido, pageable, vendedorRepository.count());
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar todos los vendedores");
         }
     }
 
-    public List<VehiculoDTO> findAllVehiculos() {
+    public Page<VehiculoDTO> findAllVehiculos(int page, int size, String sort) {
+        Pageable pageable = crearPaginacion(page, size, sort, CAMPOS_ORDEN_VEHICULO);
         try {
-            List<Concesionario> concesionarios = concesionarioRepository.findAll();
-            List<VehiculoDTO> todosVehiculos = new ArrayList<>();
-            
-            for (Concesionario concesionario : concesionarios) {
-                if (concesionario.getVehiculos() != null) {
-                    List<VehiculoDTO> vehiculosConcesionario = concesionario.getVehiculos()
-                        .stream()
-                        .map(vehiculoMapper::toDTO)
-                        .toList();
-                    todosVehiculos.addAll(vehiculosConcesionario);
-                }
-            }
-            
-            return todosVehiculos;
+            List<VehiculoDTO> contenido = vehiculoMapper.toDTOList(almacenVehiculos.pagina(pageable));
+            return new PageImpl<>(contenido, pageable, almacenVehiculos.contar());
         } catch (Exception e) {
             throw new ResourceNotFoundException("Error al buscar todos los vehículos");
         }
     }
 
+    /**
+     * Busca vendedores por nombre entre los del concesionario, ordenados por relevancia. Se
+     * leen de la colección vendedores por su índice de concesionarioId, no del índice en
+     * memoria, para que las altas y cambios hechos en otra instancia se vean de inmediato.
+     */
+    public List<VendedorDTO> buscarVendedoresPorNombreInConcesionario(String ruc, String nombre, Integer limite) {
+        validarLimiteBusqueda(limite);
+        Concesionario concesionario = cabeceraConVendedores(ruc);
+        return IndiceNombresVendedores.filtrar(vendedoresDe(concesionario), nombre, limite)
+            .stream().map(vendedorMapper::toDTO).toList();
+    }
+
+    /**
+     * Autocompletado de vendedores por nombre entre todos los concesionarios, sobre el índice
+     * en memoria: lo escrito en otra instancia aparece tras su siguiente reconstrucción.
+     */
+    public List<VendedorBusquedaDTO> buscarVendedoresPorNombre(String nombre, int limite) {
+        validarLimiteBusqueda(limite);
+        return indiceNombresVendedores.buscar(null, nombre, limite).stream()
+            .map(e -> new VendedorBusquedaDTO(e.ruc(), vendedorMapper.toDTO(e.vendedor())))
+            .toList();
+    }
+
+    private void validarLimiteBusqueda(Integer limite) {
+        if (limite != null && (limite < 1 || limite > TAMANIO_MAXIMO_PAGINA)) {
+            throw new SolicitudInvalidaException("El límite debe estar entre 1 y " + TAMANIO_MAXIMO_PAGINA);
+        }
+    }
+
+    /**
+     * Búsqueda facetada entre concesionarios sobre el índice en memoria de vehículos.
+     */
+    public ResultadoBusquedaVehiculosDTO buscarVehiculos(FiltroVehiculos filtro, int desplazamiento, int limite) {
+        if (desplazamiento < 0) {
+            throw new SolicitudInvalidaException("El desplazamiento no puede ser negativo: " + desplazamiento);
+        }
+        if (limite < 1 || limite > TAMANIO_MAXIMO_PAGINA) {
+            throw new SolicitudInvalidaException("El límite debe estar entre 1 y " + TAMANIO_MAXIMO_PAGINA);
+        }
+        IndiceVehiculos.Resultado resultado = indiceVehiculos.buscar(filtro, desplazamiento, limite);
+        List<VehiculoDTO> dtos = vehiculoMapper.toDTOList(
+            resultado.pagina().stream().map(IndiceVehiculos.Entrada::vehiculo).toList());
+        List<VehiculoBusquedaDTO> vehiculos = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            vehiculos.add(new VehiculoBusquedaDTO(resultado.pagina().get(i).ruc(), dtos.get(i)));
+        }
+        return new ResultadoBusquedaVehiculosDTO(resultado.total(), vehiculos, resultado.facetas());
+    }
+
+    /**
+     * Estadísticas del inventario del concesionario, o de todo el sistema si el RUC es nulo.
+     * Se agregan en Mongo y cada conteo publica todos los valores del enum, con cero los que
+     * no tienen vehículos o vendedores.
+     */
+    public EstadisticasInventarioDTO findEstadisticasInventario(String ruc) {
+        Concesionario cabecera = ruc != null ? cabeceraConVendedores(ruc) : null;
+        EstadisticasVehiculos vehiculos = almacenVehiculos.estadisticas(cabecera);
+        Map<String, Long> vendedores = cabecera != null && BackfillVendedores.enConflicto(cabecera)
+            ? contarPorEstado(vendedoresDe(cabecera))
+            : vendedorRepository.contarPorEstado(cabecera != null ? cabecera.getId() : null);
+        return new EstadisticasInventarioDTO(
+            ruc,
+            vehiculos.total(),
+            completarConteos(EstadoVehiculoEnum.values(), vehiculos.porEstado()),
+            completarConteos(TipoVehiculoEnum.values(), vehiculos.porTipo()),
+            completarConteos(CombustibleVehiculoEnum.values(), vehiculos.porCombustible()),
+            completarConteos(CondicionVehiculoEnum.values(), vehiculos.porCondicion()),
+            vehiculos.valorTotal(),
+            vehiculos.valorPromedio(),
+            completarConteos(EstadoVendedorEnum.values(), vendedores));
+    }
+
+    private static Map<String, Long> contarPorEstado(List<Vendedor> vendedores) {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (Vendedor vendedor : vendedores) {
+            if (vendedor.getEstado() != null) {
+                conteos.merge(vendedor.getEstado().name(), 1L, Long::sum);
+            }
+        }
+        return conteos;
+    }
+
+    private static Map<String, Long> completarConteos(Enum<?>[] valores, Map<String, Long> conteos) {
+        Map<String, Long> completos = new LinkedHashMap<>();
+        for (Enum<?> valor : valores) {
+            completos.put(valor.name(), conteos.getOrDefault(valor.name(), 0L));
+        }
+        return completos;
+    }
+
+    /**
+     * Construye la paginación a partir de los parámetros del controlador. El orden se
+     * expresa como "campo,asc|desc" y solo admite los campos publicados para el recurso.
+     */
+    private Pageable crearPaginacion(int page, int size, String sort, Map<String, String> camposPermitidos) {
+        if (page < 0) {
+            throw new SolicitudInvalidaException("La página no puede ser negativa: " + page);
+        }
+        if (size < 1 || size > TAMANIO_MAXIMO_PAGINA) {
+            throw new SolicitudInvalidaException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO_PAGINA);
+        }
+        if (sort == null || sort.isBlank()) {
+            return PageRequest.of(page, size);
+        }
+        String[] partes = sort.split(",");
+        String campo = camposPermitidos.get(partes[0].trim());
+        if (campo == null) {
+            throw new SolicitudInvalidaException("No se puede ordenar por el campo: " + partes[0].trim());
+        }
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length > 1) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                .orElseThrow(() -> new SolicitudInvalidaException("Dirección de orden inválida: " + partes[1].trim()));
+        }
+        return PageRequest.of(page, size, Sort.by(direccion, campo));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CONCESIONARIO_POR_EMAIL_VENDEDOR, key = "#email.toLowerCase()")
     public ConcesionarioDTO findConcesionarioByVendedorEmail(String email) {
         try {
-            List<Concesionario> concesionarios = concesionarioRepository.findAll();
-            
-            for (Concesionario concesionario : concesionarios) {
-                if (concesionario.getVendedores() != null) {
-                    boolean vendedorEncontrado = concesionario.getVendedores().stream()
-                        .anyMatch(vendedor -> email.equalsIgnoreCase(vendedor.getEmail()));
-                    
-                    if (vendedorEncontrado) {
-                        return concesionarioMapper.toDTO(concesionario);
-                    }
-                }
-            }
-            
-            throw new ResourceNotFoundException("No se encontró concesionario para el vendedor con email: " + email);
+            Concesionario concesionario = vendedorRepository.findByEmail(email)
+                .flatMap(vendedor -> concesionarioRepository.findCabeceraById(vendedor.getConcesionarioId()))
+                .orElseThrow(() -> new ResourceNotFoundException("No se encontró concesionario para el vendedor con email: " + email));
+            return concesionarioMapper.toDTO(concesionario);
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
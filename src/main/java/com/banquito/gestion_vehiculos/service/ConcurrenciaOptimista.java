@@ -0,0 +1,147 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.exception.ConflictoConcurrenciaException;
+import com.banquito.gestion_vehiculos.exception.PrecondicionFallidaException;
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ejecuta escrituras sobre un concesionario con compare-and-set sobre su versión.
+ * Cada intento lee la cabecera, aplica la escritura condicionada a esa versión y, si no
+ * se aplicó porque otro proceso cambió el documento, reintenta con espera exponencial
+ * acotada. Agotados los reintentos se responde 409.
+ *
+ * Si el cliente envía la versión que conoce (If-Match), se hace un único intento
+ * condicionado a ella y, si el concesionario ya tiene otra versión, se responde 412.
+ *
+ * Toda escritura sobre un concesionario pasa por aquí, así que al terminar se invalida su
+ * entrada en la caché por RUC.
+ */
+@Component
+public class ConcurrenciaOptimista {
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final ConcesionarioPorRucService concesionarioPorRucService;
+    private final MeterRegistry meterRegistry;
+    private final int maxReintentos;
+    private final long esperaInicialMs;
+
+    public ConcurrenciaOptimista(
+            ConcesionarioRepository concesionarioRepository,
+            ConcesionarioPorRucService concesionarioPorRucService,
+            MeterRegistry meterRegistry,
+            @Value("${concurrencia.concesionario.max-reintentos:5}") int maxReintentos,
+            @Value("${concurrencia.concesionario.espera-inicial-ms:10}") long esperaInicialMs) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.concesionarioPorRucService = concesionarioPorRucService;
+        this.meterRegistry = meterRegistry;
+        this.maxReintentos = maxReintentos;
+        this.esperaInicialMs = esperaInicialMs;
+    }
+
+    /**
+     * @param operacion      nombre de la operación, usado como etiqueta de las métricas
+     * @param intento        escritura condicionada a la versión de la cabecera recibida;
+     *                       vacío si no se aplicó
+     * @param sinCoincidencia error a lanzar cuando la escritura no se aplicó y la versión no
+     *                       cambió, es decir, cuando su filtro no encontró el elemento
+     */
+    public <T> T ejecutar(String operacion, String ruc, Function<Concesionario, Optional<T>> intento,
+            Supplier<? extends RuntimeException> sinCoincidencia) {
+        return ejecutar(operacion, ruc, null, intento, sinCoincidencia);
+    }
+
+    /**
+     * @param versionEsperada versión del concesionario que conoce el cliente; null para
+     *                        reintentar contra la versión vigente
+     */
+    public <T> T ejecutar(String operacion, String ruc, Long versionEsperada,
+            Function<Concesionario, Optional<T>> intento, Supplier<? extends RuntimeException> sinCoincidencia) {
+        try {
+            if (versionEsperada != null) {
+                return ejecutarCondicionado(ruc, versionEsperada, intento, sinCoincidencia);
+            }
+            return ejecutarConReintentos(operacion, ruc, intento, sinCoincidencia);
+        } finally {
+            // También si falló: un intento pudo aplicarse antes de una excepción posterior
+            concesionarioPorRucService.invalidar(ruc);
+        }
+    }
+
+    private <T> T ejecutarConReintentos(String operacion, String ruc,
+            Function<Concesionario, Optional<T>> intento, Supplier<? extends RuntimeException> sinCoincidencia) {
+        for (int reintento = 0; ; reintento++) {
+            Concesionario cabecera = buscarCabecera(ruc);
+            Optional<T> resultado = intento.apply(cabecera);
+            if (resultado.isPresent()) {
+                return resultado.get();
+            }
+            if (Objects.equals(buscarCabecera(ruc).getVersion(), cabecera.getVersion())) {
+                throw sinCoincidencia.get();
+            }
+            if (reintento >= maxReintentos) {
+                contador("concesionario.cas.conflictos", operacion).increment();
+                throw new ConflictoConcurrenciaException("Concesionario",
+                        "El concesionario " + ruc + " fue modificado concurrentemente, intente nuevamente");
+            }
+            contador("concesionario.cas.reintentos", operacion).increment();
+            esperar(reintento);
+        }
+    }
+
+    private <T> T ejecutarCondicionado(String ruc, Long versionEsperada,
+            Function<Concesionario, Optional<T>> intento, Supplier<? extends RuntimeException> sinCoincidencia) {
+        Concesionario cabecera = buscarCabecera(ruc);
+        if (!versionEsperada.equals(cabecera.getVersion())) {
+            throw versionDistinta(ruc);
+        }
+        Optional<T> resultado = intento.apply(cabecera);
+        if (resultado.isPresent()) {
+            return resultado.get();
+        }
+        if (!versionEsperada.equals(buscarCabecera(ruc).getVersion())) {
+            throw versionDistinta(ruc);
+        }
+        throw sinCoincidencia.get();
+    }
+
+    private PrecondicionFallidaException versionDistinta(String ruc) {
+        return new PrecondicionFallidaException("Concesionario",
+                "El concesionario " + ruc + " ya no está en la versión indicada en If-Match");
+    }
+
+    private Concesionario buscarCabecera(String ruc) {
+        return concesionarioRepository.findCabeceraByRuc(ruc)
+                .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
+    }
+
+    private Counter contador(String nombre, String operacion) {
+        return Counter.builder(nombre)
+                .description("Escrituras sobre concesionarios afectadas por modificaciones concurrentes")
+                .tag("operacion", operacion)
+                .register(meterRegistry);
+    }
+
+    private void esperar(int reintento) {
+        long maximo = esperaInicialMs << Math.min(reintento, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maximo / 2, maximo + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Concesionario", "Operación interrumpida durante el reintento");
+        }
+    }
+}
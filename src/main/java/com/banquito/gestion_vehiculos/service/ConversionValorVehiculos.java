@@ -0,0 +1,43 @@
+package com.banquito.gestion_vehiculos.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Convierte al arrancar el valor de los vehículos guardado como texto, de antes de mapearlo
+ * como Decimal128, tanto en la colección vehiculos como en los arreglos embebidos. Hasta
+ * entonces esos vehículos quedan fuera de orden al ordenar por valor. Es idempotente: solo
+ * toca documentos con algún valor de tipo texto.
+ */
+@Slf4j
+@Component
+public class ConversionValorVehiculos {
+
+    private final VehiculoRepository vehiculoRepository;
+    private final ConcesionarioRepository concesionarioRepository;
+
+    public ConversionValorVehiculos(VehiculoRepository vehiculoRepository, ConcesionarioRepository concesionarioRepository) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.concesionarioRepository = concesionarioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void convertir() {
+        try {
+            long vehiculos = vehiculoRepository.convertirValorADecimal();
+            long concesionarios = concesionarioRepository.convertirValorVehiculosEmbebidosADecimal();
+            if (vehiculos > 0 || concesionarios > 0) {
+                log.info("Valor convertido a Decimal128 en {} vehículos y en los embebidos de {} concesionarios",
+                        vehiculos, concesionarios);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo convertir el valor de los vehículos a Decimal128: {}", e.getMessage());
+        }
+    }
+}
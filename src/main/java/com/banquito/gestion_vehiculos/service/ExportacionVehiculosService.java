@@ -0,0 +1,130 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.gestion_vehiculos.dto.IdentificadorVehiculoDTO;
+import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exporta el inventario completo de vehículos leyendo un cursor de Mongo y escribiendo
+ * cada registro directamente en la salida. Solo se mantiene en memoria un lote a la vez
+ * (para resolver sus identificadores con una consulta), y la salida se vacía tras cada
+ * lote para que el cliente reciba datos mientras el cursor avanza.
+ */
+@Service
+public class ExportacionVehiculosService {
+
+    private static final String CABECERA_CSV =
+            "id,marca,modelo,cilindraje,anio,valor,color,extras,estado,tipo,combustible,condicion,version,placa,chasis,motor";
+
+    private final AlmacenVehiculos almacenVehiculos;
+    private final VehiculoMapper vehiculoMapper;
+    private final ObjectMapper objectMapper;
+    private final int tamanioLote;
+
+    public ExportacionVehiculosService(AlmacenVehiculos almacenVehiculos,
+                                       VehiculoMapper vehiculoMapper,
+                                       ObjectMapper objectMapper,
+                                       @Value("${exportacion.vehiculos.tamanio-lote:500}") int tamanioLote) {
+        this.almacenVehiculos = almacenVehiculos;
+        this.vehiculoMapper = vehiculoMapper;
+        this.objectMapper = objectMapper;
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Un objeto JSON por línea, con la misma representación que el listado paginado.
+     */
+    public void exportarNdjson(OutputStream salida) throws IOException {
+        recorrer(lote -> {
+            for (VehiculoDTO dto : lote) {
+                salida.write(objectMapper.writeValueAsBytes(dto));
+                salida.write('\n');
+            }
+            salida.flush();
+        });
+    }
+
+    public void exportarCsv(OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escritor.write(CABECERA_CSV);
+        escritor.write("\r\n");
+        recorrer(lote -> {
+            for (VehiculoDTO dto : lote) {
+                escribirFilaCsv(escritor, dto);
+            }
+            escritor.flush();
+        });
+        escritor.flush();
+    }
+
+    private void recorrer(EscritorLote escritor) throws IOException {
+        try (Stream<Vehiculo> vehiculos = almacenVehiculos.recorrer(tamanioLote)) {
+            Iterator<Vehiculo> iterador = vehiculos.iterator();
+            List<Vehiculo> lote = new ArrayList<>(tamanioLote);
+            while (iterador.hasNext()) {
+                lote.add(iterador.next());
+                if (lote.size() == tamanioLote) {
+                    escritor.escribir(vehiculoMapper.toDTOList(lote));
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                escritor.escribir(vehiculoMapper.toDTOList(lote));
+            }
+        }
+    }
+
+    private void escribirFilaCsv(Writer escritor, VehiculoDTO dto) throws IOException {
+        IdentificadorVehiculoDTO identificador = dto.getIdentificadorVehiculo();
+        Object[] columnas = {
+            dto.getId(), dto.getMarca(), dto.getModelo(), dto.getCilindraje(), dto.getAnio(),
+            dto.getValor() != null ? dto.getValor().toPlainString() : null, dto.getColor(),
+            dto.getExtras(), dto.getEstado(), dto.getTipo(), dto.getCombustible(),
+            dto.getCondicion(), dto.getVersion(), dto.getPlaca(),
+            identificador != null ? identificador.getChasis() : null,
+            identificador != null ? identificador.getMotor() : null
+        };
+        for (int i = 0; i < columnas.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            escritor.write(campoCsv(columnas[i]));
+        }
+        escritor.write("\r\n");
+    }
+
+    /**
+     * Escapa el campo según RFC 4180: entre comillas si contiene separador, comillas o saltos.
+     */
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface EscritorLote {
+        void escribir(List<VehiculoDTO> lote) throws IOException;
+    }
+}
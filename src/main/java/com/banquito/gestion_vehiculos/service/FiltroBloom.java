@@ -0,0 +1,95 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre cadenas, dimensionado para una capacidad y una tasa de falsos
+ * positivos objetivo. Las inserciones y consultas son seguras entre hilos sin bloqueos
+ * (bits en un AtomicLongArray). No admite borrados.
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray palabras;
+    private final long bits;
+    private final int funciones;
+    private final AtomicLong elementos = new AtomicLong();
+
+    FiltroBloom(long capacidad, double tasaFalsosPositivos) {
+        long n = Math.max(1, capacidad);
+        long m = (long) Math.ceil(-n * Math.log(tasaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.palabras = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64)));
+        this.bits = (long) palabras.length() * 64;
+        this.funciones = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = segundoHash(h1);
+        for (int i = 1; i <= funciones; i++) {
+            long posicion = posicion(h1, h2, i);
+            int indice = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            long actual = palabras.get(indice);
+            while ((actual & mascara) == 0 && !palabras.compareAndSet(indice, actual, actual | mascara)) {
+                actual = palabras.get(indice);
+            }
+        }
+        elementos.incrementAndGet();
+    }
+
+    /**
+     * false garantiza que el valor nunca se agregó; true puede ser un falso positivo.
+     */
+    boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = segundoHash(h1);
+        for (int i = 1; i <= funciones; i++) {
+            long posicion = posicion(h1, h2, i);
+            if ((palabras.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long elementos() {
+        return elementos.get();
+    }
+
+    long bytes() {
+        return (long) palabras.length() * Long.BYTES;
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con los elementos insertados hasta ahora,
+     * (1 - e^(-k·n/m))^k; sube si se supera la capacidad.
+     */
+    double tasaFalsosPositivosEstimada() {
+        return Math.pow(1 - Math.exp(-(double) funciones * elementos.get() / bits), funciones);
+    }
+
+    // Doble hashing (Kirsch-Mitzenmacher): k posiciones a partir de dos hashes
+    private long posicion(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+
+    private static long segundoHash(long h1) {
+        return (Long.rotateLeft(h1, 32) * 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    // FNV-1a de 64 bits seguido del mezclado final de MurmurHash3 para repartir los bits
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
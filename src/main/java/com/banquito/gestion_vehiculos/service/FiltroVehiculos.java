@@ -0,0 +1,26 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.math.BigDecimal;
+
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
+
+/**
+ * Filtros de la búsqueda de vehículos entre concesionarios. Los valores null no filtran;
+ * marca, modelo y RUC se comparan exactos sin distinguir mayúsculas y los rangos son inclusivos.
+ */
+public record FiltroVehiculos(
+        String concesionarioRuc,
+        String marca,
+        String modelo,
+        TipoVehiculoEnum tipo,
+        CombustibleVehiculoEnum combustible,
+        CondicionVehiculoEnum condicion,
+        EstadoVehiculoEnum estado,
+        BigDecimal valorMin,
+        BigDecimal valorMax,
+        Integer anioMin,
+        Integer anioMax) {
+}
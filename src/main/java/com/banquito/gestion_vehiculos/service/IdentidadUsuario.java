@@ -0,0 +1,18 @@
+package com.banquito.gestion_vehiculos.service;
+
+import com.banquito.gestion_vehiculos.enums.RolEnum;
+
+/**
+ * Datos del usuario que necesita la autorización: rol y, para vendedores, el id y el
+ * RUC de su concesionario.
+ */
+public record IdentidadUsuario(String email, RolEnum rol, String concesionarioId, String concesionarioRuc) {
+
+    public boolean esAdmin() {
+        return rol == RolEnum.ADMIN;
+    }
+
+    public boolean esVendedor() {
+        return rol == RolEnum.VENDEDOR;
+    }
+}
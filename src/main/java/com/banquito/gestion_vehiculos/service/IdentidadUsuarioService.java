@@ -0,0 +1,46 @@
+package com.banquito.gestion_vehiculos.service;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Usuario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.UsuarioRepository;
+
+/**
+ * Resuelve la identidad de un usuario una sola vez y la mantiene en una caché acotada con
+ * TTL, de modo que las validaciones de autorización no consultan la base en cada llamada.
+ * AuthService invalida la caché al crear, actualizar o eliminar usuarios.
+ */
+@Service
+public class IdentidadUsuarioService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ConcesionarioRepository concesionarioRepository;
+
+    public IdentidadUsuarioService(UsuarioRepository usuarioRepository,
+                                   ConcesionarioRepository concesionarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+        this.concesionarioRepository = concesionarioRepository;
+    }
+
+    /**
+     * @return la identidad del usuario o null si no existe un usuario con ese email
+     */
+    @Cacheable(cacheNames = CacheConfig.IDENTIDADES_USUARIO, key = "#email")
+    public IdentidadUsuario resolver(String email) {
+        Usuario usuario = usuarioRepository.findByEmail(email).orElse(null);
+        if (usuario == null) {
+            return null;
+        }
+        String concesionarioRuc = null;
+        if (usuario.getConcesionarioId() != null) {
+            concesionarioRuc = concesionarioRepository.findCabeceraById(usuario.getConcesionarioId())
+                    .map(Concesionario::getRuc)
+                    .orElse(null);
+        }
+        return new IdentidadUsuario(usuario.getEmail(), usuario.getRol(), usuario.getConcesionarioId(), concesionarioRuc);
+    }
+}
@@ -0,0 +1,256 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Búsqueda de identificadores de vehículo por placa con una caché cercana (Caffeine) de los
+ * identificadores ya leídos delante de Mongo, y un filtro de Bloom con las placas conocidas.
+ *
+ * Las validaciones y altas ({@link #buscarNueva}, {@link #buscarNuevas}) preguntan casi
+ * siempre por placas que no existen: si el filtro no contiene la placa se responde sin
+ * consultar Mongo. El filtro de otra instancia puede no tener aún una placa recién creada;
+ * el índice único de placa sigue siendo la garantía final y el retraso lo acota
+ * identificadores.bloom.reconstruccion.
+ *
+ * El mapeo de vehículos guardados ({@link #buscar}, {@link #buscarTodas}) pregunta por
+ * placas que casi siempre tienen identificador, quizá creado en otra instancia: ahí un "no
+ * existe" del filtro se verifica en Mongo, y si la placa aparece se agrega al filtro y se
+ * cuenta como desactualizada. En ningún caso se cachean las ausencias.
+ *
+ * El filtro se carga al arrancar y se reconstruye periódicamente (también para
+ * redimensionarlo y recoger altas de otras instancias); las altas de esta instancia lo
+ * actualizan con {@link #registrar(IdentificadorVehiculo)} y {@link #registrarPlacas(Collection)}.
+ */
+@Slf4j
+@Component
+public class IdentificadoresPorPlaca {
+
+    private final IdentificadorVehiculoRepository identificadorVehiculoRepository;
+    private final Cache<Object, Object> cache;
+    private final double tasaFalsosPositivos;
+    private final Counter descartados;
+    private final Counter negativosFiltro;
+    private final Counter desactualizados;
+    private final Counter falsosPositivos;
+
+    private volatile FiltroBloom filtro;
+    private volatile FiltroBloom enConstruccion;
+
+    public IdentificadoresPorPlaca(IdentificadorVehiculoRepository identificadorVehiculoRepository,
+                                   CacheManager cacheManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${identificadores.bloom.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos) {
+        this.identificadorVehiculoRepository = identificadorVehiculoRepository;
+        this.cache = ((CaffeineCache) cacheManager.getCache(CacheConfig.IDENTIFICADORES_POR_PLACA)).getNativeCache();
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.descartados = Counter.builder("identificadores.bloom.descartados")
+                .description("Placas nuevas que el filtro de Bloom descartó sin consultar Mongo")
+                .register(meterRegistry);
+        this.negativosFiltro = Counter.builder("identificadores.bloom.negativos")
+                .description("Placas de vehículos guardados que el filtro de Bloom no contiene, verificadas en Mongo")
+                .register(meterRegistry);
+        this.desactualizados = Counter.builder("identificadores.bloom.desactualizados")
+                .description("Placas ausentes del filtro de Bloom que sí existían, creadas en otra instancia")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("identificadores.bloom.falsos.positivos")
+                .description("Placas que el filtro de Bloom dejó pasar y no existían")
+                .register(meterRegistry);
+        Gauge.builder("identificadores.bloom.tasa.falsos.positivos", this, IdentificadoresPorPlaca::tasaFalsosPositivosObservada)
+                .description("Falsos positivos sobre el total de placas inexistentes consultadas")
+                .register(meterRegistry);
+        Gauge.builder("identificadores.bloom.tasa.falsos.positivos.estimada", this,
+                        i -> i.filtro == null ? 0 : i.filtro.tasaFalsosPositivosEstimada())
+                .description("Tasa de falsos positivos teórica con los elementos actuales")
+                .register(meterRegistry);
+        Gauge.builder("identificadores.bloom.bytes", this, i -> i.filtro == null ? 0 : i.filtro.bytes())
+                .description("Memoria ocupada por los bits del filtro de Bloom")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("identificadores.bloom.elementos", this, i -> i.filtro == null ? 0 : i.filtro.elementos())
+                .description("Placas insertadas en el filtro de Bloom")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlArrancar() {
+        reconstruir();
+    }
+
+    /**
+     * El filtro nuevo se dimensiona al doble de las placas actuales para admitir altas hasta
+     * la siguiente reconstrucción sin degradar la tasa de falsos positivos.
+     */
+    @Scheduled(initialDelayString = "${identificadores.bloom.reconstruccion:PT5M}",
+            fixedDelayString = "${identificadores.bloom.reconstruccion:PT5M}")
+    public synchronized void reconstruir() {
+        try {
+            long capacidad = Math.max(10_000, identificadorVehiculoRepository.count() * 2);
+            FiltroBloom nuevo = new FiltroBloom(capacidad, tasaFalsosPositivos);
+            enConstruccion = nuevo;
+            try (Stream<String> placas = identificadorVehiculoRepository.streamPlacas()) {
+                placas.forEach(nuevo::agregar);
+            }
+            filtro = nuevo;
+            log.info("Filtro de Bloom de placas cargado: {} placas, {} KiB, tasa de falsos positivos estimada {}",
+                    nuevo.elementos(), nuevo.bytes() / 1024, String.format("%.5f", nuevo.tasaFalsosPositivosEstimada()));
+        } catch (Exception e) {
+            log.warn("No se pudo cargar el filtro de Bloom de placas: {}", e.getMessage());
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    /**
+     * Identificador de la placa de un vehículo guardado; un negativo del filtro se verifica.
+     */
+    public Optional<IdentificadorVehiculo> buscar(String placa) {
+        if (placa == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(buscarTodas(List.of(placa)).get(placa));
+    }
+
+    /**
+     * Resuelve las placas de un lote de vehículos guardados: las que están en caché no viajan
+     * a Mongo y el resto se consulta con un solo $in, aunque el filtro no las contenga.
+     *
+     * @return identificadores encontrados por placa; las placas inexistentes no aparecen
+     */
+    public Map<String, IdentificadorVehiculo> buscarTodas(Collection<String> placas) {
+        return resolver(placas, true);
+    }
+
+    /**
+     * Identificador de una placa que se valida o se da de alta; si el filtro no la contiene
+     * se responde vacío sin consultar Mongo.
+     */
+    public Optional<IdentificadorVehiculo> buscarNueva(String placa) {
+        if (placa == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(buscarNuevas(List.of(placa)).get(placa));
+    }
+
+    /**
+     * Como {@link #buscarNueva(String)} para un lote: solo las placas que el filtro puede
+     * contener y no están en caché se consultan, con un solo $in.
+     */
+    public Map<String, IdentificadorVehiculo> buscarNuevas(Collection<String> placas) {
+        return resolver(placas, false);
+    }
+
+    private Map<String, IdentificadorVehiculo> resolver(Collection<String> placas, boolean verificarNegativos) {
+        Map<String, IdentificadorVehiculo> encontrados = new HashMap<>();
+        if (placas.isEmpty()) {
+            return encontrados;
+        }
+        Map<Object, Object> enCache = cache.getAllPresent(placas);
+        FiltroBloom actual = filtro;
+        List<String> pendientes = new ArrayList<>();
+        Set<String> fueraDelFiltro = new HashSet<>();
+        for (String placa : placas) {
+            if (enCache.get(placa) instanceof IdentificadorVehiculo identificador) {
+                encontrados.put(placa, identificador);
+            } else if (actual == null || actual.puedeContener(placa)) {
+                pendientes.add(placa);
+            } else if (verificarNegativos) {
+                negativosFiltro.increment();
+                fueraDelFiltro.add(placa);
+                pendientes.add(placa);
+            } else {
+                descartados.increment();
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return encontrados;
+        }
+        Map<String, IdentificadorVehiculo> leidos = new HashMap<>();
+        for (IdentificadorVehiculo identificador : identificadorVehiculoRepository.findByPlacaIn(pendientes)) {
+            leidos.putIfAbsent(identificador.getPlaca(), identificador);
+        }
+        for (String placa : pendientes) {
+            IdentificadorVehiculo identificador = leidos.get(placa);
+            if (identificador != null) {
+                encontrados.put(placa, identificador);
+                cache.put(placa, identificador);
+                if (fueraDelFiltro.contains(placa)) {
+                    desactualizados.increment();
+                    agregarAlFiltro(placa);
+                }
+            } else if (actual != null && !fueraDelFiltro.contains(placa)) {
+                falsosPositivos.increment();
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Registra un identificador recién guardado (con su id).
+     */
+    public void registrar(IdentificadorVehiculo identificador) {
+        if (identificador == null || identificador.getPlaca() == null) {
+            return;
+        }
+        agregarAlFiltro(identificador.getPlaca());
+        cache.put(identificador.getPlaca(), identificador);
+    }
+
+    /**
+     * Registra placas insertadas o actualizadas en lote, sin su documento: se agregan al
+     * filtro y se descartan de la caché para leerlas de nuevo la próxima vez.
+     */
+    public void registrarPlacas(Collection<String> placas) {
+        for (String placa : placas) {
+            agregarAlFiltro(placa);
+        }
+        cache.invalidateAll(placas);
+    }
+
+    private void agregarAlFiltro(String placa) {
+        FiltroBloom actual = filtro;
+        if (actual != null) {
+            actual.agregar(placa);
+        }
+        FiltroBloom nuevo = enConstruccion;
+        if (nuevo != null && nuevo != actual) {
+            nuevo.agregar(placa);
+        }
+    }
+
+    /**
+     * Falsos positivos sobre las placas inexistentes consultadas; las negativas del filtro
+     * que resultaron existir no son inexistentes y no cuentan.
+     */
+    private double tasaFalsosPositivosObservada() {
+        double positivos = falsosPositivos.count();
+        double total = positivos + descartados.count() + negativosFiltro.count() - desactualizados.count();
+        return total <= 0 ? 0 : positivos / total;
+    }
+}
@@ -0,0 +1,387 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.gestion_vehiculos.dto.ResultadoImportacionVehiculoDTO;
+import com.banquito.gestion_vehiculos.dto.ResumenImportacionVehiculosDTO;
+import com.banquito.gestion_vehiculos.dto.VehiculoImportacionDTO;
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva de vehículos a un concesionario desde NDJSON o CSV. La entrada se lee
+ * registro a registro y cada fila se valida al llegar; las válidas se acumulan en lotes
+ * que se guardan con una sola escritura por lote (ver {@link AlmacenVehiculos#agregarLote})
+ * y un bulkWrite de identificadores, en lugar de una escritura por vehículo. Los
+ * identificadores ya registrados no se sobrescriben: si difieren, la fila se rechaza.
+ *
+ * El reporte se escribe como NDJSON, una línea por fila en el orden del archivo y una
+ * última con los totales. En memoria solo hay un lote y el conjunto de placas ya vistas.
+ */
+@Slf4j
+@Service
+public class ImportacionVehiculosService {
+
+    private final AlmacenVehiculos almacenVehiculos;
+    private final IdentificadorVehiculoRepository identificadorVehiculoRepository;
+    private final IdentificadoresPorPlaca identificadoresPorPlaca;
+    private final IndiceVehiculos indiceVehiculos;
+    private final VehiculoMapper vehiculoMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int tamanioLote;
+
+    public ImportacionVehiculosService(AlmacenVehiculos almacenVehiculos,
+                                       IdentificadorVehiculoRepository identificadorVehiculoRepository,
+                                       IdentificadoresPorPlaca identificadoresPorPlaca,
+                                       IndiceVehiculos indiceVehiculos,
+                                       VehiculoMapper vehiculoMapper,
+                                       ObjectMapper objectMapper,
+                                       Validator validator,
+                                       @Value("${importacion.vehiculos.tamanio-lote:500}") int tamanioLote) {
+        this.almacenVehiculos = almacenVehiculos;
+        this.identificadorVehiculoRepository = identificadorVehiculoRepository;
+        this.identificadoresPorPlaca = identificadoresPorPlaca;
+        this.indiceVehiculos = indiceVehiculos;
+        this.vehiculoMapper = vehiculoMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Un objeto JSON por línea con los campos de {@link VehiculoImportacionDTO}; las líneas
+     * en blanco se ignoran.
+     */
+    public ResumenImportacionVehiculosDTO importarNdjson(String ruc, InputStream entrada, AperturaReporte salida) throws IOException {
+        Importacion importacion = iniciar(ruc, salida);
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        int fila = 0;
+        for (String linea = lector.readLine(); linea != null; linea = lector.readLine()) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            fila++;
+            try {
+                importacion.agregar(fila, objectMapper.readValue(linea, VehiculoImportacionDTO.class));
+            } catch (JsonProcessingException e) {
+                importacion.rechazar(fila, null, List.of(errorLectura(e)));
+            }
+        }
+        return importacion.terminar();
+    }
+
+    /**
+     * CSV con cabecera; las columnas se asocian por nombre, de modo que el archivo de la
+     * exportación se puede volver a importar (id y version se ignoran).
+     */
+    public ResumenImportacionVehiculosDTO importarCsv(String ruc, InputStream entrada, AperturaReporte salida) throws IOException {
+        Importacion importacion = iniciar(ruc, salida);
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+        List<String> cabecera = lector.leer();
+        if (cabecera != null && !cabecera.isEmpty() && cabecera.get(0).startsWith("\uFEFF")) {
+            cabecera.set(0, cabecera.get(0).substring(1));
+        }
+        int fila = 0;
+        for (List<String> registro = cabecera == null ? null : lector.leer(); registro != null; registro = lector.leer()) {
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue;
+            }
+            fila++;
+            if (registro.size() != cabecera.size()) {
+                importacion.rechazar(fila, null, List.of("Se esperaban " + cabecera.size()
+                        + " columnas y se encontraron " + registro.size()));
+                continue;
+            }
+            Map<String, String> campos = new LinkedHashMap<>();
+            for (int i = 0; i < cabecera.size(); i++) {
+                if (!registro.get(i).isEmpty()) {
+                    campos.put(cabecera.get(i).trim(), registro.get(i));
+                }
+            }
+            try {
+                importacion.agregar(fila, objectMapper.convertValue(campos, VehiculoImportacionDTO.class));
+            } catch (IllegalArgumentException e) {
+                Throwable causa = e.getCause() instanceof JsonProcessingException ? e.getCause() : e;
+                importacion.rechazar(fila, campos.get("placa"), List.of(errorLectura(causa)));
+            }
+        }
+        return importacion.terminar();
+    }
+
+    /**
+     * Abre el reporte solo después de comprobar que existe el concesionario, para que el
+     * 404 pueda responderse como cualquier otro error.
+     */
+    private Importacion iniciar(String ruc, AperturaReporte salida) throws IOException {
+        List<String> existentes = almacenVehiculos.placasPorRuc(ruc)
+            .orElseThrow(() -> new ResourceNotFoundException("Concesionario no encontrado con RUC=" + ruc));
+        Set<String> placas = existentes.stream().map(ImportacionVehiculosService::clavePlaca).collect(Collectors.toCollection(HashSet::new));
+        return new Importacion(ruc, salida.abrir(), placas);
+    }
+
+    /**
+     * Las reglas de bean validation de {@link com.banquito.gestion_vehiculos.dto.VehiculoDTO}
+     * y de chasis y motor, más placa obligatoria porque es la clave del identificador.
+     */
+    private List<String> validar(VehiculoImportacionDTO dto) {
+        List<String> errores = new ArrayList<>(validator.validate(dto).stream()
+            .sorted(Comparator.comparing((ConstraintViolation<?> v) -> v.getPropertyPath().toString())
+                .thenComparing(ConstraintViolation::getMessage))
+            .map(ConstraintViolation::getMessage)
+            .toList());
+        if (dto.getPlaca() == null || dto.getPlaca().isBlank()) {
+            errores.add("La placa es requerida");
+        }
+        return errores;
+    }
+
+    private static String errorLectura(Throwable e) {
+        if (e instanceof JsonMappingException mapeo && !mapeo.getPath().isEmpty()) {
+            String campo = mapeo.getPath().get(mapeo.getPath().size() - 1).getFieldName();
+            if (campo != null) {
+                return "Valor inválido para " + campo;
+            }
+        }
+        if (e instanceof JsonProcessingException procesamiento) {
+            return "JSON inválido: " + procesamiento.getOriginalMessage();
+        }
+        return "Fila inválida: " + e.getMessage();
+    }
+
+    private static boolean distinto(String importado, String existente) {
+        return importado != null && !importado.equals(existente);
+    }
+
+    private static String clavePlaca(String placa) {
+        return placa.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Estado de una importación en curso: el lote pendiente (válidas y rechazadas, para
+     * reportarlas en orden), las placas ya registradas o vistas en el archivo y los totales.
+     */
+    private final class Importacion {
+
+        private final String ruc;
+        private final OutputStream salida;
+        private final Set<String> placas;
+        private final List<ResultadoImportacionVehiculoDTO> resultados = new ArrayList<>();
+        private final List<Vehiculo> vehiculos = new ArrayList<>();
+        private final List<IdentificadorVehiculo> identificadores = new ArrayList<>();
+        private int filas;
+        private int creados;
+        private int errores;
+
+        Importacion(String ruc, OutputStream salida, Set<String> placas) {
+            this.ruc = ruc;
+            this.salida = salida;
+            this.placas = placas;
+        }
+
+        void agregar(int fila, VehiculoImportacionDTO dto) throws IOException {
+            List<String> problemas = validar(dto);
+            if (problemas.isEmpty() && !placas.add(clavePlaca(dto.getPlaca()))) {
+                problemas.add("Ya existe un vehículo con la misma placa: " + dto.getPlaca());
+            }
+            if (!problemas.isEmpty()) {
+                rechazar(fila, dto.getPlaca(), problemas);
+                return;
+            }
+            filas++;
+            Vehiculo vehiculo = vehiculoMapper.toModel(dto);
+            vehiculo.setId(UUID.randomUUID().toString());
+            vehiculo.setPlaca(dto.getPlaca().trim());
+            vehiculo.setVersion(0L);
+            vehiculos.add(vehiculo);
+            if (dto.getChasis() != null || dto.getMotor() != null) {
+                IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+                identificador.setPlaca(vehiculo.getPlaca());
+                identificador.setChasis(dto.getChasis());
+                identificador.setMotor(dto.getMotor());
+                identificadores.add(identificador);
+            }
+            resultados.add(new ResultadoImportacionVehiculoDTO(fila, ResultadoImportacionVehiculoDTO.CREADO,
+                vehiculo.getPlaca(), vehiculo.getId(), null));
+            if (vehiculos.size() >= tamanioLote) {
+                guardarLote();
+            }
+        }
+
+        void rechazar(int fila, String placa, List<String> problemas) throws IOException {
+            filas++;
+            errores++;
+            resultados.add(new ResultadoImportacionVehiculoDTO(fila, ResultadoImportacionVehiculoDTO.ERROR, placa, null, problemas));
+            if (resultados.size() >= tamanioLote) {
+                guardarLote();
+            }
+        }
+
+        ResumenImportacionVehiculosDTO terminar() throws IOException {
+            guardarLote();
+            ResumenImportacionVehiculosDTO resumen = new ResumenImportacionVehiculosDTO(filas, creados, errores);
+            escribir(resumen);
+            salida.flush();
+            log.info("Importación de vehículos en concesionario {}: {} filas, {} creados, {} con error", ruc, filas, creados, errores);
+            return resumen;
+        }
+
+        /**
+         * Guarda los vehículos válidos del lote y escribe en el reporte todas sus filas. Si
+         * la escritura falla, las filas válidas del lote se reportan como error y la
+         * importación sigue con el siguiente lote.
+         */
+        private void guardarLote() throws IOException {
+            if (!vehiculos.isEmpty()) {
+                rechazarIdentificadoresEnConflicto();
+            }
+            if (!vehiculos.isEmpty()) {
+                List<String> insertadas = escribirLote();
+                if (insertadas != null) {
+                    identificadoresPorPlaca.registrarPlacas(insertadas);
+                    invalidarVersiones(insertadas);
+                    vehiculos.forEach(vehiculo -> indiceVehiculos.registrar(ruc, vehiculo));
+                    creados += vehiculos.size();
+                }
+            }
+            for (ResultadoImportacionVehiculoDTO resultado : resultados) {
+                escribir(resultado);
+            }
+            salida.flush();
+            resultados.clear();
+            vehiculos.clear();
+            identificadores.clear();
+        }
+
+        /**
+         * Los identificadores nuevos también cambian los vehículos de esas placas en otros
+         * concesionarios. Si no se puede, sus ETags quedan vigentes hasta su próxima escritura.
+         */
+        private void invalidarVersiones(List<String> insertadas) {
+            try {
+                almacenVehiculos.invalidarVersionesPorPlacas(insertadas);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo incrementar la versión de los concesionarios con las placas importadas: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * Inserta los identificadores nuevos y luego los vehículos. Si los vehículos no se
+         * guardan, se eliminan los identificadores recién insertados para no dejarlos sin
+         * vehículo. Devuelve las placas insertadas, o null si el lote falló.
+         */
+        private List<String> escribirLote() {
+            List<String> insertadas = List.of();
+            try {
+                insertadas = identificadorVehiculoRepository.insertarPorPlaca(identificadores);
+                almacenVehiculos.agregarLote("importarVehiculos", ruc, vehiculos);
+                return insertadas;
+            } catch (RuntimeException e) {
+                log.warn("No se pudo guardar un lote de {} vehículos en concesionario {}: {}", vehiculos.size(), ruc, e.getMessage());
+                if (!insertadas.isEmpty()) {
+                    try {
+                        identificadorVehiculoRepository.deleteByPlacaIn(insertadas);
+                    } catch (RuntimeException limpieza) {
+                        log.error("Quedaron identificadores sin vehículo para las placas {}: {}", insertadas, limpieza.getMessage());
+                    }
+                }
+                marcarLoteFallido(e);
+                return null;
+            }
+        }
+
+        /**
+         * Una placa que ya tiene identificador (de este u otro concesionario) con otro chasis
+         * o motor no se importa, porque el identificador existente no se modifica; si coincide,
+         * el vehículo se importa y el identificador no se vuelve a escribir. Una placa creada
+         * en otra instancia después de la última reconstrucción del filtro de Bloom no se
+         * detecta como conflicto, pero $setOnInsert tampoco la sobrescribe.
+         */
+        private void rechazarIdentificadoresEnConflicto() {
+            if (identificadores.isEmpty()) {
+                return;
+            }
+            // La mayoría de placas importadas son nuevas: las que el filtro de Bloom descarta no se consultan
+            Map<String, IdentificadorVehiculo> existentes = identificadoresPorPlaca.buscarNuevas(
+                identificadores.stream().map(IdentificadorVehiculo::getPlaca).toList());
+            if (existentes.isEmpty()) {
+                return;
+            }
+            Set<String> enConflicto = new HashSet<>();
+            identificadores.removeIf(identificador -> {
+                IdentificadorVehiculo existente = existentes.get(identificador.getPlaca());
+                if (existente == null) {
+                    return false;
+                }
+                if (distinto(identificador.getChasis(), existente.getChasis())
+                        || distinto(identificador.getMotor(), existente.getMotor())) {
+                    enConflicto.add(identificador.getPlaca());
+                }
+                return true;
+            });
+            vehiculos.removeIf(vehiculo -> enConflicto.contains(vehiculo.getPlaca()));
+            for (ResultadoImportacionVehiculoDTO resultado : resultados) {
+                if (ResultadoImportacionVehiculoDTO.CREADO.equals(resultado.getEstado())
+                        && enConflicto.contains(resultado.getPlaca())) {
+                    resultado.setEstado(ResultadoImportacionVehiculoDTO.ERROR);
+                    resultado.setId(null);
+                    resultado.setErrores(List.of("Ya existe un identificador con la placa " + resultado.getPlaca()
+                        + " y otro chasis o motor"));
+                    placas.remove(clavePlaca(resultado.getPlaca()));
+                    errores++;
+                }
+            }
+        }
+
+        private void marcarLoteFallido(RuntimeException e) {
+            List<String> problemas = List.of("No se pudo guardar el lote: " + e.getMessage());
+            for (ResultadoImportacionVehiculoDTO resultado : resultados) {
+                if (ResultadoImportacionVehiculoDTO.CREADO.equals(resultado.getEstado())) {
+                    resultado.setEstado(ResultadoImportacionVehiculoDTO.ERROR);
+                    resultado.setId(null);
+                    resultado.setErrores(problemas);
+                    placas.remove(clavePlaca(resultado.getPlaca()));
+                    errores++;
+                }
+            }
+        }
+
+        private void escribir(Object linea) throws IOException {
+            salida.write(objectMapper.writeValueAsBytes(linea));
+            salida.write('\n');
+        }
+    }
+
+    @FunctionalInterface
+    public interface AperturaReporte {
+        OutputStream abrir() throws IOException;
+    }
+}
@@ -0,0 +1,288 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de los nombres de vendedores para búsquedas por texto, global o por
+ * concesionario. Los nombres se normalizan una sola vez al indexar (sin tildes ni
+ * mayúsculas) y se indexan por trigramas para consultas "contiene" y por palabra para
+ * el autocompletado de consultas cortas.
+ *
+ * Los resultados se ordenan por relevancia: nombre exacto, nombre que empieza por el
+ * texto, alguna palabra que empieza por el texto y, al final, coincidencias internas.
+ * Igual que {@link IndiceVehiculos}, se reconstruye al arrancar y periódicamente, y las
+ * escrituras de esta instancia lo mantienen con {@link #registrar(String, Vendedor)}; las
+ * de otras instancias tardan hasta busqueda.vendedores.reconstruccion en verse. Por eso solo
+ * lo usa el autocompletado global: la búsqueda dentro de un concesionario lee sus vendedores
+ * de la base y los ordena con {@link #filtrar}.
+ */
+@Slf4j
+@Component
+public class IndiceNombresVendedores {
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final VendedorRepository vendedorRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Estado estado = new Estado();
+    private List<Entrada> pendientes;
+
+    public IndiceNombresVendedores(ConcesionarioRepository concesionarioRepository, VendedorRepository vendedorRepository) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.vendedorRepository = vendedorRepository;
+    }
+
+    public record Entrada(String ruc, Vendedor vendedor) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlArrancar() {
+        reconstruir();
+    }
+
+    @Scheduled(initialDelayString = "${busqueda.vendedores.reconstruccion:PT10M}",
+            fixedDelayString = "${busqueda.vendedores.reconstruccion:PT10M}")
+    public synchronized void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Estado nuevo = new Estado();
+        try {
+            Map<String, String> rucPorId = new HashMap<>();
+            try (Stream<Concesionario> concesionarios = concesionarioRepository.streamIdentificacion()) {
+                concesionarios.forEach(c -> rucPorId.put(c.getId(), c.getRuc()));
+            }
+            try (Stream<Vendedor> vendedores = vendedorRepository.streamTodos(TAMANIO_LOTE)) {
+                vendedores.forEach(vendedor -> {
+                    String ruc = rucPorId.get(vendedor.getConcesionarioId());
+                    if (ruc != null) {
+                        nuevo.registrar(new Entrada(ruc, vendedor));
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo reconstruir el índice de nombres de vendedores: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendientes.forEach(nuevo::registrar);
+            pendientes = null;
+            estado = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de nombres de vendedores reconstruido con {} vendedores", nuevo.entradas.size());
+    }
+
+    /**
+     * Inserta o reemplaza el vendedor del concesionario dado.
+     */
+    public void registrar(String ruc, Vendedor vendedor) {
+        if (vendedor == null) {
+            return;
+        }
+        Entrada entrada = new Entrada(ruc, vendedor);
+        lock.writeLock().lock();
+        try {
+            estado.registrar(entrada);
+            if (pendientes != null) {
+                pendientes.add(entrada);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca vendedores cuyo nombre contiene el texto (o, con menos de tres caracteres, con
+     * alguna palabra que empieza por él), ordenados por relevancia. Lo escrito en otras
+     * instancias aparece aquí tras la siguiente reconstrucción.
+     *
+     * @param ruc    concesionario al que se limita la búsqueda, o null para todos
+     * @param limite máximo de resultados, o null para devolverlos todos
+     */
+    public List<Entrada> buscar(String ruc, String texto, Integer limite) {
+        String consulta = NormalizadorTexto.normalizar(texto);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+        List<Indexado> candidatos;
+        lock.readLock().lock();
+        try {
+            candidatos = estado.candidatos(ruc, consulta);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ordenar(candidatos, consulta, limite).stream().map(Indexado::entrada).toList();
+    }
+
+    /**
+     * Aplica la misma coincidencia y el mismo orden de {@link #buscar} a vendedores leídos de
+     * la base, sin pasar por el índice.
+     */
+    public static List<Vendedor> filtrar(Collection<Vendedor> vendedores, String texto, Integer limite) {
+        String consulta = NormalizadorTexto.normalizar(texto);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+        List<Indexado> candidatos = new ArrayList<>(vendedores.size());
+        for (Vendedor vendedor : vendedores) {
+            candidatos.add(new Indexado(new Entrada(null, vendedor), NormalizadorTexto.normalizar(vendedor.getNombre())));
+        }
+        return ordenar(candidatos, consulta, limite).stream().map(indexado -> indexado.entrada().vendedor()).toList();
+    }
+
+    private static List<Indexado> ordenar(List<Indexado> candidatos, String consulta, Integer limite) {
+        List<Indexado> ordenados = new ArrayList<>(candidatos.size());
+        for (Indexado candidato : candidatos) {
+            if (relevancia(candidato.nombre(), consulta) < Integer.MAX_VALUE) {
+                ordenados.add(candidato);
+            }
+        }
+        ordenados.sort(Comparator.<Indexado>comparingInt(c -> relevancia(c.nombre(), consulta))
+                .thenComparingInt(c -> c.nombre().length())
+                .thenComparing(Indexado::nombre));
+        return limite == null || limite >= ordenados.size() ? ordenados : ordenados.subList(0, limite);
+    }
+
+    /**
+     * Menor es más relevante; MAX_VALUE indica que el nombre no coincide.
+     */
+    private static int relevancia(String nombre, String consulta) {
+        if (nombre.equals(consulta)) {
+            return 0;
+        }
+        if (nombre.startsWith(consulta)) {
+            return 1;
+        }
+        if (nombre.contains(" " + consulta)) {
+            return 2;
+        }
+        if (consulta.length() >= 3 && nombre.contains(consulta)) {
+            return 3;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private record Indexado(Entrada entrada, String nombre) {
+    }
+
+    /**
+     * Estado del índice; solo se accede bajo el lock de {@link IndiceNombresVendedores}.
+     */
+    private static final class Estado {
+
+        private final Map<String, Indexado> entradas = new HashMap<>();
+        private final Map<String, Set<String>> porTrigrama = new HashMap<>();
+        private final NavigableMap<String, Set<String>> porPalabra = new TreeMap<>();
+        private final Map<String, Set<String>> porRuc = new HashMap<>();
+
+        void registrar(Entrada entrada) {
+            Vendedor vendedor = entrada.vendedor();
+            String clave = entrada.ruc() + ":" + (vendedor.getId() != null ? vendedor.getId() : vendedor.getCedula());
+            Indexado anterior = entradas.remove(clave);
+            if (anterior != null) {
+                quitar(clave, anterior);
+            }
+            Indexado indexado = new Indexado(entrada, NormalizadorTexto.normalizar(vendedor.getNombre()));
+            entradas.put(clave, indexado);
+            for (String trigrama : NormalizadorTexto.trigramas(indexado.nombre())) {
+                porTrigrama.computeIfAbsent(trigrama, k -> new HashSet<>()).add(clave);
+            }
+            for (String palabra : palabras(indexado.nombre())) {
+                porPalabra.computeIfAbsent(palabra, k -> new HashSet<>()).add(clave);
+            }
+            porRuc.computeIfAbsent(entrada.ruc(), k -> new HashSet<>()).add(clave);
+        }
+
+        private void quitar(String clave, Indexado anterior) {
+            for (String trigrama : NormalizadorTexto.trigramas(anterior.nombre())) {
+                quitarDe(porTrigrama, trigrama, clave);
+            }
+            for (String palabra : palabras(anterior.nombre())) {
+                quitarDe(porPalabra, palabra, clave);
+            }
+            quitarDe(porRuc, anterior.entrada().ruc(), clave);
+        }
+
+        private void quitarDe(Map<String, Set<String>> postings, String termino, String clave) {
+            Set<String> claves = postings.get(termino);
+            if (claves != null) {
+                claves.remove(clave);
+                if (claves.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+
+        List<Indexado> candidatos(String ruc, String consulta) {
+            List<Set<String>> conjuntos = new ArrayList<>();
+            if (ruc != null) {
+                conjuntos.add(porRuc.getOrDefault(ruc, Collections.emptySet()));
+            }
+            if (consulta.length() >= 3) {
+                for (String trigrama : NormalizadorTexto.trigramas(consulta)) {
+                    conjuntos.add(porTrigrama.getOrDefault(trigrama, Collections.emptySet()));
+                }
+            } else {
+                Set<String> porPrefijo = new HashSet<>();
+                for (Set<String> claves : porPalabra.subMap(consulta, true, consulta + Character.MAX_VALUE, false).values()) {
+                    porPrefijo.addAll(claves);
+                }
+                conjuntos.add(porPrefijo);
+            }
+            conjuntos.sort(Comparator.comparingInt(Set::size));
+            List<Indexado> candidatos = new ArrayList<>();
+            for (String clave : conjuntos.get(0)) {
+                boolean enTodos = true;
+                for (int i = 1; i < conjuntos.size() && enTodos; i++) {
+                    enTodos = conjuntos.get(i).contains(clave);
+                }
+                if (enTodos) {
+                    candidatos.add(entradas.get(clave));
+                }
+            }
+            return candidatos;
+        }
+
+        private static String[] palabras(String nombre) {
+            return nombre.isEmpty() ? new String[0] : nombre.split(" ");
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria del inventario de vehículos de todos los concesionarios para la
+ * búsqueda facetada. Cada vehículo ocupa una posición fija y cada valor de atributo
+ * (ordinal del enum, marca, modelo, RUC) tiene un BitSet con las posiciones que lo
+ * cumplen, de modo que un filtro de varias facetas es una intersección de bits.
+ *
+ * Se construye al arrancar y se reconstruye periódicamente desde Mongo para recoger
+ * cambios hechos por otras instancias; las escrituras de esta instancia lo actualizan
+ * de forma incremental con {@link #registrar(String, Vehiculo)}.
+ */
+@Slf4j
+@Component
+public class IndiceVehiculos {
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final AlmacenVehiculos almacenVehiculos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Estado estado = new Estado();
+    // Escrituras recibidas mientras se reconstruye; se aplican sobre el índice nuevo
+    private List<Entrada> pendientes;
+
+    public IndiceVehiculos(AlmacenVehiculos almacenVehiculos) {
+        this.almacenVehiculos = almacenVehiculos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlArrancar() {
+        reconstruir();
+    }
+
+    @Scheduled(initialDelayString = "${busqueda.vehiculos.reconstruccion:PT10M}",
+            fixedDelayString = "${busqueda.vehiculos.reconstruccion:PT10M}")
+    public synchronized void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Estado nuevo = new Estado();
+        try (Stream<Entrada> inventario = almacenVehiculos.recorrerConRuc(TAMANIO_LOTE)) {
+            inventario.forEach(nuevo::registrar);
+        } catch (Exception e) {
+            log.warn("No se pudo reconstruir el índice de búsqueda de vehículos: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendientes.forEach(nuevo::registrar);
+            pendientes = null;
+            estado = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de vehículos reconstruido con {} vehículos", nuevo.vivos.cardinality());
+    }
+
+    /**
+     * Inserta o reemplaza el vehículo del concesionario dado.
+     */
+    public void registrar(String ruc, Vehiculo vehiculo) {
+        if (vehiculo == null) {
+            return;
+        }
+        Entrada entrada = new Entrada(ruc, vehiculo);
+        lock.writeLock().lock();
+        try {
+            estado.registrar(entrada);
+            if (pendientes != null) {
+                pendientes.add(entrada);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda: total, página de vehículos en orden de inserción y conteos
+     * por faceta calculados sobre todo el resultado.
+     */
+    public record Resultado(int total, List<Entrada> pagina, Map<String, Map<String, Integer>> facetas) {
+    }
+
+    public record Entrada(String ruc, Vehiculo vehiculo) {
+    }
+
+    public Resultado buscar(FiltroVehiculos filtro, int desplazamiento, int limite) {
+        lock.readLock().lock();
+        try {
+            BitSet resultado = estado.filtrar(filtro);
+            List<Entrada> pagina = new ArrayList<>(Math.min(limite, resultado.cardinality()));
+            int saltados = 0;
+            for (int i = resultado.nextSetBit(0); i >= 0 && pagina.size() < limite; i = resultado.nextSetBit(i + 1)) {
+                if (saltados++ >= desplazamiento) {
+                    pagina.add(estado.entradas.get(i));
+                }
+            }
+            return new Resultado(resultado.cardinality(), pagina, estado.facetas(resultado));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String clave(String ruc, Vehiculo vehiculo) {
+        return ruc + ":" + (vehiculo.getId() != null ? vehiculo.getId() : vehiculo.getPlaca());
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null ? null : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer anio(Vehiculo vehiculo) {
+        try {
+            return vehiculo.getAnio() == null ? null : Integer.valueOf(vehiculo.getAnio().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Estado del índice; solo se accede bajo el lock de {@link IndiceVehiculos}.
+     */
+    private static final class Estado {
+
+        private final List<Entrada> entradas = new ArrayList<>();
+        private final Map<String, Integer> posiciones = new HashMap<>();
+        private final BitSet vivos = new BitSet();
+
+        private final Map<TipoVehiculoEnum, BitSet> porTipo = new EnumMap<>(TipoVehiculoEnum.class);
+        private final Map<CombustibleVehiculoEnum, BitSet> porCombustible = new EnumMap<>(CombustibleVehiculoEnum.class);
+        private final Map<CondicionVehiculoEnum, BitSet> porCondicion = new EnumMap<>(CondicionVehiculoEnum.class);
+        private final Map<EstadoVehiculoEnum, BitSet> porEstado = new EnumMap<>(EstadoVehiculoEnum.class);
+        private final Map<String, BitSet> porMarca = new HashMap<>();
+        private final Map<String, BitSet> porModelo = new HashMap<>();
+        private final Map<String, BitSet> porRuc = new HashMap<>();
+
+        void registrar(Entrada entrada) {
+            String clave = clave(entrada.ruc(), entrada.vehiculo());
+            Integer posicion = posiciones.get(clave);
+            if (posicion != null) {
+                quitar(posicion, entradas.get(posicion));
+            } else {
+                posicion = entradas.size();
+                entradas.add(null);
+            }
+            posiciones.put(clave, posicion);
+            entradas.set(posicion, entrada);
+            vivos.set(posicion);
+            Vehiculo vehiculo = entrada.vehiculo();
+            marcar(porTipo, vehiculo.getTipo(), posicion, true);
+            marcar(porCombustible, vehiculo.getCombustible(), posicion, true);
+            marcar(porCondicion, vehiculo.getCondicion(), posicion, true);
+            marcar(porEstado, vehiculo.getEstado(), posicion, true);
+            marcar(porMarca, normalizar(vehiculo.getMarca()), posicion, true);
+            marcar(porModelo, normalizar(vehiculo.getModelo()), posicion, true);
+            marcar(porRuc, entrada.ruc(), posicion, true);
+        }
+
+        private void quitar(int posicion, Entrada anterior) {
+            Vehiculo vehiculo = anterior.vehiculo();
+            marcar(porTipo, vehiculo.getTipo(), posicion, false);
+            marcar(porCombustible, vehiculo.getCombustible(), posicion, false);
+            marcar(porCondicion, vehiculo.getCondicion(), posicion, false);
+            marcar(porEstado, vehiculo.getEstado(), posicion, false);
+            marcar(porMarca, normalizar(vehiculo.getMarca()), posicion, false);
+            marcar(porModelo, normalizar(vehiculo.getModelo()), posicion, false);
+            marcar(porRuc, anterior.ruc(), posicion, false);
+        }
+
+        private <K> void marcar(Map<K, BitSet> bitmaps, K valor, int posicion, boolean activo) {
+            if (valor == null) {
+                return;
+            }
+            if (activo) {
+                bitmaps.computeIfAbsent(valor, k -> new BitSet()).set(posicion);
+                return;
+            }
+            BitSet bits = bitmaps.get(valor);
+            if (bits != null) {
+                bits.clear(posicion);
+                if (bits.isEmpty()) {
+                    bitmaps.remove(valor);
+                }
+            }
+        }
+
+        BitSet filtrar(FiltroVehiculos filtro) {
+            BitSet resultado = (BitSet) vivos.clone();
+            intersectar(resultado, porRuc, filtro.concesionarioRuc());
+            intersectar(resultado, porMarca, normalizar(filtro.marca()));
+            intersectar(resultado, porModelo, normalizar(filtro.modelo()));
+            intersectar(resultado, porTipo, filtro.tipo());
+            intersectar(resultado, porCombustible, filtro.combustible());
+            intersectar(resultado, porCondicion, filtro.condicion());
+            intersectar(resultado, porEstado, filtro.estado());
+            if (filtro.valorMin() != null || filtro.valorMax() != null
+                    || filtro.anioMin() != null || filtro.anioMax() != null) {
+                for (int i = resultado.nextSetBit(0); i >= 0; i = resultado.nextSetBit(i + 1)) {
+                    if (!enRangos(entradas.get(i).vehiculo(), filtro)) {
+                        resultado.clear(i);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        private <K> void intersectar(BitSet resultado, Map<K, BitSet> bitmaps, K valor) {
+            if (valor == null) {
+                return;
+            }
+            BitSet bits = bitmaps.get(valor);
+            if (bits == null) {
+                resultado.clear();
+            } else {
+                resultado.and(bits);
+            }
+        }
+
+        private boolean enRangos(Vehiculo vehiculo, FiltroVehiculos filtro) {
+            BigDecimal valor = vehiculo.getValor();
+            if (filtro.valorMin() != null && (valor == null || valor.compareTo(filtro.valorMin()) < 0)) {
+                return false;
+            }
+            if (filtro.valorMax() != null && (valor == null || valor.compareTo(filtro.valorMax()) > 0)) {
+                return false;
+            }
+            if (filtro.anioMin() == null && filtro.anioMax() == null) {
+                return true;
+            }
+            Integer anio = anio(vehiculo);
+            if (anio == null) {
+                return false;
+            }
+            return (filtro.anioMin() == null || anio >= filtro.anioMin())
+                    && (filtro.anioMax() == null || anio <= filtro.anioMax());
+        }
+
+        Map<String, Map<String, Integer>> facetas(BitSet resultado) {
+            Map<String, Map<String, Integer>> facetas = new LinkedHashMap<>();
+            facetas.put("tipo", contar(resultado, porTipo, TipoVehiculoEnum.values()));
+            facetas.put("combustible", contar(resultado, porCombustible, CombustibleVehiculoEnum.values()));
+            facetas.put("condicion", contar(resultado, porCondicion, CondicionVehiculoEnum.values()));
+            facetas.put("estado", contar(resultado, porEstado, EstadoVehiculoEnum.values()));
+            return facetas;
+        }
+
+        private <E extends Enum<E>> Map<String, Integer> contar(BitSet resultado, Map<E, BitSet> bitmaps, E[] valores) {
+            Map<String, Integer> conteos = new LinkedHashMap<>();
+            BitSet interseccion = new BitSet();
+            for (E valor : valores) {
+                BitSet bits = bitmaps.get(valor);
+                int cantidad = 0;
+                if (bits != null) {
+                    interseccion.clear();
+                    interseccion.or(bits);
+                    interseccion.and(resultado);
+                    cantidad = interseccion.cardinality();
+                }
+                conteos.put(valor.name(), cantidad);
+            }
+            return conteos;
+        }
+    }
+}
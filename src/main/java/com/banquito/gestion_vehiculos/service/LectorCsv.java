@@ -0,0 +1,79 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) de un registro a la vez: campos entre comillas con comas, saltos
+ * de línea y comillas dobles escapadas; acepta CRLF o LF como fin de registro.
+ */
+final class LectorCsv {
+
+    private final Reader entrada;
+    private int siguiente = -2;
+
+    LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * @return los campos del siguiente registro, o null al final de la entrada
+     */
+    List<String> leer() throws IOException {
+        int c = leerCaracter();
+        if (c < 0) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c < 0) {
+                    throw new IOException("Comillas sin cerrar al final del archivo");
+                }
+                if (c == '"') {
+                    int proximo = leerCaracter();
+                    if (proximo == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = proximo;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '\r') {
+                int proximo = leerCaracter();
+                if (proximo != '\n') {
+                    siguiente = proximo;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = leerCaracter();
+        }
+    }
+
+    private int leerCaracter() throws IOException {
+        if (siguiente != -2) {
+            int c = siguiente;
+            siguiente = -2;
+            return c;
+        }
+        return entrada.read();
+    }
+}
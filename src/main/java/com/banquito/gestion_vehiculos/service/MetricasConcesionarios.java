@@ -0,0 +1,56 @@
+package com.banquito.gestion_vehiculos.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.TamanioEmbebidos;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tamaño promedio de los arreglos embebidos (vehículos y vendedores) por documento de
+ * concesionario. Se calcula con una agregación periódica y los gauges leen el último
+ * valor, para no consultar Mongo en cada lectura de métricas.
+ */
+@Slf4j
+@Component
+public class MetricasConcesionarios {
+
+    private final ConcesionarioRepository concesionarioRepository;
+
+    private volatile TamanioEmbebidos ultimo = new TamanioEmbebidos(0, 0, 0);
+
+    public MetricasConcesionarios(ConcesionarioRepository concesionarioRepository, MeterRegistry meterRegistry) {
+        this.concesionarioRepository = concesionarioRepository;
+        Gauge.builder("concesionarios.vehiculos.promedio", this, m -> m.ultimo.vehiculosPromedio())
+                .description("Vehículos embebidos promedio por concesionario")
+                .register(meterRegistry);
+        Gauge.builder("concesionarios.vendedores.promedio", this, m -> m.ultimo.vendedoresPromedio())
+                .description("Vendedores embebidos promedio por concesionario")
+                .register(meterRegistry);
+        Gauge.builder("concesionarios.documentos", this, m -> m.ultimo.concesionarios())
+                .description("Concesionarios sobre los que se calcularon los promedios")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calcularAlArrancar() {
+        actualizar();
+    }
+
+    @Scheduled(initialDelayString = "${metricas.concesionarios.actualizacion:PT5M}",
+            fixedDelayString = "${metricas.concesionarios.actualizacion:PT5M}")
+    public void actualizar() {
+        try {
+            ultimo = concesionarioRepository.promediarEmbebidos();
+        } catch (Exception e) {
+            log.warn("No se pudieron calcular los promedios de elementos embebidos: {}", e.getMessage());
+        }
+    }
+}
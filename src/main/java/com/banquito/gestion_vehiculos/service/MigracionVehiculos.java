@@ -0,0 +1,156 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migración en línea de los vehículos embebidos en concesionarios a la colección vehiculos.
+ * Corre en segundo plano mientras el servicio atiende: copia cada concesionario en lotes
+ * con una pausa entre ellos, comprueba que todos sus vehículos quedaron en la colección y
+ * lo marca con vehiculosMigrados, de modo que si se interrumpe continúa donde quedó. La
+ * copia usa $setOnInsert, así que nunca pisa lo que ya escribió la doble escritura.
+ *
+ * El corte se hace en dos fases con {@code vehiculos.migracion.fase}:
+ * <ul>
+ * <li>DOBLE_ESCRITURA: las escrituras van al arreglo embebido y a la colección. Las lecturas
+ * pasan a la colección cuando no quedan concesionarios por migrar y los totales de ambos
+ * lados coinciden; hasta entonces, y para volver atrás, el arreglo sigue completo.</li>
+ * <li>COLECCION: la colección es la única fuente y la migración elimina los arreglos
+ * embebidos de los concesionarios ya copiados.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MigracionVehiculos {
+
+    public enum Fase {
+        DOBLE_ESCRITURA,
+        COLECCION
+    }
+
+    private final ConcesionarioRepository concesionarioRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final Fase fase;
+    private final int tamanioLote;
+    private final Duration pausa;
+
+    private volatile boolean verificada;
+
+    public MigracionVehiculos(
+            ConcesionarioRepository concesionarioRepository,
+            VehiculoRepository vehiculoRepository,
+            @Value("${vehiculos.migracion.fase:DOBLE_ESCRITURA}") Fase fase,
+            @Value("${vehiculos.migracion.tamanio-lote:500}") int tamanioLote,
+            @Value("${vehiculos.migracion.pausa:PT0.1S}") Duration pausa) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.vehiculoRepository = vehiculoRepository;
+        this.fase = fase;
+        this.tamanioLote = tamanioLote;
+        this.pausa = pausa;
+    }
+
+    /**
+     * Si las escrituras de vehículos deben aplicarse también en el arreglo embebido.
+     */
+    public boolean escribirEmbebidos() {
+        return fase == Fase.DOBLE_ESCRITURA;
+    }
+
+    /**
+     * Si los vehículos se leen de la colección: siempre en la fase COLECCION, y en la doble
+     * escritura una vez verificada la migración en esta instancia.
+     */
+    public boolean leerDeColeccion() {
+        return fase == Fase.COLECCION || verificada;
+    }
+
+    @Scheduled(initialDelayString = "${vehiculos.migracion.espera-inicial:PT15S}",
+            fixedDelayString = "${vehiculos.migracion.intervalo:PT5M}")
+    public synchronized void migrar() {
+        if (verificada) {
+            // Verificada, las dos copias se mantienen por la doble escritura
+            return;
+        }
+        int concesionarios = 0;
+        int vehiculos = 0;
+        int incompletos = 0;
+        boolean quitarArreglo = fase == Fase.COLECCION;
+        try (Stream<Concesionario> pendientes = concesionarioRepository.streamPendientesMigracionVehiculos(quitarArreglo, tamanioLote)) {
+            Iterator<Concesionario> iterador = pendientes.iterator();
+            while (iterador.hasNext()) {
+                Concesionario concesionario = iterador.next();
+                List<Vehiculo> embebidos = concesionario.getVehiculos() != null ? concesionario.getVehiculos() : List.of();
+                for (int desde = 0; desde < embebidos.size(); desde += tamanioLote) {
+                    vehiculoRepository.insertarSiNoExisten(concesionario.getId(),
+                            embebidos.subList(desde, Math.min(desde + tamanioLote, embebidos.size())));
+                    esperar();
+                }
+                if (vehiculoRepository.countByIdIn(embebidos.stream().map(Vehiculo::getId).toList()) < embebidos.size()) {
+                    log.warn("Concesionario {}: no todos sus {} vehículos están en la colección, se reintentará",
+                            concesionario.getId(), embebidos.size());
+                    incompletos++;
+                    continue;
+                }
+                concesionarioRepository.marcarVehiculosMigrados(concesionario.getId(), quitarArreglo);
+                concesionarios++;
+                vehiculos += embebidos.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Migración de vehículos interrumpida tras {} concesionarios", concesionarios);
+            return;
+        } catch (Exception e) {
+            log.warn("Migración de vehículos detenida tras {} concesionarios: {}", concesionarios, e.getMessage());
+            return;
+        }
+        if (concesionarios > 0) {
+            log.info("Migrados {} vehículos de {} concesionarios a la colección", vehiculos, concesionarios);
+        }
+        if (incompletos > 0) {
+            return;
+        }
+        if (fase == Fase.DOBLE_ESCRITURA) {
+            verificar();
+        } else {
+            // Ya no quedan arreglos embebidos: no hace falta volver a recorrer los concesionarios
+            verificada = true;
+        }
+    }
+
+    /**
+     * Habilita las lecturas desde la colección si no queda nada por migrar y los totales
+     * coinciden. Una escritura concurrente entre ambos conteos solo aplaza la verificación
+     * al siguiente ciclo.
+     */
+    private void verificar() {
+        long pendientes = concesionarioRepository.countPendientesMigracionVehiculos();
+        long embebidos = concesionarioRepository.countVehiculos();
+        long enColeccion = vehiculoRepository.count();
+        if (pendientes == 0 && embebidos == enColeccion) {
+            verificada = true;
+            log.info("Migración de vehículos verificada: {} vehículos, lecturas desde la colección", enColeccion);
+        } else {
+            log.warn("Migración de vehículos sin verificar: {} concesionarios pendientes, {} vehículos embebidos y {} en la colección",
+                    pendientes, embebidos, enColeccion);
+        }
+    }
+
+    private void esperar() throws InterruptedException {
+        if (!pausa.isZero()) {
+            Thread.sleep(pausa.toMillis());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas: minúsculas, sin tildes ni diéresis y con los
+ * espacios colapsados, de modo que "José  Núñez" y "jose nunez" se comparen iguales.
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private NormalizadorTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinMarcas.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Palabras alfanuméricas del texto ya normalizado; la puntuación actúa como separador.
+     */
+    public static List<String> palabras(String normalizado) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(normalizado)) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Términos que se almacenan para la búsqueda indexada de un nombre: los prefijos de una y
+     * dos letras de cada palabra (autocompletado) y sus trigramas (búsqueda "contiene"),
+     * separados por espacios para un índice de texto sin idioma.
+     */
+    public static String ngramas(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String palabra : palabras(normalizar(texto))) {
+            terminos.add(palabra.substring(0, 1));
+            if (palabra.length() >= 2) {
+                terminos.add(palabra.substring(0, 2));
+            }
+            terminos.addAll(trigramas(palabra));
+        }
+        return String.join(" ", terminos);
+    }
+
+    /**
+     * Términos de una consulta sobre {@link #ngramas(String)}: las palabras de menos de tres
+     * letras se buscan como prefijo y las demás por sus trigramas.
+     */
+    public static Set<String> terminosConsulta(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String palabra : palabras(normalizar(texto))) {
+            if (palabra.length() < 3) {
+                terminos.add(palabra);
+            } else {
+                terminos.addAll(trigramas(palabra));
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Trigramas del texto ya normalizado; vacío si tiene menos de tres caracteres.
+     */
+    public static Set<String> trigramas(String normalizado) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= normalizado.length(); i++) {
+            trigramas.add(normalizado.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+}
@@ -0,0 +1,60 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.gestion_vehiculos.dto.ResultadoValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.dto.ValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.exception.SolicitudInvalidaException;
+import com.banquito.gestion_vehiculos.validation.CedulaEcuatorianaValidator;
+import com.banquito.gestion_vehiculos.validation.RucEcuatorianoValidator;
+
+/**
+ * Validación en lote de cédulas y RUC para la carga de vendedores y concesionarios desde
+ * sistemas externos, con las mismas reglas que las anotaciones de los DTO.
+ */
+@Service
+public class ValidacionIdentificacionesService {
+
+    private final int maximoPorSolicitud;
+
+    public ValidacionIdentificacionesService(
+            @Value("${validacion.identificaciones.maximo-por-solicitud:10000}") int maximoPorSolicitud) {
+        this.maximoPorSolicitud = maximoPorSolicitud;
+    }
+
+    public ResultadoValidacionIdentificacionesDTO validar(ValidacionIdentificacionesDTO solicitud) {
+        List<String> cedulas = solicitud.getCedulas() == null ? List.of() : solicitud.getCedulas();
+        List<String> rucs = solicitud.getRucs() == null ? List.of() : solicitud.getRucs();
+        if (cedulas.size() + rucs.size() > maximoPorSolicitud) {
+            throw new SolicitudInvalidaException("Se admiten como máximo " + maximoPorSolicitud
+                    + " identificaciones por solicitud");
+        }
+        boolean[] cedulasValidas = validar(cedulas, CedulaEcuatorianaValidator::esValida);
+        boolean[] rucsValidos = validar(rucs, RucEcuatorianoValidator::esValido);
+        return new ResultadoValidacionIdentificacionesDTO(cedulasValidas, rucsValidos,
+                invalidas(cedulasValidas), invalidas(rucsValidos));
+    }
+
+    private static boolean[] validar(List<String> valores, Predicate<String> regla) {
+        boolean[] resultado = new boolean[valores.size()];
+        int i = 0;
+        for (String valor : valores) {
+            resultado[i++] = regla.test(valor);
+        }
+        return resultado;
+    }
+
+    private static int invalidas(boolean[] resultado) {
+        int invalidas = 0;
+        for (boolean valida : resultado) {
+            if (!valida) {
+                invalidas++;
+            }
+        }
+        return invalidas;
+    }
+}
@@ -0,0 +1,65 @@
+package com.banquito.gestion_vehiculos.service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gestion_vehiculos.config.VerificacionPasswordConfig;
+import com.banquito.gestion_vehiculos.exception.ServicioSaturadoException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Verifica contraseñas en el pool acotado de BCrypt y mide el tiempo de cada hash.
+ */
+@Component
+public class VerificadorPassword {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer tiempoHash;
+    private final long timeoutMs;
+
+    public VerificadorPassword(
+            PasswordEncoder passwordEncoder,
+            @Qualifier(VerificacionPasswordConfig.EXECUTOR) ThreadPoolExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${seguridad.bcrypt.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.tiempoHash = Timer.builder("auth.bcrypt.tiempo")
+                .description("Tiempo de verificación de contraseñas con BCrypt")
+                .register(meterRegistry);
+    }
+
+    public boolean coincide(String password, String hash) {
+        Future<Boolean> resultado;
+        try {
+            resultado = executor.submit(() -> tiempoHash.recordCallable(() -> passwordEncoder.matches(password, hash)));
+        } catch (RejectedExecutionException e) {
+            throw new ServicioSaturadoException("Demasiadas solicitudes de inicio de sesión, intente nuevamente");
+        }
+        try {
+            return resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw new ServicioSaturadoException("La verificación de la contraseña excedió el tiempo permitido");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.cancel(true);
+            throw new ServicioSaturadoException("La verificación de la contraseña fue interrumpida");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al verificar la contraseña", e.getCause());
+        }
+    }
+}
@@ -7,28 +7,45 @@ public class CedulaEcuatorianaValidator implements ConstraintValidator<CedulaEcu
 
     @Override
     public boolean isValid(String cedula, ConstraintValidatorContext context) {
-        if (cedula == null || cedula.length() != 10) return false;
-        try {
-            int provincia = Integer.parseInt(cedula.substring(0, 2));
-            int tercerDigito = Integer.parseInt(cedula.substring(2, 3));
-            if (provincia < 1 || provincia > 24 || tercerDigito >= 6) return false;
+        return esValida(cedula);
+    }
+
+    /**
+     * Provincia 01-24, tercer dígito menor que 6 y dígito verificador módulo 10 con
+     * coeficientes 2,1,2,1... sobre los nueve primeros dígitos.
+     */
+    public static boolean esValida(String cedula) {
+        return cedula != null && cedula.length() == 10 && esValida(cedula, 0);
+    }
 
-            int suma = 0;
-            for (int i = 0; i < 9; i++) {
-                int valor = Integer.parseInt(cedula.substring(i, i + 1));
-                if (i % 2 == 0) {
-                    valor *= 2;
-                    if (valor > 9) valor -= 9;
-                }
-                suma += valor;
+    /**
+     * Valida los diez caracteres desde inicio sin crear subcadenas. Igual que con
+     * Integer.parseInt, se acepta cualquier dígito decimal Unicode (Character.digit).
+     */
+    static boolean esValida(String valor, int inicio) {
+        int provincia = digito(valor.charAt(inicio)) * 10 + digito(valor.charAt(inicio + 1));
+        int tercerDigito = digito(valor.charAt(inicio + 2));
+        if (provincia < 1 || provincia > 24 || tercerDigito < 0 || tercerDigito >= 6) return false;
+
+        int suma = 0;
+        for (int i = 0; i < 9; i++) {
+            int valorDigito = digito(valor.charAt(inicio + i));
+            if (valorDigito < 0) return false;
+            if (i % 2 == 0) {
+                valorDigito *= 2;
+                if (valorDigito > 9) valorDigito -= 9;
             }
-            int digitoVerificador = Integer.parseInt(cedula.substring(9, 10));
-            int decenaSuperior = ((suma + 9) / 10) * 10;
-            int resultado = decenaSuperior - suma;
-            if (resultado == 10) resultado = 0;
-            return resultado == digitoVerificador;
-        } catch (NumberFormatException e) {
-            return false;
+            suma += valorDigito;
         }
+        int digitoVerificador = digito(valor.charAt(inicio + 9));
+        if (digitoVerificador < 0) return false;
+        int resultado = (10 - suma % 10) % 10;
+        return resultado == digitoVerificador;
+    }
+
+    // Valor del dígito o -1; los ASCII se resuelven sin consultar las tablas Unicode
+    private static int digito(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        return c < 128 ? -1 : Character.digit(c, 10);
     }
-} 
\ No newline at end of file
+}
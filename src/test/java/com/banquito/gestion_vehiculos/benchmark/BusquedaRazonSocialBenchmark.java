@@ -0,0 +1,106 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepositoryCustomImpl;
+import com.banquito.gestion_vehiculos.service.NormalizadorTexto;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Compara la búsqueda por razón social con $regex sin anclar (la de
+ * findCabecerasByRazonSocialContiene) contra la búsqueda indexada por n-gramas, ambas
+ * con el mismo límite de resultados.
+ *
+ * No se ejecuta con los tests: necesita un Mongo desechable. Uso:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.banquito.gestion_vehiculos.benchmark.BusquedaRazonSocialBenchmark \
+ *   -Dbenchmark.mongo.uri=mongodb://localhost:27017 -Dbenchmark.concesionarios=100000
+ * </pre>
+ * Borra y vuelve a poblar la colección concesionarios de la base benchmark.mongo.base.
+ */
+public class BusquedaRazonSocialBenchmark {
+
+    private static final String[] PREFIJOS = { "Auto", "Motor", "Car", "Vehi", "Rueda", "Andes", "Pacífico", "Quito", "Guayas", "Sierra" };
+    private static final String[] SUFIJOS = { "Max", "Plus", "Center", "Express", "Norte", "Sur", "Ecuador", "Premium", "Global", "Andina" };
+    private static final String[] CONSULTAS = { "automax", "express", "pacifico", "nor", "sierra premium", "au" };
+    private static final int REPETICIONES = 50;
+    private static final int LIMITE = 20;
+
+    public static void main(String[] args) {
+        String uri = System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017");
+        String base = System.getProperty("benchmark.mongo.base", "gestion_vehiculos_benchmark");
+        int cantidad = Integer.getInteger("benchmark.concesionarios", 100_000);
+        try (MongoClient cliente = MongoClients.create(uri)) {
+            MongoTemplate mongoTemplate = new MongoTemplate(cliente, base);
+            poblar(mongoTemplate, cantidad);
+            ConcesionarioRepositoryCustomImpl repositorio = new ConcesionarioRepositoryCustomImpl(mongoTemplate);
+            System.out.printf("%-16s %14s %14s%n", "consulta", "regex (ms)", "indexada (ms)");
+            for (String consulta : CONSULTAS) {
+                double regex = medir(() -> mongoTemplate.find(new Query(
+                        Criteria.where("razonSocial").regex(Pattern.quote(consulta), "i")).limit(LIMITE), Concesionario.class));
+                Set<String> terminos = NormalizadorTexto.terminosConsulta(consulta);
+                String contiene = consulta.length() >= 3 ? NormalizadorTexto.normalizar(consulta) : null;
+                double indexada = medir(() -> repositorio.buscarPorRazonSocial(terminos, contiene, LIMITE));
+                System.out.printf("%-16s %14.2f %14.2f%n", consulta, regex, indexada);
+            }
+        }
+    }
+
+    private static void poblar(MongoTemplate mongoTemplate, int cantidad) {
+        mongoTemplate.dropCollection(Concesionario.class);
+        mongoTemplate.indexOps(Concesionario.class).ensureIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named("idxConcesionario_razonSocialNgramas")
+                .onField("razonSocialNgramas")
+                .withDefaultLanguage("none")
+                .build());
+        Random aleatorio = new Random(42);
+        List<Concesionario> lote = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            String razonSocial = PREFIJOS[aleatorio.nextInt(PREFIJOS.length)]
+                    + SUFIJOS[aleatorio.nextInt(SUFIJOS.length)] + " " + i + " S.A.";
+            Concesionario concesionario = new Concesionario();
+            concesionario.setRuc(String.format("%013d", i));
+            concesionario.setRazonSocial(razonSocial);
+            concesionario.setRazonSocialNormalizada(NormalizadorTexto.normalizar(razonSocial));
+            concesionario.setRazonSocialNgramas(NormalizadorTexto.ngramas(razonSocial));
+            concesionario.setEstado(EstadoConcesionarioEnum.ACTIVO);
+            concesionario.setVersion(0L);
+            lote.add(concesionario);
+            if (lote.size() == 1_000) {
+                mongoTemplate.insertAll(lote);
+                lote.clear();
+            }
+        }
+        mongoTemplate.insertAll(lote);
+    }
+
+    /**
+     * Promedio en milisegundos tras descartar unas ejecuciones de calentamiento.
+     */
+    private static double medir(Runnable consulta) {
+        for (int i = 0; i < 5; i++) {
+            consulta.run();
+        }
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            consulta.run();
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        return Arrays.stream(tiempos).average().orElse(0) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,169 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import com.banquito.gestion_vehiculos.config.MongoIndexConfig;
+import com.banquito.gestion_vehiculos.dto.VendedorDTO;
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum;
+import com.banquito.gestion_vehiculos.mapper.ConcesionarioMapper;
+import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepositoryCustomImpl;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepositoryCustomImpl;
+import com.banquito.gestion_vehiculos.service.BackfillVendedores;
+import com.banquito.gestion_vehiculos.service.ConcesionarioPorRucService;
+import com.banquito.gestion_vehiculos.service.ConcesionarioService;
+import com.banquito.gestion_vehiculos.service.ConcurrenciaOptimista;
+import com.banquito.gestion_vehiculos.service.IndiceNombresVendedores;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Mide la latencia de createVendedorInConcesionario con 10, 100, 1.000 y 10.000
+ * concesionarios: con la unicidad de cédula y email resuelta por los índices únicos de la
+ * colección vendedores, cada alta es una lectura de cabecera, un incremento de versión y una
+ * inserción, y su costo no debe crecer con la cantidad de concesionarios.
+ *
+ * No se ejecuta con los tests: necesita un Mongo desechable. Uso:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.banquito.gestion_vehiculos.benchmark.CreacionVendedorBenchmark \
+ *   -Dbenchmark.mongo.uri=mongodb://localhost:27017 -Dbenchmark.vendedoresPorConcesionario=5
+ * </pre>
+ * Borra y vuelve a poblar las colecciones concesionarios y vendedores de la base
+ * benchmark.mongo.base en cada tamaño.
+ */
+public class CreacionVendedorBenchmark {
+
+    private static final int[] CONCESIONARIOS = { 10, 100, 1_000, 10_000 };
+    private static final int REPETICIONES = 500;
+
+    public static void main(String[] args) {
+        String uri = System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017");
+        String base = System.getProperty("benchmark.mongo.base", "gestion_vehiculos_benchmark");
+        int vendedoresPorConcesionario = Integer.getInteger("benchmark.vendedoresPorConcesionario", 5);
+        try (MongoClient cliente = MongoClients.create(uri)) {
+            MongoTemplate mongoTemplate = new MongoTemplate(cliente, base);
+            System.out.printf("%-16s %14s %14s%n", "concesionarios", "media (ms)", "p95 (ms)");
+            for (int cantidad : CONCESIONARIOS) {
+                poblar(mongoTemplate, cantidad, vendedoresPorConcesionario);
+                ConcesionarioService servicio = servicio(mongoTemplate);
+                Random aleatorio = new Random(42);
+                long[] tiempos = medir(i -> servicio.createVendedorInConcesionario(
+                        ruc(aleatorio.nextInt(cantidad)), vendedor("nuevo-" + cantidad + "-" + i)));
+                System.out.printf("%-16d %14.3f %14.3f%n", cantidad,
+                        Arrays.stream(tiempos).average().orElse(0) / 1_000_000.0,
+                        tiempos[(int) (tiempos.length * 0.95)] / 1_000_000.0);
+            }
+        }
+    }
+
+    /**
+     * Servicio armado con los repositorios reales sobre el MongoTemplate, sin los proxies de
+     * Spring: sin caché de concesionarios por RUC, cada alta lee la cabecera de la base.
+     */
+    private static ConcesionarioService servicio(MongoTemplate mongoTemplate) {
+        MongoRepositoryFactory fabrica = new MongoRepositoryFactory(mongoTemplate);
+        ConcesionarioRepository concesionarioRepository = fabrica.getRepository(ConcesionarioRepository.class,
+                RepositoryFragments.just(new ConcesionarioRepositoryCustomImpl(mongoTemplate)));
+        VendedorRepository vendedorRepository = fabrica.getRepository(VendedorRepository.class,
+                RepositoryFragments.just(new VendedorRepositoryCustomImpl(mongoTemplate)));
+        ConcesionarioPorRucService porRuc = new ConcesionarioPorRucService(concesionarioRepository,
+                new ConcurrentMapCacheManager());
+        IndiceNombresVendedores indiceNombres = new IndiceNombresVendedores(concesionarioRepository, vendedorRepository);
+        return new ConcesionarioService(concesionarioRepository, porRuc, new ConcesionarioMapper(), null,
+                new VendedorMapper(),
+                new ConcurrenciaOptimista(concesionarioRepository, porRuc, new SimpleMeterRegistry(), 5, 10),
+                null, indiceNombres, null, vendedorRepository,
+                new BackfillVendedores(concesionarioRepository, vendedorRepository, porRuc, indiceNombres,
+                        new SimpleMeterRegistry()));
+    }
+
+    private static void poblar(MongoTemplate mongoTemplate, int cantidad, int vendedoresPorConcesionario) {
+        mongoTemplate.dropCollection(Concesionario.class);
+        mongoTemplate.dropCollection(Vendedor.class);
+        MongoIndexConfig indices = new MongoIndexConfig(mongoTemplate);
+        indices.asegurarIndicesUnicos();
+        indices.asegurarIndices();
+        List<Concesionario> concesionarios = new ArrayList<>();
+        List<Vendedor> vendedores = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Concesionario concesionario = new Concesionario();
+            concesionario.setId("c-" + i);
+            concesionario.setRuc(ruc(i));
+            concesionario.setRazonSocial("Concesionario " + i + " S.A.");
+            concesionario.setEstado(EstadoConcesionarioEnum.ACTIVO);
+            concesionario.setVendedoresMigrados(true);
+            concesionario.setVersion(0L);
+            concesionarios.add(concesionario);
+            for (int j = 0; j < vendedoresPorConcesionario; j++) {
+                Vendedor vendedor = new Vendedor();
+                vendedor.setId("v-" + i + "-" + j);
+                vendedor.setConcesionarioId(concesionario.getId());
+                vendedor.setNombre("Vendedor " + i + " " + j);
+                vendedor.setCedula(i + "-" + j);
+                vendedor.setEmail("vendedor" + i + "." + j + "@benchmark.ec");
+                vendedor.setEstado(EstadoVendedorEnum.ACTIVO);
+                vendedor.setVersion(0L);
+                vendedores.add(vendedor);
+            }
+            if (concesionarios.size() == 1_000) {
+                insertar(mongoTemplate, concesionarios, vendedores);
+            }
+        }
+        insertar(mongoTemplate, concesionarios, vendedores);
+    }
+
+    private static void insertar(MongoTemplate mongoTemplate, List<Concesionario> concesionarios, List<Vendedor> vendedores) {
+        mongoTemplate.insertAll(concesionarios);
+        mongoTemplate.insertAll(vendedores);
+        concesionarios.clear();
+        vendedores.clear();
+    }
+
+    private static String ruc(int i) {
+        return String.format("%013d", i);
+    }
+
+    private static VendedorDTO vendedor(String clave) {
+        VendedorDTO dto = new VendedorDTO();
+        dto.setNombre("Vendedor " + clave);
+        dto.setCedula(clave);
+        dto.setEmail(clave + "@benchmark.ec");
+        dto.setTelefono("0999999999");
+        dto.setEstado(EstadoVendedorEnum.ACTIVO);
+        return dto;
+    }
+
+    /**
+     * Tiempos ordenados en nanosegundos tras descartar unas ejecuciones de calentamiento.
+     */
+    private static long[] medir(IntConsumer alta) {
+        for (int i = 0; i < 20; i++) {
+            alta.accept(-1 - i);
+        }
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            alta.accept(i);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        return tiempos;
+    }
+}
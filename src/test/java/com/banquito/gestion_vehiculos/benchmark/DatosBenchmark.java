@@ -0,0 +1,229 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVendedorEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
+import com.banquito.gestion_vehiculos.mapper.IdentificadorVehiculoMapper;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.banquito.gestion_vehiculos.service.AlmacenVehiculos;
+import com.banquito.gestion_vehiculos.service.ConcesionarioPorRucService;
+import com.banquito.gestion_vehiculos.service.IdentificadoresPorPlaca;
+import com.banquito.gestion_vehiculos.service.MigracionVehiculos;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Datos sintéticos y colaboradores sin Mongo para los benchmarks JMH. Los datos son
+ * deterministas (semilla fija) para que las ejecuciones sean comparables entre sí.
+ */
+final class DatosBenchmark {
+
+    static final String RUC = "1790012345001";
+
+    private static final String[] MARCAS = { "Toyota", "Chevrolet", "Kia", "Hyundai", "Nissan", "Mazda" };
+    private static final String[] NOMBRES = { "José", "María", "Luis", "Ana", "Carlos", "Lucía" };
+    private static final String[] APELLIDOS = { "Núñez", "Pérez", "Andrade", "Salas", "Vera", "Torres" };
+
+    private DatosBenchmark() {
+    }
+
+    static List<Vehiculo> vehiculos(int cantidad) {
+        Random aleatorio = new Random(42);
+        List<Vehiculo> vehiculos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Vehiculo vehiculo = new Vehiculo();
+            vehiculo.setId(String.format("%024x", i));
+            vehiculo.setMarca(MARCAS[aleatorio.nextInt(MARCAS.length)]);
+            vehiculo.setModelo("Modelo " + aleatorio.nextInt(50));
+            vehiculo.setCilindraje(1.0 + aleatorio.nextInt(30) / 10.0);
+            vehiculo.setAnio(String.valueOf(2010 + aleatorio.nextInt(15)));
+            vehiculo.setValor(BigDecimal.valueOf(8_000_00 + aleatorio.nextInt(60_000_00), 2));
+            vehiculo.setColor("Blanco");
+            vehiculo.setExtras("Aire acondicionado, sistema de sonido premium");
+            vehiculo.setEstado(EstadoVehiculoEnum.values()[aleatorio.nextInt(EstadoVehiculoEnum.values().length)]);
+            vehiculo.setTipo(TipoVehiculoEnum.values()[aleatorio.nextInt(TipoVehiculoEnum.values().length)]);
+            vehiculo.setCombustible(CombustibleVehiculoEnum.values()[aleatorio.nextInt(CombustibleVehiculoEnum.values().length)]);
+            vehiculo.setCondicion(CondicionVehiculoEnum.values()[aleatorio.nextInt(CondicionVehiculoEnum.values().length)]);
+            vehiculo.setPlaca(placa(i));
+            vehiculo.setVersion(0L);
+            vehiculos.add(vehiculo);
+        }
+        return vehiculos;
+    }
+
+    static List<Vendedor> vendedores(int cantidad) {
+        Random aleatorio = new Random(7);
+        List<Vendedor> vendedores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Vendedor vendedor = new Vendedor();
+            vendedor.setId(String.format("%024x", 1_000_000 + i));
+            vendedor.setNombre(NOMBRES[aleatorio.nextInt(NOMBRES.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)]);
+            vendedor.setTelefono("09" + String.format("%08d", i));
+            vendedor.setEmail("vendedor" + i + "@concesionario.ec");
+            vendedor.setEstado(i % 5 == 0 ? EstadoVendedorEnum.INACTIVO : EstadoVendedorEnum.ACTIVO);
+            vendedor.setCedula(cedula(i));
+            vendedor.setVersion(0L);
+            vendedores.add(vendedor);
+        }
+        return vendedores;
+    }
+
+    static Concesionario concesionario(int vehiculos, int vendedores) {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setId(String.format("%024x", 0));
+        concesionario.setRuc(RUC);
+        concesionario.setRazonSocial("AutoMax Norte S.A.");
+        concesionario.setDireccion("Av. Amazonas N34-120, Quito");
+        concesionario.setTelefono("022345678");
+        concesionario.setEmailContacto("ventas@automax.ec");
+        concesionario.setEstado(EstadoConcesionarioEnum.ACTIVO);
+        concesionario.setVehiculos(vehiculos(vehiculos));
+        concesionario.setVendedores(vendedores(vendedores));
+        concesionario.setVersion(0L);
+        return concesionario;
+    }
+
+    static String placa(int i) {
+        return "P" + (char) ('A' + i / 10_000 % 26) + "B" + String.format("%04d", i % 10_000);
+    }
+
+    /**
+     * Cédula válida (provincia 01-24, tercer dígito menor que 6 y dígito verificador
+     * módulo 10) generada a partir de un número de secuencia.
+     */
+    static String cedula(int i) {
+        int[] digitos = new int[10];
+        int provincia = 1 + i % 24;
+        digitos[0] = provincia / 10;
+        digitos[1] = provincia % 10;
+        digitos[2] = i / 24 % 6;
+        int resto = i / 144;
+        for (int d = 8; d >= 3; d--) {
+            digitos[d] = resto % 10;
+            resto /= 10;
+        }
+        int suma = 0;
+        for (int d = 0; d < 9; d++) {
+            int valor = d % 2 == 0 ? digitos[d] * 2 : digitos[d];
+            suma += valor > 9 ? valor - 9 : valor;
+        }
+        digitos[9] = (10 - suma % 10) % 10;
+        StringBuilder cedula = new StringBuilder(10);
+        for (int digito : digitos) {
+            cedula.append(digito);
+        }
+        return cedula.toString();
+    }
+
+    /**
+     * VehiculoMapper con los identificadores de las placas dadas ya cargados en el filtro
+     * de Bloom y en la caché cercana, como en una instancia en régimen estable.
+     */
+    static VehiculoMapper vehiculoMapper(List<Vehiculo> vehiculos) {
+        Map<String, IdentificadorVehiculo> porPlaca = vehiculos.stream()
+                .map(Vehiculo::getPlaca)
+                .collect(Collectors.toMap(Function.identity(), DatosBenchmark::identificador));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.IDENTIFICADORES_POR_PLACA,
+                Caffeine.newBuilder().maximumSize(20_000).build());
+        IdentificadoresPorPlaca identificadores = new IdentificadoresPorPlaca(
+                identificadorVehiculoRepository(porPlaca), cacheManager, new SimpleMeterRegistry(), 0.01);
+        identificadores.reconstruir();
+        identificadores.buscarTodas(porPlaca.keySet());
+
+        VehiculoMapper mapper = new VehiculoMapper();
+        ReflectionTestUtils.setField(mapper, "identificadoresPorPlaca", identificadores);
+        ReflectionTestUtils.setField(mapper, "identificadorVehiculoMapper", new IdentificadorVehiculoMapper());
+        return mapper;
+    }
+
+    /**
+     * Lectura por RUC que siempre acierta, como la caché de concesionarios en régimen estable.
+     */
+    static ConcesionarioPorRucService concesionarioPorRuc(Concesionario concesionario) {
+        Optional<Concesionario> resultado = Optional.of(concesionario);
+        return new ConcesionarioPorRucService(null, null) {
+            @Override
+            public Optional<Concesionario> buscar(String ruc) {
+                return resultado;
+            }
+        };
+    }
+
+    /**
+     * Vehículos leídos del arreglo embebido, como durante la migración a la colección antes
+     * de verificarla: el arreglo llega en una proyección y se filtra en memoria.
+     */
+    static AlmacenVehiculos almacenEmbebido(Concesionario concesionario) {
+        Optional<List<Vehiculo>> vehiculos = Optional.of(concesionario.getVehiculos());
+        ConcesionarioRepository repositorio = repositorio(ConcesionarioRepository.class, (metodo, args) -> switch (metodo) {
+            case "findVehiculosEmbebidosByRuc" -> vehiculos;
+            default -> throw new UnsupportedOperationException(metodo);
+        });
+        MigracionVehiculos migracion = new MigracionVehiculos(repositorio, null,
+                MigracionVehiculos.Fase.DOBLE_ESCRITURA, 500, Duration.ZERO);
+        return new AlmacenVehiculos(repositorio, null, concesionarioPorRuc(concesionario), null, migracion);
+    }
+
+    private static IdentificadorVehiculo identificador(String placa) {
+        IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+        identificador.setId("id-" + placa);
+        identificador.setPlaca(placa);
+        identificador.setChasis("1HGCM82633A" + placa.substring(placa.length() - 6));
+        identificador.setMotor("M-" + placa);
+        return identificador;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IdentificadorVehiculoRepository identificadorVehiculoRepository(Map<String, IdentificadorVehiculo> porPlaca) {
+        return repositorio(IdentificadorVehiculoRepository.class, (metodo, args) -> switch (metodo) {
+            case "count" -> (long) porPlaca.size();
+            case "streamPlacas" -> porPlaca.keySet().stream();
+            case "findByPlacaIn" -> ((Collection<String>) args[0]).stream()
+                    .map(porPlaca::get)
+                    .filter(identificador -> identificador != null)
+                    .toList();
+            default -> throw new UnsupportedOperationException(metodo);
+        });
+    }
+
+    private interface Respuesta {
+        Object responder(String metodo, Object[] args);
+    }
+
+    private static <T> T repositorio(Class<T> tipo, Respuesta respuesta) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "toString" -> tipo.getSimpleName() + " de benchmark";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> respuesta.responder(metodo.getName(), args);
+                }));
+    }
+}
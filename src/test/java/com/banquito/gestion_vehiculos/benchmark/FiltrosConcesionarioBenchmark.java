@@ -0,0 +1,72 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.mapper.ConcesionarioMapper;
+import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.service.ConcesionarioService;
+
+/**
+ * Búsquedas de vehículos dentro del arreglo embebido del concesionario que ConcesionarioService
+ * resuelve con streams (por placa, estado y condición). El concesionario sale de la caché por
+ * RUC y los vehículos de una proyección simulada del arreglo, así que se mide solo el filtrado
+ * y el mapeo. Con la colección vehiculos ya verificada esos filtros los resuelve Mongo por
+ * índice; aquí queda el camino de lectura de la migración. Los vendedores ya se leen siempre
+ * de su colección por índice, por eso no tienen un camino en memoria que medir. La búsqueda
+ * por placa usa el último de la lista, el peor caso del recorrido lineal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltrosConcesionarioBenchmark {
+
+    private static final String RUC = DatosBenchmark.RUC;
+
+    @Param({ "20", "200", "2000" })
+    public int tamanio;
+
+    private ConcesionarioService service;
+    private String placa;
+
+    @Setup
+    public void preparar() {
+        Concesionario concesionario = DatosBenchmark.concesionario(tamanio, 0);
+        service = new ConcesionarioService(null, DatosBenchmark.concesionarioPorRuc(concesionario),
+                new ConcesionarioMapper(), DatosBenchmark.vehiculoMapper(concesionario.getVehiculos()),
+                new VendedorMapper(), null, null, null, DatosBenchmark.almacenEmbebido(concesionario), null, null);
+        placa = concesionario.getVehiculos().get(tamanio - 1).getPlaca().toLowerCase();
+    }
+
+    @Benchmark
+    public VehiculoDTO vehiculoPorPlaca() {
+        return service.findVehiculoByPlacaInConcesionario(RUC, placa);
+    }
+
+    @Benchmark
+    public List<VehiculoDTO> vehiculosPorEstado() {
+        return service.findVehiculosByEstadoInConcesionario(RUC, "disponible");
+    }
+
+    @Benchmark
+    public List<VehiculoDTO> vehiculosPorCondicion() {
+        return service.findVehiculosByCondicionInConcesionario(RUC, "usado");
+    }
+}
@@ -0,0 +1,97 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gestion_vehiculos.dto.ConcesionarioDTO;
+import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.dto.VendedorDTO;
+import com.banquito.gestion_vehiculos.mapper.ConcesionarioMapper;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+
+/**
+ * Conversiones modelo/DTO de los mappers con los tamaños de lista de un concesionario
+ * pequeño, mediano y grande. VehiculoMapper resuelve los identificadores desde la caché
+ * cercana ya caliente, sin Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "20", "200", "2000" })
+    public int tamanio;
+
+    private VehiculoMapper vehiculoMapper;
+    private final ConcesionarioMapper concesionarioMapper = new ConcesionarioMapper();
+    private final VendedorMapper vendedorMapper = new VendedorMapper();
+    private List<Vehiculo> vehiculos;
+    private List<Vendedor> vendedores;
+    private List<VehiculoDTO> vehiculosDTO;
+    private Concesionario concesionario;
+    private ConcesionarioDTO concesionarioDTO;
+
+    @Setup
+    public void preparar() {
+        vehiculos = DatosBenchmark.vehiculos(tamanio);
+        vendedores = DatosBenchmark.vendedores(tamanio);
+        vehiculoMapper = DatosBenchmark.vehiculoMapper(vehiculos);
+        vehiculosDTO = vehiculoMapper.toDTOList(vehiculos);
+        concesionario = DatosBenchmark.concesionario(0, 0);
+        concesionarioDTO = concesionarioMapper.toDTO(concesionario);
+    }
+
+    @Benchmark
+    public List<VehiculoDTO> vehiculosToDTOList() {
+        return vehiculoMapper.toDTOList(vehiculos);
+    }
+
+    /**
+     * Mapeo uno a uno con toDTO, como hacen los endpoints que no usan toDTOList.
+     */
+    @Benchmark
+    public List<VehiculoDTO> vehiculosToDTOUnoAUno() {
+        return vehiculos.stream().map(vehiculoMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<Vehiculo> vehiculosToModel() {
+        return vehiculosDTO.stream().map(vehiculoMapper::toModel).toList();
+    }
+
+    @Benchmark
+    public List<VendedorDTO> vendedoresToDTO() {
+        return vendedores.stream().map(vendedorMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ConcesionarioDTO concesionarioToDTO() {
+        return concesionarioMapper.toDTO(concesionario);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Concesionario concesionarioToModel() {
+        return concesionarioMapper.toModel(concesionarioDTO);
+    }
+}
@@ -0,0 +1,65 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serialización JSON de listas de VehiculoDTO (con su identificador) como la escribe
+ * MappingJackson2HttpMessageConverter en las respuestas de vehículos por concesionario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionVehiculosBenchmark {
+
+    @Param({ "20", "200", "2000" })
+    public int tamanio;
+
+    // Misma configuración por defecto que el ObjectMapper de Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter escritorLista;
+    private List<VehiculoDTO> vehiculos;
+
+    @Setup
+    public void preparar() {
+        vehiculos = DatosBenchmark.vehiculoMapper(DatosBenchmark.vehiculos(tamanio))
+                .toDTOList(DatosBenchmark.vehiculos(tamanio));
+        escritorLista = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, VehiculoDTO.class));
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vehiculos);
+    }
+
+    /**
+     * Con el tipo de la lista resuelto de antemano, como cuando el conversor conoce el tipo
+     * genérico del método del controlador.
+     */
+    @Benchmark
+    public byte[] serializarListaTipada() throws JsonProcessingException {
+        return escritorLista.writeValueAsBytes(vehiculos);
+    }
+}
@@ -0,0 +1,72 @@
+package com.banquito.gestion_vehiculos.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.banquito.gestion_vehiculos.validation.CedulaEcuatorianaValidator;
+import com.banquito.gestion_vehiculos.validation.RucEcuatorianoValidator;
+
+/**
+ * Validación de cédulas y RUC sobre un lote fijo con valores válidos e inválidos
+ * (dígito verificador, provincia, longitud y caracteres no numéricos). El tiempo y las
+ * asignaciones reportados son por valor validado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorBenchmark {
+
+    private static final int LOTE = 1024;
+
+    private final CedulaEcuatorianaValidator cedulaValidator = new CedulaEcuatorianaValidator();
+    private final RucEcuatorianoValidator rucValidator = new RucEcuatorianoValidator();
+    private String[] cedulas;
+    private String[] rucs;
+
+    @Setup
+    public void preparar() {
+        cedulas = new String[LOTE];
+        rucs = new String[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            String cedula = DatosBenchmark.cedula(i * 7919);
+            cedulas[i] = switch (i % 8) {
+                case 5 -> cedula.substring(0, 9) + (cedula.charAt(9) == '9' ? '0' : (char) (cedula.charAt(9) + 1));
+                case 6 -> "99" + cedula.substring(2);
+                case 7 -> cedula.substring(0, 4) + "x" + cedula.substring(5);
+                default -> cedula;
+            };
+            rucs[i] = i % 8 == 4 ? cedulas[i] + "002" : cedulas[i] + "001";
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void cedula(Blackhole blackhole) {
+        for (String cedula : cedulas) {
+            blackhole.consume(cedulaValidator.isValid(cedula, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void ruc(Blackhole blackhole) {
+        for (String ruc : rucs) {
+            blackhole.consume(rucValidator.isValid(ruc, null));
+        }
+    }
+}
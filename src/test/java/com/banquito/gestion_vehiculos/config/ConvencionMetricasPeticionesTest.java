@@ -0,0 +1,55 @@
+package com.banquito.gestion_vehiculos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.banquito.gestion_vehiculos.controller.ConcesionarioController;
+
+import io.micrometer.common.KeyValues;
+
+class ConvencionMetricasPeticionesTest {
+
+    private final ConvencionMetricasPeticiones convencion = new ConvencionMetricasPeticiones();
+
+    @Test
+    void etiquetaLaOperacionJuntoALaRutaYElResultado() throws Exception {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/concesionarios/v1/ruc/1790012345001");
+        peticion.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/concesionarios/v1/ruc/{ruc}");
+        peticion.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(new Object(),
+                Object.class.getMethod("toString")) {
+            @Override
+            public Class<?> getBeanType() {
+                return ConcesionarioController.class;
+            }
+        });
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        respuesta.setStatus(404);
+        ServerRequestObservationContext contexto = new ServerRequestObservationContext(peticion, respuesta);
+        contexto.setPathPattern("/api/concesionarios/v1/ruc/{ruc}");
+
+        KeyValues etiquetas = convencion.getLowCardinalityKeyValues(contexto);
+
+        assertEquals("ConcesionarioController.toString", valor(etiquetas, "operacion"));
+        assertEquals("/api/concesionarios/v1/ruc/{ruc}", valor(etiquetas, "uri"));
+        assertEquals("CLIENT_ERROR", valor(etiquetas, "outcome"));
+    }
+
+    @Test
+    void sinControladorUsaUnValorFijo() {
+        ServerRequestObservationContext contexto = new ServerRequestObservationContext(
+                new MockHttpServletRequest("GET", "/inexistente"), new MockHttpServletResponse());
+
+        assertEquals(ConvencionMetricasPeticiones.SIN_OPERACION,
+                valor(convencion.getLowCardinalityKeyValues(contexto), "operacion"));
+    }
+
+    private String valor(KeyValues etiquetas, String clave) {
+        return etiquetas.stream().filter(k -> k.getKey().equals(clave)).findFirst().orElseThrow().getValue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.banquito.gestion_vehiculos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricasComandosMongoTest {
+
+    private static final RequestContext SIN_CONTEXTO = null;
+    private static final ConnectionDescription CONEXION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    private SimpleMeterRegistry registro;
+    private MetricasComandosMongo listener;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        listener = new MetricasComandosMongo(registro);
+    }
+
+    @Test
+    void registraLatenciaDocumentosYBytesPorColeccion() {
+        RawBsonDocument respuesta = RawBsonDocument.parse(
+                "{cursor: {firstBatch: [{_id: 1}, {_id: 2}, {_id: 3}], id: 0, ns: 'db.concesionarios'}, ok: 1}");
+
+        iniciar(1, "find", "{find: 'concesionarios', filter: {ruc: '1790012345001'}}");
+        listener.commandSucceeded(new CommandSucceededEvent(SIN_CONTEXTO, 1, 1, CONEXION, "db", "find",
+                respuesta, 2_000_000));
+
+        assertEquals(1, registro.get("mongodb.comandos").tags("comando", "find", "coleccion", "concesionarios",
+                "estado", "exito").timer().count());
+        DistributionSummary documentos = registro.get("mongodb.comandos.documentos").tag("coleccion", "concesionarios").summary();
+        assertEquals(3, documentos.totalAmount());
+        assertEquals(respuesta.getByteBuffer().remaining(),
+                registro.get("mongodb.comandos.respuesta").summary().totalAmount());
+    }
+
+    @Test
+    void cuentaLosDocumentosAfectadosDeEscriturasYGetMore() {
+        iniciar(2, "update", "{update: 'concesionarios', updates: []}");
+        listener.commandSucceeded(new CommandSucceededEvent(SIN_CONTEXTO, 2, 2, CONEXION, "db", "update",
+                BsonDocument.parse("{n: 4, nModified: 4, ok: 1}"), 1_000));
+        iniciar(3, "getMore", "{getMore: 42, collection: 'identificadores'}");
+        listener.commandSucceeded(new CommandSucceededEvent(SIN_CONTEXTO, 3, 3, CONEXION, "db", "getMore",
+                BsonDocument.parse("{cursor: {nextBatch: [{}, {}], id: 0}, ok: 1}"), 1_000));
+
+        assertEquals(4, registro.get("mongodb.comandos.documentos").tag("comando", "update").summary().totalAmount());
+        assertEquals(2, registro.get("mongodb.comandos.documentos").tags("comando", "getMore",
+                "coleccion", "identificadores").summary().totalAmount());
+    }
+
+    @Test
+    void registraLosFallosSinDejarSolicitudesPendientes() {
+        iniciar(4, "insert", "{insert: 'vendedores', documents: []}");
+        listener.commandFailed(new CommandFailedEvent(SIN_CONTEXTO, 4, 4, CONEXION, "db", "insert",
+                1_000, new IllegalStateException()));
+        listener.commandSucceeded(new CommandSucceededEvent(SIN_CONTEXTO, 5, 4, CONEXION, "db", "ping",
+                BsonDocument.parse("{ok: 1}"), 1_000));
+
+        assertEquals(1, registro.get("mongodb.comandos").tags("coleccion", "vendedores", "estado", "error").timer().count());
+        assertEquals(1, registro.get("mongodb.comandos").tags("comando", "ping",
+                "coleccion", MetricasComandosMongo.SIN_COLECCION).timer().count());
+    }
+
+    private void iniciar(int requestId, String comando, String json) {
+        listener.commandStarted(new CommandStartedEvent(SIN_CONTEXTO, requestId, requestId, CONEXION, "db",
+                comando, BsonDocument.parse(json)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.banquito.gestion_vehiculos.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+
+/**
+ * Sin los índices únicos de vendedores no hay garantía de cédula y email no repetidos: su
+ * fallo detiene el arranque, mientras que el de un índice de rendimiento solo se registra.
+ */
+class MongoIndexConfigTest {
+
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indicesVendedores;
+    private MongoIndexConfig config;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        indicesVendedores = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Vendedor.class)).thenReturn(indicesVendedores);
+        when(mongoTemplate.getCollectionName(Vendedor.class)).thenReturn("vendedores");
+        config = new MongoIndexConfig(mongoTemplate);
+    }
+
+    @Test
+    void creaLosIndicesUnicosDeVendedores() {
+        config.asegurarIndicesUnicos();
+
+        verify(indicesVendedores, times(2)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void siUnIndiceUnicoNoSePuedeCrearFallaElArranque() {
+        when(indicesVendedores.ensureIndex(any(IndexDefinition.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, config::asegurarIndicesUnicos);
+
+        assertTrue(error.getMessage().contains("idxuVendedor_cedula"));
+    }
+
+    @Test
+    void unIndiceDeRendimientoQueFallaSoloSeRegistra() {
+        IndexOperations indices = mock(IndexOperations.class);
+        when(indices.ensureIndex(any(IndexDefinition.class))).thenThrow(new IllegalStateException("sin conexión"));
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indices);
+        when(mongoTemplate.getCollectionName(Vehiculo.class)).thenReturn("vehiculos");
+
+        assertDoesNotThrow(config::asegurarIndices);
+    }
+}
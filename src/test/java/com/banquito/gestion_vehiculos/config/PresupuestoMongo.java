@@ -0,0 +1,63 @@
+package com.banquito.gestion_vehiculos.config;
+
+import java.util.function.Supplier;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Aserciones de presupuesto de Mongo para tests de integración, sobre el mismo contador
+ * que alimenta las cabeceras X-Db-*:
+ * <pre>
+ * List&lt;VehiculoDTO&gt; vehiculos = PresupuestoMongo.dentroDe(2, () -&gt; service.findVehiculosByRuc(ruc));
+ * mockMvc.perform(get("/api/concesionarios/v1/ruc/{ruc}", ruc)).andExpect(PresupuestoMongo.comandosMaximos(3));
+ * </pre>
+ * Solo cuenta los comandos ejecutados en el hilo del test.
+ */
+public final class PresupuestoMongo {
+
+    private PresupuestoMongo() {
+    }
+
+    public static ConsumoMongo medir(Runnable accion) {
+        ConsumoMongo consumo = ConsumoMongo.iniciar();
+        try {
+            accion.run();
+        } finally {
+            ConsumoMongo.finalizar();
+        }
+        return consumo;
+    }
+
+    /**
+     * Ejecuta la acción y falla si emitió más comandos de Mongo que el máximo.
+     */
+    public static <T> T dentroDe(int maximoComandos, Supplier<T> accion) {
+        ConsumoMongo consumo = ConsumoMongo.iniciar();
+        T resultado;
+        try {
+            resultado = accion.get();
+        } finally {
+            ConsumoMongo.finalizar();
+        }
+        if (consumo.getComandos() > maximoComandos) {
+            throw new AssertionError("Se esperaban como máximo " + maximoComandos + " comandos de Mongo y hubo " + consumo);
+        }
+        return resultado;
+    }
+
+    /**
+     * Comprueba la cabecera X-Db-Calls de una respuesta de MockMvc.
+     */
+    public static ResultMatcher comandosMaximos(int maximoComandos) {
+        return resultado -> {
+            String cabecera = resultado.getResponse().getHeader(ConsumoMongo.HEADER_COMANDOS);
+            if (cabecera == null) {
+                throw new AssertionError("La respuesta no tiene la cabecera " + ConsumoMongo.HEADER_COMANDOS);
+            }
+            if (Integer.parseInt(cabecera) > maximoComandos) {
+                throw new AssertionError("Se esperaban como máximo " + maximoComandos + " comandos de Mongo y hubo "
+                        + cabecera + " en " + resultado.getRequest().getRequestURI());
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.banquito.gestion_vehiculos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class PresupuestoMongoFilterTest {
+
+    private static final String RUTA = "/api/concesionarios/v1/ruc/{ruc}";
+    private static final RequestContext SIN_CONTEXTO = null;
+    private static final ConnectionDescription CONEXION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    private SimpleMeterRegistry registro;
+    private MetricasComandosMongo listener;
+    private PresupuestoMongoFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        listener = new MetricasComandosMongo(registro);
+        PresupuestoMongoProperties propiedades = new PresupuestoMongoProperties();
+        propiedades.getPorDefecto().setComandos(10);
+        PresupuestoMongoProperties.Presupuesto presupuestoRuta = new PresupuestoMongoProperties.Presupuesto();
+        presupuestoRuta.setComandos(2);
+        propiedades.getRutas().put(RUTA, presupuestoRuta);
+        filtro = new PresupuestoMongoFilter(propiedades, registro);
+    }
+
+    @Test
+    void cuentaLosComandosDeLaPeticionYAvisaAlSuperarElPresupuesto() throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+
+        filtro.doFilter(peticion(), respuesta, ejecutando(3));
+
+        assertEquals("3", respuesta.getHeader(ConsumoMongo.HEADER_COMANDOS));
+        assertEquals("6", respuesta.getHeader(ConsumoMongo.HEADER_DOCUMENTOS));
+        assertEquals(3, registro.get("http.server.requests.mongo.comandos").tag("uri", RUTA).summary().totalAmount());
+        assertEquals(1, registro.get("http.server.requests.mongo.presupuesto.excedido").tag("uri", RUTA).counter().count());
+        assertNull(ConsumoMongo.actual());
+    }
+
+    @Test
+    void dentroDelPresupuestoNoAvisa() throws Exception {
+        filtro.doFilter(peticion(), new MockHttpServletResponse(), ejecutando(2));
+
+        assertEquals(0, registro.find("http.server.requests.mongo.presupuesto.excedido").counters().size());
+    }
+
+    @Test
+    void lasAsercionesDeTestSumanLosAmbitosAnidados() throws Exception {
+        ConsumoMongo consumo = PresupuestoMongo.medir(() -> {
+            ejecutar(1);
+            try {
+                filtro.doFilter(peticion(), new MockHttpServletResponse(), ejecutando(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(3, consumo.getComandos());
+        assertEquals(1, PresupuestoMongo.dentroDe(1, () -> ejecutar(1)));
+        assertThrows(AssertionError.class, () -> PresupuestoMongo.dentroDe(1, () -> ejecutar(2)));
+    }
+
+    private MockHttpServletRequest peticion() {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/concesionarios/v1/ruc/1790012345001");
+        peticion.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RUTA);
+        return peticion;
+    }
+
+    private FilterChain ejecutando(int comandos) {
+        return (peticion, respuesta) -> ejecutar(comandos);
+    }
+
+    private int ejecutar(int comandos) {
+        for (int i = 0; i < comandos; i++) {
+            listener.commandStarted(new CommandStartedEvent(SIN_CONTEXTO, i, i, CONEXION, "db", "find",
+                    BsonDocument.parse("{find: 'concesionarios'}")));
+            listener.commandSucceeded(new CommandSucceededEvent(SIN_CONTEXTO, i, i, CONEXION, "db", "find",
+                    BsonDocument.parse("{cursor: {firstBatch: [{}, {}], id: 0}, ok: 1}"), 1_000));
+        }
+        return comandos;
+    }
+}
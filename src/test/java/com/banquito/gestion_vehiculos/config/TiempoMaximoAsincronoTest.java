@@ -0,0 +1,55 @@
+package com.banquito.gestion_vehiculos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Solo la petición que fija su tiempo máximo cambia el de su contexto asíncrono; las demás
+ * conservan el global.
+ */
+class TiempoMaximoAsincronoTest {
+
+    private static final long TIEMPO_GLOBAL = 30_000L;
+
+    private MockHttpServletRequest peticion;
+    private StandardServletAsyncWebRequest asincrona;
+    private WebAsyncManager manager;
+
+    @BeforeEach
+    void setUp() {
+        peticion = new MockHttpServletRequest();
+        peticion.setAsyncSupported(true);
+        asincrona = new StandardServletAsyncWebRequest(peticion, new MockHttpServletResponse());
+        asincrona.setTimeout(TIEMPO_GLOBAL);
+        manager = WebAsyncUtils.getAsyncManager(peticion);
+        manager.setAsyncWebRequest(asincrona);
+        manager.setTaskExecutor(new TaskExecutorAdapter(Runnable::run));
+        manager.registerCallableInterceptor("tiempoMaximo", new TiempoMaximoAsincrono());
+    }
+
+    @Test
+    void laPeticionQueLoFijaUsaSuPropioTiempoMaximo() throws Exception {
+        TiempoMaximoAsincrono.fijar(asincrona, Duration.ofMinutes(30));
+
+        manager.startCallableProcessing(() -> null);
+
+        assertEquals(Duration.ofMinutes(30).toMillis(), peticion.getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void sinFijarloSeConservaElTiempoGlobal() throws Exception {
+        manager.startCallableProcessing(() -> null);
+
+        assertEquals(TIEMPO_GLOBAL, peticion.getAsyncContext().getTimeout());
+    }
+}
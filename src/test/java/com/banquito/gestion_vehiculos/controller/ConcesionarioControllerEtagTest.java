@@ -0,0 +1,134 @@
+package com.banquito.gestion_vehiculos.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.banquito.gestion_vehiculos.dto.ConcesionarioDTO;
+import com.banquito.gestion_vehiculos.dto.VendedorDTO;
+import com.banquito.gestion_vehiculos.exception.ManejadorGlobalExcepciones;
+import com.banquito.gestion_vehiculos.exception.PrecondicionFallidaException;
+import com.banquito.gestion_vehiculos.service.ConcesionarioService;
+
+/**
+ * ETags derivadas de la versión del concesionario: If-None-Match evita cargar el recurso
+ * si no cambió e If-Match condiciona la escritura a la versión que conoce el cliente.
+ */
+class ConcesionarioControllerEtagTest {
+
+    private static final String RUC = "1234567890001";
+    private static final String BASE = "/api/concesionarios/v1/ruc/" + RUC;
+
+    private ConcesionarioService concesionarioService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        concesionarioService = mock(ConcesionarioService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ConcesionarioController(concesionarioService))
+                .setControllerAdvice(new ManejadorGlobalExcepciones())
+                .build();
+        when(concesionarioService.findVersionConcesionario(RUC)).thenReturn(7L);
+    }
+
+    @Test
+    void sinIfNoneMatchRespondeElRecursoConSuEtag() throws Exception {
+        ConcesionarioDTO concesionario = new ConcesionarioDTO();
+        concesionario.setRuc(RUC);
+        when(concesionarioService.findConcesionarioByRuc(RUC)).thenReturn(concesionario);
+
+        mockMvc.perform(get(BASE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$.ruc").value(RUC));
+    }
+
+    @Test
+    void conIfNoneMatchVigenteResponde304SinCargarElRecurso() throws Exception {
+        mockMvc.perform(get(BASE).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get(BASE + "/vendedores").header(HttpHeaders.IF_NONE_MATCH, "\"6\", \"7\""))
+                .andExpect(status().isNotModified());
+
+        verify(concesionarioService, never()).findConcesionarioByRuc(any());
+        verify(concesionarioService, never()).findVendedoresByRuc(any());
+    }
+
+    @Test
+    void conIfNoneMatchAnteriorRespondeLaListaNueva() throws Exception {
+        when(concesionarioService.findVendedoresByRuc(RUC)).thenReturn(List.of(new VendedorDTO()));
+
+        mockMvc.perform(get(BASE + "/vendedores").header(HttpHeaders.IF_NONE_MATCH, "\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void conIfMatchLaEscrituraDevuelveLaEtagDeLaVersionSiguiente() throws Exception {
+        when(concesionarioService.desactivarVendedorInConcesionarioByCedula(RUC, "0102030405", 7L))
+                .thenReturn(new VendedorDTO());
+
+        mockMvc.perform(put(BASE + "/vendedores/0102030405/desactivar").header(HttpHeaders.IF_MATCH, "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8\""));
+    }
+
+    @Test
+    void conIfMatchDesactualizadoResponde412() throws Exception {
+        when(concesionarioService.desactivateConcesionario(RUC, 6L))
+                .thenThrow(new PrecondicionFallidaException("Concesionario", "ya no está en la versión indicada"));
+
+        mockMvc.perform(put(BASE + "/desactivar").header(HttpHeaders.IF_MATCH, "\"6\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void ifMatchAsteriscoEscribeSinCondicionNiEtag() throws Exception {
+        when(concesionarioService.desactivarVendedorInConcesionarioByCedula(eq(RUC), eq("0102030405"), isNull()))
+                .thenReturn(new VendedorDTO());
+
+        MvcResult resultado = mockMvc.perform(put(BASE + "/vendedores/0102030405/desactivar")
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(resultado.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(concesionarioService).desactivarVendedorInConcesionarioByCedula(RUC, "0102030405", null);
+    }
+
+    @Test
+    void ifMatchDebilOConVariasEtagsResponde412SinEscribir() throws Exception {
+        for (String ifMatch : List.of("W/\"7\"", "\"6\", \"7\"", "\"abc\"")) {
+            MvcResult resultado = mockMvc.perform(put(BASE + "/vendedores/0102030405/desactivar")
+                            .header(HttpHeaders.IF_MATCH, ifMatch))
+                    .andReturn();
+            assertEquals(412, resultado.getResponse().getStatus(), ifMatch);
+        }
+
+        verify(concesionarioService, never()).desactivarVendedorInConcesionarioByCedula(any(), any(), any());
+    }
+}
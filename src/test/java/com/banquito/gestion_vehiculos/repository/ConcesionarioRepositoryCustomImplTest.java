@@ -0,0 +1,83 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.banquito.gestion_vehiculos.enums.EstadoConcesionarioEnum;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+
+/**
+ * Los listados de concesionarios solo deben pedir la cabecera: los arreglos embebidos y los
+ * n-gramas de búsqueda quedan fuera de la proyección enviada a Mongo.
+ */
+class ConcesionarioRepositoryCustomImplTest {
+
+    private static final Document SOLO_CABECERA = new Document(Map.of(
+            "vendedores", 0, "vehiculos", 0, "razonSocialNgramas", 0));
+
+    private MongoTemplate mongoTemplate;
+    private ConcesionarioRepositoryCustomImpl repositorio;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Concesionario.class)).thenReturn("concesionarios");
+        repositorio = new ConcesionarioRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void losListadosNoTraenLosArreglosEmbebidos() {
+        repositorio.findCabeceras();
+        repositorio.findCabecerasByEstado(EstadoConcesionarioEnum.ACTIVO);
+        repositorio.findCabecerasByRazonSocialContiene("auto");
+
+        ArgumentCaptor<Query> consultas = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(consultas.capture(), eq(Concesionario.class));
+        consultas.getAllValues().forEach(query -> assertEquals(SOLO_CABECERA, query.getFieldsObject()));
+    }
+
+    @Test
+    void laBusquedaPorEmailDeContactoNoTraeLosArreglosEmbebidos() {
+        repositorio.findCabeceraByEmailContacto("ventas@automax.ec");
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(consulta.capture(), eq(Concesionario.class));
+        assertEquals(SOLO_CABECERA, consulta.getValue().getFieldsObject());
+    }
+
+    @Test
+    void lasCabecerasPorRucYPorIdNoTraenLosNgramas() {
+        repositorio.findCabeceraByRuc("1790012345001");
+        repositorio.findCabeceraById("c-1");
+
+        ArgumentCaptor<Query> consultas = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).findOne(consultas.capture(), eq(Concesionario.class));
+        consultas.getAllValues().forEach(query -> assertEquals(SOLO_CABECERA, query.getFieldsObject()));
+    }
+
+    @Test
+    void laPaginaPorKeysetNoTraeLosArreglosEmbebidos() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("concesionarios"))).thenReturn(List.of());
+
+        repositorio.findConcesionariosKeyset(null, null, Keyset.de(null, null, null, Map.of("id", "_id")));
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(consulta.capture(), eq(Document.class), eq("concesionarios"));
+        assertEquals(SOLO_CABECERA, consulta.getValue().getFieldsObject());
+    }
+}
@@ -0,0 +1,81 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+/**
+ * Las estadísticas se agregan en Mongo: se comprueba la forma del pipeline enviado y la
+ * lectura del documento que devuelve la faceta.
+ */
+class EstadisticasVehiculosTest {
+
+    @Test
+    void leeLosConteosYLosTotalesDeLaFaceta() {
+        Document resultado = new Document()
+                .append("estado", List.of(grupo("DISPONIBLE", 3), grupo("VENDIDO", 1), grupo(null, 2)))
+                .append("tipo", List.of(grupo("SUV", 4)))
+                .append("combustible", List.of())
+                .append("condicion", List.of(grupo("NUEVO", 6)))
+                .append("valor", List.of(new Document("cantidad", 6)
+                        .append("total", new Decimal128(new BigDecimal("100000.00")))
+                        .append("promedio", new Decimal128(new BigDecimal("16666.666666")))));
+
+        EstadisticasVehiculos estadisticas = EstadisticasVehiculos.de(resultado);
+
+        assertEquals(6, estadisticas.total());
+        assertEquals(Map.of("DISPONIBLE", 3L, "VENDIDO", 1L), estadisticas.porEstado());
+        assertEquals(Map.of("SUV", 4L), estadisticas.porTipo());
+        assertEquals(Map.of(), estadisticas.porCombustible());
+        assertEquals(new BigDecimal("100000.00"), estadisticas.valorTotal());
+        assertEquals(new BigDecimal("16666.67"), estadisticas.valorPromedio());
+    }
+
+    @Test
+    void sinVehiculosDevuelveEstadisticasVacias() {
+        Document resultado = new Document("estado", List.of()).append("valor", List.of());
+
+        assertEquals(EstadisticasVehiculos.VACIAS, EstadisticasVehiculos.de(resultado));
+    }
+
+    @Test
+    void laColeccionFiltraPorConcesionarioYUsaElIndiceDeEstadisticas() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Vehiculo.class)).thenReturn("vehiculos");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("vehiculos"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        new VehiculoRepositoryCustomImpl(mongoTemplate).estadisticas("c-1");
+
+        ArgumentCaptor<Aggregation> agregacion = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(agregacion.capture(), eq("vehiculos"), eq(Document.class));
+        List<Document> etapas = agregacion.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("$match", new Document("concesionarioId", "c-1")), etapas.get(0));
+        assertTrue(etapas.get(2).containsKey("$facet"));
+        assertTrue(etapas.get(2).toJson().contains("$toDecimal"));
+        assertEquals(VehiculoRepositoryCustomImpl.INDICE_ESTADISTICAS,
+                agregacion.getValue().getOptions().getHintObject().orElseThrow());
+    }
+
+    private static Document grupo(String id, int cantidad) {
+        return new Document("_id", id).append("cantidad", cantidad);
+    }
+}
@@ -0,0 +1,59 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+
+/**
+ * Reimportar una placa no modifica su identificador: el upsert solo escribe al insertar y
+ * omite los campos que la fila no trae.
+ */
+class IdentificadorVehiculoRepositoryCustomImplTest {
+
+    @Test
+    void soloEscribeAlInsertarYDevuelveLasPlacasInsertadas() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdentificadorVehiculo.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0,
+                List.of(new BulkWriteUpsert(1, new BsonString("id-2"))), List.of()));
+
+        List<String> insertadas = new IdentificadorVehiculoRepositoryCustomImpl(mongoTemplate)
+                .insertarPorPlaca(List.of(identificador("PBA0001", "1HGCM82633A004352"), identificador("PBA0002", null)));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), updates.capture());
+        Document primero = updates.getAllValues().get(0).getUpdateObject();
+        assertFalse(primero.containsKey("$set"));
+        assertEquals(new Document("placa", "PBA0001").append("chasis", "1HGCM82633A004352"),
+                primero.get("$setOnInsert", Document.class));
+        assertEquals(new Document("placa", "PBA0002"), updates.getAllValues().get(1).getUpdateObject().get("$setOnInsert"));
+        assertEquals(List.of("PBA0002"), insertadas);
+    }
+
+    private static IdentificadorVehiculo identificador(String placa, String chasis) {
+        IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+        identificador.setPlaca(placa);
+        identificador.setChasis(chasis);
+        return identificador;
+    }
+}
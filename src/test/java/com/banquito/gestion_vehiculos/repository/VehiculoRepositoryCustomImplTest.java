@@ -0,0 +1,107 @@
+package com.banquito.gestion_vehiculos.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * El valor del vehículo se guarda como Decimal128 para que el orden por valor sea numérico,
+ * tanto al escribir el documento como en los $set posicionales sobre los arreglos embebidos.
+ * La placa se busca por igualdad con la collation del índice, no con una regex.
+ */
+class VehiculoRepositoryCustomImplTest {
+
+    private static final BigDecimal VALOR = new BigDecimal("25000.00");
+
+    @Test
+    void elValorSeEscribeComoDecimal128() {
+        MappingMongoConverter converter = converter();
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setValor(VALOR);
+        Concesionario concesionario = new Concesionario();
+        concesionario.setVehiculos(List.of(vehiculo));
+
+        Document documento = new Document();
+        converter.write(vehiculo, documento);
+        Document embebido = new Document();
+        converter.write(concesionario, embebido);
+
+        assertEquals(new Decimal128(VALOR), documento.get("valor"));
+        assertEquals(new Decimal128(VALOR), embebido.getList("vehiculos", Document.class).get(0).get("valor"));
+    }
+
+    @Test
+    void elSetPosicionalDelValorTambienEsDecimal128() {
+        MappingMongoConverter converter = converter();
+        Update update = new Update().set("vehiculos.$.valor", VALOR);
+
+        Document mapeado = new UpdateMapper(converter).getMappedObject(update.getUpdateObject(),
+                converter.getMappingContext().getPersistentEntity(Concesionario.class));
+
+        assertEquals(new Decimal128(VALOR), mapeado.get("$set", Document.class).get("vehiculos.$.valor"));
+    }
+
+    @Test
+    void laConversionSoloTocaValoresDeTexto() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Vehiculo.class)).thenReturn("vehiculos");
+        when(mongoTemplate.updateMulti(any(Query.class), any(AggregationUpdate.class), eq("vehiculos")))
+                .thenReturn(UpdateResult.acknowledged(3, 3L, null));
+
+        long convertidos = new VehiculoRepositoryCustomImpl(mongoTemplate).convertirValorADecimal();
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(consulta.capture(), any(AggregationUpdate.class), eq("vehiculos"));
+        assertEquals(3, convertidos);
+        assertEquals(new Document("valor", new Document("$type", List.of("string"))), consulta.getValue().getQueryObject());
+    }
+
+    @Test
+    void laPlacaSeBuscaPorIgualdadConLaCollationSinMayusculas() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+        Optional<Vehiculo> resultado = new VehiculoRepositoryCustomImpl(mongoTemplate).findByConcesionarioIdAndPlaca("c-1", "pba0001");
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(consulta.capture(), eq(Vehiculo.class));
+        assertEquals(Optional.empty(), resultado);
+        assertEquals(new Document("concesionarioId", "c-1").append("placa", "pba0001"), consulta.getValue().getQueryObject());
+        assertEquals(Optional.of(ConcesionarioRepositoryCustomImpl.COLACION_SIN_MAYUSCULAS), consulta.getValue().getCollation());
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversiones = new MongoCustomConversions(List.of());
+        MongoMappingContext contexto = new MongoMappingContext();
+        contexto.setSimpleTypeHolder(conversiones.getSimpleTypeHolder());
+        contexto.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+        converter.setCustomConversions(conversiones);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,136 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlmacenVehiculosTest {
+
+    private static final String RUC = "1234567890001";
+    private static final Map<String, Object> CAMPOS = Map.of("color", "Rojo");
+
+    private ConcesionarioRepository concesionarioRepository;
+    private VehiculoRepository vehiculoRepository;
+
+    @BeforeEach
+    void setUp() {
+        concesionarioRepository = mock(ConcesionarioRepository.class);
+        vehiculoRepository = mock(VehiculoRepository.class);
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(cabecera()));
+    }
+
+    @Test
+    void conDobleEscrituraCopiaALaColeccionLoQueDevolvioElArreglo() {
+        Vehiculo actualizado = vehiculo(4L);
+        when(concesionarioRepository.actualizarVehiculoPorPlaca(RUC, "PBA0001", CAMPOS, 7L)).thenReturn(Optional.of(actualizado));
+
+        Vehiculo resultado = almacen(MigracionVehiculos.Fase.DOBLE_ESCRITURA).actualizarPorPlaca(RUC, "PBA0001", CAMPOS, null);
+
+        assertEquals("c-1", resultado.getConcesionarioId());
+        InOrder orden = inOrder(concesionarioRepository, vehiculoRepository);
+        orden.verify(concesionarioRepository).actualizarVehiculoPorPlaca(RUC, "PBA0001", CAMPOS, 7L);
+        orden.verify(vehiculoRepository).reemplazarSiMasReciente("c-1", actualizado);
+        verify(vehiculoRepository, never()).actualizar(any(), any(), any());
+    }
+
+    @Test
+    void conLaColeccionComoFuenteIncrementaLaVersionYActualizaCondicionadoAlVehiculo() {
+        Vehiculo actual = vehiculo(4L);
+        when(vehiculoRepository.findByConcesionarioIdAndPlaca("c-1", "PBA0001")).thenReturn(Optional.of(actual));
+        when(concesionarioRepository.incrementarVersion(RUC, 7L)).thenReturn(true);
+        when(vehiculoRepository.actualizar("v-1", 4L, CAMPOS)).thenReturn(Optional.of(vehiculo(5L)));
+
+        Vehiculo resultado = almacen(MigracionVehiculos.Fase.COLECCION).actualizarPorPlaca(RUC, "PBA0001", CAMPOS, 7L);
+
+        assertEquals(5L, resultado.getVersion());
+        verify(concesionarioRepository, never()).actualizarVehiculoPorPlaca(any(), any(), any(), any());
+    }
+
+    @Test
+    void unVehiculoInexistenteNoIncrementaLaVersionDelConcesionario() {
+        when(vehiculoRepository.findByConcesionarioIdAndPlaca("c-1", "PBA0001")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> almacen(MigracionVehiculos.Fase.COLECCION).actualizarPorPlaca(RUC, "PBA0001", CAMPOS, null));
+        verify(concesionarioRepository, never()).incrementarVersion(any(), any());
+    }
+
+    @Test
+    void noCopiaElLoteSiElArregloNoAceptoLaEscritura() {
+        when(concesionarioRepository.agregarVehiculos(eq(RUC), anyList(), eq(7L))).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> almacen(MigracionVehiculos.Fase.DOBLE_ESCRITURA).agregarLote("importarVehiculos", RUC, List.of(vehiculo(0L))));
+        verify(vehiculoRepository, never()).insertarSiNoExisten(any(), anyList());
+    }
+
+    @Test
+    void conLaColeccionComoFuenteInvalidaSoloLosConcesionariosDeLaColeccion() {
+        when(vehiculoRepository.findConcesionarioIdsByPlacaIn(List.of("PBA0001"))).thenReturn(List.of("c-1"));
+
+        almacen(MigracionVehiculos.Fase.COLECCION).invalidarVersionesPorPlacas(List.of("PBA0001"));
+
+        verify(concesionarioRepository).incrementarVersiones(Set.of("c-1"));
+        verify(concesionarioRepository, never()).findIdsByPlacaVehiculoEmbebidoIn(any());
+    }
+
+    @Test
+    void conDobleEscrituraInvalidaTambienLosConcesionariosDelArreglo() {
+        when(vehiculoRepository.findConcesionarioIdsByPlacaIn(List.of("PBA0001"))).thenReturn(List.of("c-1"));
+        when(concesionarioRepository.findIdsByPlacaVehiculoEmbebidoIn(List.of("PBA0001"))).thenReturn(List.of("c-1", "c-2"));
+
+        almacen(MigracionVehiculos.Fase.DOBLE_ESCRITURA).invalidarVersionesPorPlacas(List.of("PBA0001"));
+
+        verify(concesionarioRepository).incrementarVersiones(Set.of("c-1", "c-2"));
+    }
+
+    private AlmacenVehiculos almacen(MigracionVehiculos.Fase fase) {
+        ConcesionarioPorRucService porRuc = new ConcesionarioPorRucService(concesionarioRepository, new ConcurrentMapCacheManager());
+        ConcurrenciaOptimista concurrencia = new ConcurrenciaOptimista(concesionarioRepository, porRuc,
+                new SimpleMeterRegistry(), 0, 0);
+        MigracionVehiculos migracion = new MigracionVehiculos(concesionarioRepository, vehiculoRepository, fase, 500, Duration.ZERO);
+        return new AlmacenVehiculos(concesionarioRepository, vehiculoRepository, porRuc, concurrencia, migracion);
+    }
+
+    private Concesionario cabecera() {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setId("c-1");
+        concesionario.setRuc(RUC);
+        concesionario.setVersion(7L);
+        return concesionario;
+    }
+
+    private Vehiculo vehiculo(Long version) {
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setId("v-1");
+        vehiculo.setPlaca("PBA0001");
+        vehiculo.setVersion(version);
+        return vehiculo;
+    }
+}
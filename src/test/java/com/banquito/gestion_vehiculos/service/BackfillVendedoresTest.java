@@ -0,0 +1,117 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BackfillVendedoresTest {
+
+    private ConcesionarioRepository concesionarioRepository;
+    private VendedorRepository vendedorRepository;
+    private IndiceNombresVendedores indiceNombresVendedores;
+    private SimpleMeterRegistry meterRegistry;
+    private BackfillVendedores backfill;
+
+    @BeforeEach
+    void setUp() {
+        concesionarioRepository = mock(ConcesionarioRepository.class);
+        vendedorRepository = mock(VendedorRepository.class);
+        indiceNombresVendedores = mock(IndiceNombresVendedores.class);
+        meterRegistry = new SimpleMeterRegistry();
+        backfill = new BackfillVendedores(concesionarioRepository, vendedorRepository,
+                new ConcesionarioPorRucService(concesionarioRepository, new ConcurrentMapCacheManager()),
+                indiceNombresVendedores, meterRegistry);
+    }
+
+    @Test
+    void copiaLosVendedoresYQuitaElArregloSoloSiEstanTodos() {
+        List<Vendedor> vendedores = List.of(vendedor("vd-1"), vendedor("vd-2"));
+        when(concesionarioRepository.streamPendientesMigracionVendedores())
+                .thenReturn(Stream.of(concesionario("c-1", vendedores), concesionario("c-2", List.of(vendedor("vd-3")))));
+        when(vendedorRepository.findIdsExistentes(List.of("vd-1", "vd-2"))).thenReturn(Set.of("vd-1", "vd-2"));
+        when(vendedorRepository.findIdsExistentes(List.of("vd-3"))).thenReturn(Set.of());
+
+        backfill.completar();
+
+        verify(vendedorRepository).insertarSiNoExisten("c-1", vendedores);
+        verify(concesionarioRepository).marcarVendedoresMigrados("c-1");
+        verify(concesionarioRepository, never()).marcarVendedoresMigrados("c-2");
+        verify(indiceNombresVendedores).registrar("1234567890001", vendedores.get(0));
+    }
+
+    @Test
+    void losVendedoresEnConflictoQuedanRegistradosYElConcesionarioDejaDeReintentarse() {
+        List<Vendedor> vendedores = List.of(vendedor("vd-1"), vendedor("vd-2"));
+        when(concesionarioRepository.streamPendientesMigracionVendedores())
+                .thenReturn(Stream.of(concesionario("c-1", vendedores)));
+        when(vendedorRepository.findIdsExistentes(List.of("vd-1", "vd-2"))).thenReturn(Set.of("vd-1"));
+
+        backfill.completar();
+
+        verify(concesionarioRepository).marcarVendedoresEnConflicto("c-1", List.of("vd-2"));
+        verify(concesionarioRepository, never()).marcarVendedoresMigrados("c-1");
+        assertEquals(1.0, meterRegistry.counter("vendedores.backfill.conflictos").count());
+
+        Concesionario cabecera = concesionario("c-1", null);
+        cabecera.setVendedoresEnConflicto(List.of("vd-2"));
+        backfill.asegurar(cabecera);
+
+        verify(concesionarioRepository, never()).findVendedoresEmbebidosById("c-1");
+    }
+
+    @Test
+    void alUsarUnConcesionarioPendienteLoMigraAntes() {
+        Concesionario cabecera = concesionario("c-1", null);
+        when(concesionarioRepository.findVendedoresEmbebidosById("c-1")).thenReturn(Optional.of(List.of()));
+
+        backfill.asegurar(cabecera);
+
+        verify(concesionarioRepository).marcarVendedoresMigrados("c-1");
+    }
+
+    @Test
+    void unConcesionarioMigradoNoConsultaLaBase() {
+        Concesionario cabecera = concesionario("c-1", null);
+        cabecera.setVendedoresMigrados(true);
+
+        backfill.asegurar(cabecera);
+
+        verifyNoInteractions(concesionarioRepository, vendedorRepository);
+        verify(indiceNombresVendedores, never()).registrar(any(), any());
+    }
+
+    private Concesionario concesionario(String id, List<Vendedor> vendedores) {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setId(id);
+        concesionario.setRuc("1234567890001");
+        concesionario.setVendedores(vendedores);
+        return concesionario;
+    }
+
+    private Vendedor vendedor(String id) {
+        Vendedor vendedor = new Vendedor();
+        vendedor.setId(id);
+        vendedor.setNombre("Vendedor " + id);
+        return vendedor;
+    }
+}
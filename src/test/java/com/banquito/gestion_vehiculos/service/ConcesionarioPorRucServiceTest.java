@@ -0,0 +1,99 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+
+@SpringJUnitConfig(classes = { CacheConfig.class, ConcesionarioPorRucService.class, ConcesionarioPorRucServiceTest.Conversiones.class })
+class ConcesionarioPorRucServiceTest {
+
+    private static final String RUC = "1234567890001";
+
+    @MockBean
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private ConcesionarioPorRucService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    static class Conversiones {
+
+        // Convierte las propiedades de CacheConfig (Duration) como lo hace Spring Boot
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CONCESIONARIOS_POR_RUC).clear();
+        reset(concesionarioRepository);
+    }
+
+    @Test
+    void leeDeLaBaseSoloHastaQueSeInvalida() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(concesionario(1L)));
+
+        service.buscar(RUC);
+        service.buscar(RUC);
+        verify(concesionarioRepository, times(1)).findCabeceraByRuc(RUC);
+
+        service.invalidar(RUC);
+        service.buscar(RUC);
+        verify(concesionarioRepository, times(2)).findCabeceraByRuc(RUC);
+    }
+
+    @Test
+    void noCacheaRucInexistentes() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.empty());
+
+        assertTrue(service.buscar(RUC).isEmpty());
+        assertTrue(service.buscar(RUC).isEmpty());
+
+        verify(concesionarioRepository, times(2)).findCabeceraByRuc(RUC);
+    }
+
+    @Test
+    void descartaLaEntradaSiLaVersionVigenteEsOtra() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC))
+                .thenReturn(Optional.of(concesionario(1L)))
+                .thenReturn(Optional.of(concesionario(2L)));
+        service.buscar(RUC);
+
+        service.descartarSiDesactualizado(RUC, 1L);
+        assertEquals(1L, service.buscar(RUC).orElseThrow().getVersion());
+
+        service.descartarSiDesactualizado(RUC, 2L);
+        assertEquals(2L, service.buscar(RUC).orElseThrow().getVersion());
+        verify(concesionarioRepository, times(2)).findCabeceraByRuc(RUC);
+    }
+
+    private Concesionario concesionario(Long version) {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setRuc(RUC);
+        concesionario.setVersion(version);
+        return concesionario;
+    }
+}
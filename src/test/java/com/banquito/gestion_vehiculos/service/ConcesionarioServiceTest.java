@@ -0,0 +1,192 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.dto.VehiculoDTO;
+import com.banquito.gestion_vehiculos.dto.VendedorDTO;
+import com.banquito.gestion_vehiculos.mapper.ConcesionarioMapper;
+import com.banquito.gestion_vehiculos.mapper.IdentificadorVehiculoMapper;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.mapper.VendedorMapper;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ConcesionarioServiceTest {
+
+    private static final String RUC = "1234567890001";
+
+    @Mock
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Mock
+    private IdentificadorVehiculoRepository identificadorVehiculoRepository;
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private VendedorRepository vendedorRepository;
+
+    @Mock
+    private ConcurrenciaOptimista concurrencia;
+
+    @Mock
+    private IndiceVehiculos indiceVehiculos;
+
+    @Mock
+    private IndiceNombresVendedores indiceNombresVendedores;
+
+    @Spy
+    private IdentificadorVehiculoMapper identificadorVehiculoMapper;
+
+    @InjectMocks
+    private VehiculoMapper vehiculoMapper;
+
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+    private ConcesionarioService service;
+
+    @BeforeEach
+    void setUp() {
+        // Sin filtro de Bloom cargado: todas las placas se consultan en la base
+        cacheManager.registerCustomCache(CacheConfig.IDENTIFICADORES_POR_PLACA, Caffeine.newBuilder().build());
+        ReflectionTestUtils.setField(vehiculoMapper, "identificadoresPorPlaca", new IdentificadoresPorPlaca(
+                identificadorVehiculoRepository, cacheManager, new SimpleMeterRegistry(), 0.01));
+        ConcesionarioPorRucService porRuc = new ConcesionarioPorRucService(concesionarioRepository, new ConcurrentMapCacheManager());
+        MigracionVehiculos migracion = new MigracionVehiculos(concesionarioRepository, vehiculoRepository,
+                MigracionVehiculos.Fase.COLECCION, 500, Duration.ZERO);
+        service = new ConcesionarioService(concesionarioRepository, porRuc,
+                new ConcesionarioMapper(), vehiculoMapper,
+                new VendedorMapper(), concurrencia, indiceVehiculos,
+                indiceNombresVendedores,
+                new AlmacenVehiculos(concesionarioRepository, vehiculoRepository, porRuc, concurrencia, migracion),
+                vendedorRepository,
+                new BackfillVendedores(concesionarioRepository, vendedorRepository, porRuc, indiceNombresVendedores,
+                        new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void listarVehiculosPorRucEmiteUnaConsultaDeIdentificadoresPorLote() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(concesionario()));
+        when(vehiculoRepository.findByConcesionarioId("c-1")).thenReturn(vehiculos(50));
+        when(identificadorVehiculoRepository.findByPlacaIn(anyCollection())).thenReturn(List.of(identificador("PBA-0001")));
+
+        List<VehiculoDTO> resultado = service.findVehiculosByRuc(RUC);
+
+        assertEquals(50, resultado.size());
+        assertEquals("PBA-0001", resultado.get(1).getIdentificadorVehiculo().getPlaca());
+        verify(concesionarioRepository, times(1)).findCabeceraByRuc(RUC);
+        verify(vehiculoRepository, times(1)).findByConcesionarioId("c-1");
+        verify(identificadorVehiculoRepository, times(1)).findByPlacaIn(anyCollection());
+        verifyNoMoreInteractions(concesionarioRepository, vehiculoRepository, identificadorVehiculoRepository);
+    }
+
+    @Test
+    void buscarVendedorPorCedulaEsUnaLecturaIndexadaSinLeerElArregloDelConcesionario() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(concesionario()));
+        Vendedor vendedor = new Vendedor();
+        vendedor.setId("vd-1");
+        vendedor.setCedula("0102030405");
+        when(vendedorRepository.findByConcesionarioIdAndCedula("c-1", "0102030405")).thenReturn(Optional.of(vendedor));
+
+        VendedorDTO resultado = service.findVendedorByCedulaInConcesionario(RUC, "0102030405");
+
+        assertEquals("vd-1", resultado.getId());
+        verify(concesionarioRepository, times(1)).findCabeceraByRuc(RUC);
+        verify(vendedorRepository, times(1)).findByConcesionarioIdAndCedula("c-1", "0102030405");
+        verifyNoMoreInteractions(concesionarioRepository, vendedorRepository);
+    }
+
+    @Test
+    void buscarVendedoresPorNombreEnConcesionarioLeeDeLaBaseYNoDelIndice() {
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(concesionario()));
+        Vendedor otro = new Vendedor();
+        otro.setId("vd-1");
+        otro.setNombre("Pedro Salas");
+        Vendedor creadoEnOtraInstancia = new Vendedor();
+        creadoEnOtraInstancia.setId("vd-2");
+        creadoEnOtraInstancia.setNombre("José Núñez");
+        when(vendedorRepository.findByConcesionarioId("c-1")).thenReturn(List.of(otro, creadoEnOtraInstancia));
+
+        List<VendedorDTO> resultado = service.buscarVendedoresPorNombreInConcesionario(RUC, "jose", null);
+
+        assertEquals(List.of("vd-2"), resultado.stream().map(VendedorDTO::getId).toList());
+        verifyNoInteractions(indiceNombresVendedores);
+    }
+
+    @Test
+    void conConflictosDeBackfillLosVendedoresSeLeenDelArregloEmbebido() {
+        Concesionario cabecera = concesionario();
+        cabecera.setVendedoresMigrados(null);
+        cabecera.setVendedoresEnConflicto(List.of("vd-1"));
+        when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(Optional.of(cabecera));
+        Vendedor embebido = new Vendedor();
+        embebido.setId("vd-1");
+        embebido.setCedula("0102030405");
+        when(concesionarioRepository.findVendedoresEmbebidosById("c-1")).thenReturn(Optional.of(List.of(embebido)));
+
+        VendedorDTO resultado = service.findVendedorByCedulaInConcesionario(RUC, "0102030405");
+
+        assertEquals("vd-1", resultado.getId());
+        verifyNoInteractions(vendedorRepository);
+    }
+
+    private Concesionario concesionario() {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setId("c-1");
+        concesionario.setRuc(RUC);
+        concesionario.setVendedoresMigrados(true);
+        return concesionario;
+    }
+
+    private List<Vehiculo> vehiculos(int cantidad) {
+        List<Vehiculo> vehiculos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Vehiculo vehiculo = new Vehiculo();
+            vehiculo.setId("v-" + i);
+            vehiculo.setPlaca(String.format("PBA-%04d", i));
+            vehiculos.add(vehiculo);
+        }
+        return vehiculos;
+    }
+
+    private IdentificadorVehiculo identificador(String placa) {
+        IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+        identificador.setId("id-" + placa);
+        identificador.setPlaca(placa);
+        return identificador;
+    }
+}
@@ -0,0 +1,145 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+
+import com.banquito.gestion_vehiculos.exception.ConflictoConcurrenciaException;
+import com.banquito.gestion_vehiculos.exception.PrecondicionFallidaException;
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compare-and-set sobre la versión del concesionario: reintenta mientras otro proceso lo
+ * modifica, responde 409 agotados los reintentos y 412 si no coincide el If-Match.
+ */
+class ConcurrenciaOptimistaTest {
+
+    private static final String RUC = "1234567890001";
+    private static final int MAX_REINTENTOS = 2;
+
+    private ConcesionarioRepository concesionarioRepository;
+    private ConcesionarioPorRucService concesionarioPorRucService;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrenciaOptimista concurrencia;
+
+    @BeforeEach
+    void setUp() {
+        concesionarioRepository = mock(ConcesionarioRepository.class);
+        concesionarioPorRucService = mock(ConcesionarioPorRucService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencia = new ConcurrenciaOptimista(concesionarioRepository, concesionarioPorRucService, meterRegistry,
+                MAX_REINTENTOS, 1);
+    }
+
+    @Test
+    void reintentaConLaNuevaVersionHastaQueLaEscrituraSeAplica() {
+        versiones(1L, 2L, 2L);
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = concurrencia.ejecutar("prueba", RUC,
+                cabecera -> intentos.incrementAndGet() == 1 ? Optional.empty() : Optional.of("v" + cabecera.getVersion()),
+                () -> new ResourceNotFoundException("no"));
+
+        assertEquals("v2", resultado);
+        assertEquals(2, intentos.get());
+        assertEquals(1, meterRegistry.counter("concesionario.cas.reintentos", "operacion", "prueba").count());
+    }
+
+    @Test
+    void agotadosLosReintentosRespondeConflicto() {
+        versiones(1L, 2L, 2L, 3L, 3L, 4L);
+        AtomicInteger intentos = new AtomicInteger();
+
+        ConflictoConcurrenciaException error = assertThrows(ConflictoConcurrenciaException.class,
+                () -> concurrencia.ejecutar("prueba", RUC, cabecera -> {
+                    intentos.incrementAndGet();
+                    return Optional.empty();
+                }, () -> new ResourceNotFoundException("no")));
+
+        assertEquals(409, error.getErrorCode());
+        assertEquals(MAX_REINTENTOS + 1, intentos.get());
+        assertEquals(1, meterRegistry.counter("concesionario.cas.conflictos", "operacion", "prueba").count());
+    }
+
+    @Test
+    void siLaVersionNoCambioElElementoNoExiste() {
+        versiones(1L, 1L);
+        ResourceNotFoundException noEncontrado = new ResourceNotFoundException("Vendedor no encontrado");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> concurrencia.ejecutar("prueba", RUC, cabecera -> Optional.empty(), () -> noEncontrado));
+
+        assertSame(noEncontrado, error);
+    }
+
+    @Test
+    void conIfMatchDistintoRespondePrecondicionFallidaSinIntentar() {
+        versiones(3L);
+        Function<Concesionario, Optional<String>> intento = cabecera -> {
+            throw new AssertionError("No debe intentarse la escritura");
+        };
+
+        assertThrows(PrecondicionFallidaException.class,
+                () -> concurrencia.ejecutar("prueba", RUC, 2L, intento, () -> new ResourceNotFoundException("no")));
+    }
+
+    @Test
+    void conIfMatchSiOtroProcesoEscribioAntesRespondePrecondicionFallida() {
+        versiones(2L, 3L);
+
+        assertThrows(PrecondicionFallidaException.class, () -> concurrencia.ejecutar("prueba", RUC, 2L,
+                cabecera -> Optional.empty(), () -> new ResourceNotFoundException("no")));
+    }
+
+    @Test
+    void conIfMatchVigenteHaceUnSoloIntento() {
+        versiones(2L);
+
+        assertEquals("ok", concurrencia.ejecutar("prueba", RUC, 2L, cabecera -> Optional.of("ok"),
+                () -> new ResourceNotFoundException("no")));
+    }
+
+    @Test
+    void invalidaLaCacheAunqueElIntentoFalle() {
+        versiones(1L);
+
+        assertThrows(IllegalStateException.class, () -> concurrencia.ejecutar("prueba", RUC, cabecera -> {
+            throw new IllegalStateException("falló después de escribir");
+        }, () -> new ResourceNotFoundException("no")));
+
+        verify(concesionarioPorRucService).invalidar(RUC);
+    }
+
+    /**
+     * Versiones que devuelven las lecturas sucesivas de la cabecera.
+     */
+    private void versiones(Long primera, Long... siguientes) {
+        Optional<Concesionario> inicial = Optional.of(cabecera(primera));
+        OngoingStubbing<Optional<Concesionario>> stub = when(concesionarioRepository.findCabeceraByRuc(RUC)).thenReturn(inicial);
+        for (Long version : siguientes) {
+            stub = stub.thenReturn(Optional.of(cabecera(version)));
+        }
+    }
+
+    private static Concesionario cabecera(Long version) {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setRuc(RUC);
+        concesionario.setVersion(version);
+        return concesionario;
+    }
+}
@@ -0,0 +1,49 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+    private static final int CAPACIDAD = 10_000;
+    private static final double TASA = 0.01;
+
+    @Test
+    void noTieneFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(CAPACIDAD, TASA);
+        for (int i = 0; i < CAPACIDAD; i++) {
+            filtro.agregar(placa(i));
+        }
+
+        for (int i = 0; i < CAPACIDAD; i++) {
+            assertTrue(filtro.puedeContener(placa(i)), placa(i));
+        }
+        assertEquals(CAPACIDAD, filtro.elementos());
+    }
+
+    @Test
+    void respetaLaTasaDeFalsosPositivosALaCapacidad() {
+        FiltroBloom filtro = new FiltroBloom(CAPACIDAD, TASA);
+        for (int i = 0; i < CAPACIDAD; i++) {
+            filtro.agregar(placa(i));
+        }
+
+        int falsosPositivos = 0;
+        int consultas = 100_000;
+        for (int i = CAPACIDAD; i < CAPACIDAD + consultas; i++) {
+            if (filtro.puedeContener(placa(i))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue((double) falsosPositivos / consultas < TASA * 2, "falsos positivos: " + falsosPositivos);
+        assertTrue(Math.abs(filtro.tasaFalsosPositivosEstimada() - TASA) < TASA / 2);
+        // ~9,6 bits por elemento para el 1 %
+        assertTrue(filtro.bytes() <= CAPACIDAD * 10 / 8 + 64);
+    }
+
+    private String placa(int i) {
+        return "P" + (char) ('A' + i / 10_000 % 26) + String.format("%04d", i % 10_000);
+    }
+}
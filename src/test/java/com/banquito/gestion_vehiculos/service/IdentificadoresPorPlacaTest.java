@@ -0,0 +1,116 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.banquito.gestion_vehiculos.config.CacheConfig;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdentificadoresPorPlacaTest {
+
+    private IdentificadorVehiculoRepository repositorio;
+    private SimpleMeterRegistry registro;
+    private IdentificadoresPorPlaca identificadores;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = mock(IdentificadorVehiculoRepository.class);
+        registro = new SimpleMeterRegistry();
+        identificadores = new IdentificadoresPorPlaca(repositorio, cacheManager(), registro, 0.01);
+        when(repositorio.count()).thenReturn(2L);
+        when(repositorio.streamPlacas()).thenReturn(Stream.of("PBA0001", "PBA0002"));
+        identificadores.reconstruir();
+    }
+
+    private static CaffeineCacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.IDENTIFICADORES_POR_PLACA, Caffeine.newBuilder().build());
+        return cacheManager;
+    }
+
+    @Test
+    void unIdentificadorCreadoEnOtraInstanciaSeEncuentraAunqueNoEsteEnElFiltro() {
+        // PBC0001 se creó en otra instancia después de la última reconstrucción del filtro
+        when(repositorio.findByPlacaIn(List.of("PBA0001", "PBC0001")))
+                .thenReturn(List.of(identificador("PBA0001"), identificador("PBC0001")));
+
+        Map<String, IdentificadorVehiculo> encontrados = identificadores.buscarTodas(List.of("PBA0001", "PBC0001"));
+
+        assertEquals(2, encontrados.size());
+        assertTrue(encontrados.containsKey("PBC0001"));
+        assertEquals(1, registro.get("identificadores.bloom.negativos").counter().count());
+        assertEquals(1, registro.get("identificadores.bloom.desactualizados").counter().count());
+        assertEquals(3, registro.get("identificadores.bloom.elementos").gauge().value());
+    }
+
+    @Test
+    void lasPlacasNuevasQueElFiltroDescartaNoLleganAMongo() {
+        when(repositorio.findByPlacaIn(List.of("PBA0001"))).thenReturn(List.of(identificador("PBA0001")));
+
+        Map<String, IdentificadorVehiculo> encontrados = identificadores.buscarNuevas(List.of("PBA0001", "PBZ0001", "PBZ0002"));
+
+        assertEquals(List.of("PBA0001"), List.copyOf(encontrados.keySet()));
+        assertTrue(identificadores.buscarNueva("PBZ0003").isEmpty());
+        // Una sola consulta, solo con la placa que el filtro puede contener
+        verify(repositorio, times(1)).findByPlacaIn(anyCollection());
+        verify(repositorio).findByPlacaIn(List.of("PBA0001"));
+        assertEquals(3, registro.get("identificadores.bloom.descartados").counter().count());
+    }
+
+    @Test
+    void sinFiltroCargadoLasPlacasNuevasSeConsultan() {
+        IdentificadoresPorPlaca sinFiltro = new IdentificadoresPorPlaca(repositorio, cacheManager(), new SimpleMeterRegistry(), 0.01);
+        when(repositorio.findByPlacaIn(List.of("PBZ0001"))).thenReturn(List.of(identificador("PBZ0001")));
+
+        assertTrue(sinFiltro.buscarNueva("PBZ0001").isPresent());
+    }
+
+    @Test
+    void laCacheEvitaRepetirLecturasPeroNoGuardaAusencias() {
+        when(repositorio.findByPlacaIn(List.of("PBA0001", "PBA0002"))).thenReturn(List.of(identificador("PBA0001")));
+        when(repositorio.findByPlacaIn(List.of("PBA0002"))).thenReturn(List.of(identificador("PBA0002")));
+
+        identificadores.buscarTodas(List.of("PBA0001", "PBA0002"));
+        Map<String, IdentificadorVehiculo> segunda = identificadores.buscarTodas(List.of("PBA0001", "PBA0002"));
+
+        // PBA0001 sale de la caché; PBA0002 no existía y se vuelve a consultar, ya creado por otra instancia
+        assertEquals(2, segunda.size());
+        verify(repositorio, times(1)).findByPlacaIn(List.of("PBA0001", "PBA0002"));
+        verify(repositorio, times(1)).findByPlacaIn(List.of("PBA0002"));
+        assertEquals(1, registro.get("identificadores.bloom.falsos.positivos").counter().count());
+    }
+
+    @Test
+    void lasAltasEntranAlFiltroYALaCache() {
+        IdentificadorVehiculo nuevo = identificador("PBB0001");
+
+        identificadores.registrar(nuevo);
+
+        assertTrue(identificadores.buscar("PBB0001").isPresent());
+        assertEquals(3, registro.get("identificadores.bloom.elementos").gauge().value());
+        verify(repositorio, times(0)).findByPlacaIn(List.of("PBB0001"));
+    }
+
+    private IdentificadorVehiculo identificador(String placa) {
+        IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+        identificador.setPlaca(placa);
+        return identificador;
+    }
+}
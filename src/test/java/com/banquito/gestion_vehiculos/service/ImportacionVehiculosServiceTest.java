@@ -0,0 +1,193 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gestion_vehiculos.dto.ResumenImportacionVehiculosDTO;
+import com.banquito.gestion_vehiculos.exception.ResourceNotFoundException;
+import com.banquito.gestion_vehiculos.mapper.VehiculoMapper;
+import com.banquito.gestion_vehiculos.model.IdentificadorVehiculo;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.IdentificadorVehiculoRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+class ImportacionVehiculosServiceTest {
+
+    private static final String RUC = "1234567890001";
+    private static final String CABECERA = "marca,modelo,cilindraje,anio,valor,color,extras,estado,tipo,combustible,condicion,placa,chasis,motor\r\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private AlmacenVehiculos almacenVehiculos;
+    private IdentificadorVehiculoRepository identificadorVehiculoRepository;
+    private IdentificadoresPorPlaca identificadoresPorPlaca;
+    private ImportacionVehiculosService service;
+    private final List<List<Vehiculo>> lotes = new ArrayList<>();
+    private final List<List<IdentificadorVehiculo>> identificadores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        almacenVehiculos = mock(AlmacenVehiculos.class);
+        identificadorVehiculoRepository = mock(IdentificadorVehiculoRepository.class);
+        doAnswer(invocacion -> {
+            lotes.add(new ArrayList<>(invocacion.<List<Vehiculo>>getArgument(2)));
+            return null;
+        }).when(almacenVehiculos).agregarLote(any(), eq(RUC), anyList());
+        when(identificadorVehiculoRepository.insertarPorPlaca(anyList())).thenAnswer(invocacion -> {
+            List<IdentificadorVehiculo> lote = new ArrayList<>(invocacion.<List<IdentificadorVehiculo>>getArgument(0));
+            identificadores.add(lote);
+            return lote.stream().map(IdentificadorVehiculo::getPlaca).toList();
+        });
+        identificadoresPorPlaca = mock(IdentificadoresPorPlaca.class);
+        service = new ImportacionVehiculosService(almacenVehiculos, identificadorVehiculoRepository,
+                identificadoresPorPlaca, mock(IndiceVehiculos.class), new VehiculoMapper(), objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+    }
+
+    @Test
+    void importaCsvEnLotesYReportaCadaFilaEnOrden() throws Exception {
+        when(almacenVehiculos.placasPorRuc(RUC)).thenReturn(Optional.of(List.of("pba0001")));
+        String csv = CABECERA
+                + "Toyota,Hilux,2.4,2022,35000.50,Blanco,\"Cabina doble, 4x4\",DISPONIBLE,CAMIONETA,DIESEL,NUEVO,PBB0001,1HGCM82633A004352,M1\r\n"
+                + "Kia,Rio,1.4,2021,15000,Rojo,\"Línea 1\nLínea 2\",DISPONIBLE,SEDAN,GASOLINA,USADO,PBB0002,,\r\n"
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBA0001,,\r\n"
+                + ",Rio,1.4,1800,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBB0003,,\r\n"
+                + "Chevrolet,Spark,1.0,2020,9000,Gris,,DISPONIBLE,AUTOMOVIL,GASOLINA,USADO,pbb0001,,\r\n"
+                + "Chevrolet,Spark,1.0,2020,9000,Gris,,DISPONIBLE,AUTOMOVIL,GASOLINA,USADO,PBB0004,,\r\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ResumenImportacionVehiculosDTO resumen = service.importarCsv(RUC, entrada(csv), () -> salida);
+
+        assertEquals(6, resumen.getFilas());
+        assertEquals(3, resumen.getCreados());
+        assertEquals(3, resumen.getErrores());
+        assertEquals(List.of(List.of("PBB0001", "PBB0002"), List.of("PBB0004")),
+                lotes.stream().map(lote -> lote.stream().map(Vehiculo::getPlaca).toList()).toList());
+        assertEquals("Cabina doble, 4x4", lotes.get(0).get(0).getExtras());
+        assertEquals("Línea 1\nLínea 2", lotes.get(0).get(1).getExtras());
+        assertEquals(1, identificadores.get(0).size());
+        assertEquals("1HGCM82633A004352", identificadores.get(0).get(0).getChasis());
+
+        List<JsonNode> reporte = lineas(salida);
+        assertEquals(7, reporte.size());
+        assertEquals(List.of("CREADO", "CREADO", "ERROR", "ERROR", "ERROR", "CREADO"),
+                reporte.subList(0, 6).stream().map(linea -> linea.get("estado").asText()).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), reporte.subList(0, 6).stream().map(linea -> linea.get("fila").asInt()).toList());
+        assertTrue(reporte.get(2).get("errores").get(0).asText().startsWith("Ya existe un vehículo con la misma placa"));
+        assertEquals(2, reporte.get(3).get("errores").size());
+        assertEquals(3, reporte.get(6).get("creados").asInt());
+    }
+
+    @Test
+    void reportaLineasNdjsonInvalidasSinDetenerLaImportacion() throws Exception {
+        when(almacenVehiculos.placasPorRuc(RUC)).thenReturn(Optional.of(List.of()));
+        String ndjson = "{\"marca\":\"Kia\",\"modelo\":\"Rio\",\"anio\":\"2021\",\"valor\":15000,\"color\":\"Rojo\","
+                + "\"estado\":\"DISPONIBLE\",\"tipo\":\"SEDAN\",\"combustible\":\"GASOLINA\",\"condicion\":\"USADO\",\"placa\":\"PBC0001\"}\n"
+                + "\n"
+                + "{\"marca\":\"Kia\",\"tipo\":\"AVION\"}\n"
+                + "{no es json\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ResumenImportacionVehiculosDTO resumen = service.importarNdjson(RUC, entrada(ndjson), () -> salida);
+
+        assertEquals(3, resumen.getFilas());
+        assertEquals(1, resumen.getCreados());
+        List<JsonNode> reporte = lineas(salida);
+        assertEquals("Valor inválido para tipo", reporte.get(1).get("errores").get(0).asText());
+        assertTrue(reporte.get(2).get("errores").get(0).asText().startsWith("JSON inválido"));
+        assertTrue(identificadores.get(0).isEmpty());
+    }
+
+    @Test
+    void unaPlacaConOtroIdentificadorSeRechazaSinSobrescribirlo() throws Exception {
+        when(almacenVehiculos.placasPorRuc(RUC)).thenReturn(Optional.of(List.of()));
+        when(identificadoresPorPlaca.buscarNuevas(anyList()))
+                .thenReturn(Map.of("PBD0001", identificador("PBD0001", "1HGCM82633A000001", null),
+                        "PBD0002", identificador("PBD0002", "1HGCM82633A000002", "M2")));
+        String csv = CABECERA
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBD0001,1HGCM82633A999999,\r\n"
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBD0002,1HGCM82633A000002,\r\n"
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBD0003,,M3\r\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ResumenImportacionVehiculosDTO resumen = service.importarCsv(RUC, entrada(csv), () -> salida);
+
+        assertEquals(2, resumen.getCreados());
+        assertEquals(List.of("PBD0002", "PBD0003"), lotes.stream().flatMap(List::stream).map(Vehiculo::getPlaca).toList());
+        assertEquals(List.of("PBD0003"), identificadores.stream().flatMap(List::stream).map(IdentificadorVehiculo::getPlaca).toList());
+        List<JsonNode> reporte = lineas(salida);
+        assertEquals("ERROR", reporte.get(0).get("estado").asText());
+        assertTrue(reporte.get(0).get("errores").get(0).asText().startsWith("Ya existe un identificador con la placa PBD0001"));
+    }
+
+    @Test
+    void siFallaElLoteDeVehiculosSeEliminanLosIdentificadoresInsertados() throws Exception {
+        when(almacenVehiculos.placasPorRuc(RUC)).thenReturn(Optional.of(List.of()));
+        doThrow(new IllegalStateException("sin conexión")).when(almacenVehiculos).agregarLote(any(), eq(RUC), anyList());
+        String csv = CABECERA
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBE0001,1HGCM82633A004352,\r\n"
+                + "Kia,Rio,1.4,2021,15000,Rojo,,DISPONIBLE,SEDAN,GASOLINA,USADO,PBE0002,,\r\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ResumenImportacionVehiculosDTO resumen = service.importarCsv(RUC, entrada(csv), () -> salida);
+
+        assertEquals(0, resumen.getCreados());
+        assertEquals(2, resumen.getErrores());
+        verify(identificadorVehiculoRepository).deleteByPlacaIn(List.of("PBE0001"));
+    }
+
+    @Test
+    void noEscribeElReporteSiNoExisteElConcesionario() {
+        when(almacenVehiculos.placasPorRuc(RUC)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.importarCsv(RUC, entrada(CABECERA), () -> {
+            throw new AssertionError("No debe abrirse el reporte");
+        }));
+        verify(almacenVehiculos, never()).agregarLote(any(), any(), anyList());
+    }
+
+    private static IdentificadorVehiculo identificador(String placa, String chasis, String motor) {
+        IdentificadorVehiculo identificador = new IdentificadorVehiculo();
+        identificador.setPlaca(placa);
+        identificador.setChasis(chasis);
+        identificador.setMotor(motor);
+        return identificador;
+    }
+
+    private ByteArrayInputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<JsonNode> lineas(ByteArrayOutputStream salida) throws Exception {
+        List<JsonNode> lineas = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+            lineas.add(objectMapper.readTree(linea));
+        }
+        return lineas;
+    }
+}
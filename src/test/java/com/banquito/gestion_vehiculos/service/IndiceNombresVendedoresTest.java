@@ -0,0 +1,74 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gestion_vehiculos.model.Vendedor;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VendedorRepository;
+
+class IndiceNombresVendedoresTest {
+
+    private IndiceNombresVendedores indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceNombresVendedores(mock(ConcesionarioRepository.class), mock(VendedorRepository.class));
+        indice.registrar("R1", vendedor("1", "José Núñez"));
+        indice.registrar("R1", vendedor("2", "Ana Josefina Pérez"));
+        indice.registrar("R2", vendedor("3", "Joselito Andrade"));
+        indice.registrar("R2", vendedor("4", "María Lojosé"));
+    }
+
+    @Test
+    void ignoraTildesYMayusculasYOrdenaPorRelevancia() {
+        assertEquals(List.of("1", "3", "2", "4"), ids(indice.buscar(null, "JOSE", null)));
+    }
+
+    @Test
+    void limitaLaBusquedaAlConcesionario() {
+        assertEquals(List.of("3", "4"), ids(indice.buscar("R2", "jose", null)));
+        assertEquals(List.of("1"), ids(indice.buscar("R1", "jose", 1)));
+    }
+
+    @Test
+    void consultasCortasBuscanPorInicioDePalabra() {
+        assertEquals(List.of("1", "3", "2"), ids(indice.buscar(null, "jo", null)));
+        assertEquals(List.of("2"), ids(indice.buscar(null, "a", null)).subList(0, 1));
+    }
+
+    @Test
+    void reindexaElNombreAlActualizar() {
+        indice.registrar("R1", vendedor("1", "Pedro Salas"));
+
+        assertEquals(List.of("3", "2", "4"), ids(indice.buscar(null, "jose", null)));
+        assertEquals(List.of("1"), ids(indice.buscar(null, "salas", null)));
+    }
+
+    @Test
+    void filtrarOrdenaVendedoresLeidosDeLaBaseIgualQueElIndice() {
+        List<Vendedor> leidos = List.of(vendedor("4", "María Lojosé"), vendedor("2", "Ana Josefina Pérez"),
+                vendedor("1", "José Núñez"), vendedor("5", "Pedro Salas"));
+
+        assertEquals(List.of("1", "2", "4"), IndiceNombresVendedores.filtrar(leidos, "JOSE", null).stream()
+                .map(Vendedor::getId).toList());
+        assertEquals(List.of("1"), IndiceNombresVendedores.filtrar(leidos, "jo", 1).stream()
+                .map(Vendedor::getId).toList());
+    }
+
+    private List<String> ids(List<IndiceNombresVendedores.Entrada> entradas) {
+        return entradas.stream().map(e -> e.vendedor().getId()).toList();
+    }
+
+    private Vendedor vendedor(String id, String nombre) {
+        Vendedor vendedor = new Vendedor();
+        vendedor.setId(id);
+        vendedor.setNombre(nombre);
+        return vendedor;
+    }
+}
@@ -0,0 +1,86 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gestion_vehiculos.enums.CombustibleVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.CondicionVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.EstadoVehiculoEnum;
+import com.banquito.gestion_vehiculos.enums.TipoVehiculoEnum;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+
+class IndiceVehiculosTest {
+
+    private IndiceVehiculos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceVehiculos(mock(AlmacenVehiculos.class));
+        indice.registrar("R1", vehiculo("v-1", "Toyota", TipoVehiculoEnum.SUV, EstadoVehiculoEnum.DISPONIBLE, "2020", "30000"));
+        indice.registrar("R1", vehiculo("v-2", "Toyota", TipoVehiculoEnum.SEDAN, EstadoVehiculoEnum.DISPONIBLE, "2018", "18000"));
+        indice.registrar("R2", vehiculo("v-3", "Kia", TipoVehiculoEnum.SUV, EstadoVehiculoEnum.VENDIDO, "2022", "26000"));
+        indice.registrar("R2", vehiculo("v-4", "toyota", TipoVehiculoEnum.SUV, EstadoVehiculoEnum.DISPONIBLE, "2023", "41000"));
+    }
+
+    @Test
+    void combinaFacetasYRangosEntreConcesionarios() {
+        IndiceVehiculos.Resultado resultado = indice.buscar(
+                filtro("TOYOTA", TipoVehiculoEnum.SUV, null, null, new BigDecimal("35000")), 0, 10);
+
+        assertEquals(1, resultado.total());
+        assertEquals("v-1", resultado.pagina().get(0).vehiculo().getId());
+        assertEquals("R1", resultado.pagina().get(0).ruc());
+    }
+
+    @Test
+    void cuentaFacetasSobreElResultado() {
+        IndiceVehiculos.Resultado resultado = indice.buscar(filtro(null, TipoVehiculoEnum.SUV, null, null, null), 0, 10);
+
+        assertEquals(3, resultado.total());
+        assertEquals(2, resultado.facetas().get("estado").get("DISPONIBLE"));
+        assertEquals(1, resultado.facetas().get("estado").get("VENDIDO"));
+        assertEquals(0, resultado.facetas().get("tipo").get("SEDAN"));
+    }
+
+    @Test
+    void reemplazaLosBitsAlActualizarUnVehiculo() {
+        indice.registrar("R1", vehiculo("v-1", "Toyota", TipoVehiculoEnum.SUV, EstadoVehiculoEnum.VENDIDO, "2020", "30000"));
+
+        assertEquals(2, indice.buscar(filtro(null, null, EstadoVehiculoEnum.DISPONIBLE, null, null), 0, 10).total());
+        assertEquals(2, indice.buscar(filtro(null, null, EstadoVehiculoEnum.VENDIDO, null, null), 0, 10).total());
+        assertEquals(4, indice.buscar(filtro(null, null, null, null, null), 0, 10).total());
+    }
+
+    @Test
+    void paginaElResultadoEnOrdenDeInsercion() {
+        IndiceVehiculos.Resultado resultado = indice.buscar(filtro(null, null, null, 2020, null), 1, 1);
+
+        assertEquals(3, resultado.total());
+        assertEquals("v-3", resultado.pagina().get(0).vehiculo().getId());
+    }
+
+    private FiltroVehiculos filtro(String marca, TipoVehiculoEnum tipo, EstadoVehiculoEnum estado,
+                                   Integer anioMin, BigDecimal valorMax) {
+        return new FiltroVehiculos(null, marca, null, tipo, null, null, estado, null, valorMax, anioMin, null);
+    }
+
+    private Vehiculo vehiculo(String id, String marca, TipoVehiculoEnum tipo, EstadoVehiculoEnum estado,
+                              String anio, String valor) {
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setId(id);
+        vehiculo.setMarca(marca);
+        vehiculo.setModelo("Modelo");
+        vehiculo.setTipo(tipo);
+        vehiculo.setEstado(estado);
+        vehiculo.setCombustible(CombustibleVehiculoEnum.GASOLINA);
+        vehiculo.setCondicion(CondicionVehiculoEnum.NUEVO);
+        vehiculo.setAnio(anio);
+        vehiculo.setValor(new BigDecimal(valor));
+        return vehiculo;
+    }
+}
@@ -0,0 +1,117 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gestion_vehiculos.model.Concesionario;
+import com.banquito.gestion_vehiculos.model.Vehiculo;
+import com.banquito.gestion_vehiculos.repository.ConcesionarioRepository;
+import com.banquito.gestion_vehiculos.repository.VehiculoRepository;
+
+class MigracionVehiculosTest {
+
+    private ConcesionarioRepository concesionarioRepository;
+    private VehiculoRepository vehiculoRepository;
+
+    @BeforeEach
+    void setUp() {
+        concesionarioRepository = mock(ConcesionarioRepository.class);
+        vehiculoRepository = mock(VehiculoRepository.class);
+    }
+
+    @Test
+    void copiaEnLotesYHabilitaLaLecturaAlCoincidirLosTotales() {
+        when(concesionarioRepository.streamPendientesMigracionVehiculos(eq(false), anyInt()))
+                .thenReturn(Stream.of(concesionario("c-1", 5)));
+        when(vehiculoRepository.countByIdIn(anyCollection())).thenReturn(5L);
+        when(concesionarioRepository.countPendientesMigracionVehiculos()).thenReturn(0L);
+        when(concesionarioRepository.countVehiculos()).thenReturn(5L);
+        when(vehiculoRepository.count()).thenReturn(5L);
+        MigracionVehiculos migracion = migracion(MigracionVehiculos.Fase.DOBLE_ESCRITURA);
+
+        assertFalse(migracion.leerDeColeccion());
+        migracion.migrar();
+
+        verify(vehiculoRepository, times(3)).insertarSiNoExisten(eq("c-1"), anyList());
+        verify(concesionarioRepository).marcarVehiculosMigrados("c-1", false);
+        assertTrue(migracion.leerDeColeccion());
+        assertTrue(migracion.escribirEmbebidos());
+    }
+
+    @Test
+    void noMarcaNiVerificaSiFaltanVehiculosEnLaColeccion() {
+        when(concesionarioRepository.streamPendientesMigracionVehiculos(eq(false), anyInt()))
+                .thenReturn(Stream.of(concesionario("c-1", 3)));
+        when(vehiculoRepository.countByIdIn(anyCollection())).thenReturn(2L);
+        MigracionVehiculos migracion = migracion(MigracionVehiculos.Fase.DOBLE_ESCRITURA);
+
+        migracion.migrar();
+
+        verify(concesionarioRepository, never()).marcarVehiculosMigrados("c-1", false);
+        verify(vehiculoRepository, never()).count();
+        assertFalse(migracion.leerDeColeccion());
+    }
+
+    @Test
+    void noHabilitaLaLecturaSiLosTotalesDifieren() {
+        when(concesionarioRepository.streamPendientesMigracionVehiculos(eq(false), anyInt())).thenReturn(Stream.empty());
+        when(concesionarioRepository.countVehiculos()).thenReturn(5L);
+        when(vehiculoRepository.count()).thenReturn(4L);
+        MigracionVehiculos migracion = migracion(MigracionVehiculos.Fase.DOBLE_ESCRITURA);
+
+        migracion.migrar();
+
+        assertFalse(migracion.leerDeColeccion());
+    }
+
+    @Test
+    void enFaseColeccionQuitaLosArreglosYaCopiados() {
+        when(concesionarioRepository.streamPendientesMigracionVehiculos(eq(true), anyInt()))
+                .thenReturn(Stream.of(concesionario("c-1", 1)));
+        when(vehiculoRepository.countByIdIn(anyCollection())).thenReturn(1L);
+        MigracionVehiculos migracion = migracion(MigracionVehiculos.Fase.COLECCION);
+
+        migracion.migrar();
+        migracion.migrar();
+
+        verify(concesionarioRepository).marcarVehiculosMigrados("c-1", true);
+        verify(concesionarioRepository, times(1)).streamPendientesMigracionVehiculos(anyBoolean(), anyInt());
+        assertTrue(migracion.leerDeColeccion());
+        assertFalse(migracion.escribirEmbebidos());
+    }
+
+    private MigracionVehiculos migracion(MigracionVehiculos.Fase fase) {
+        return new MigracionVehiculos(concesionarioRepository, vehiculoRepository, fase, 2, Duration.ZERO);
+    }
+
+    private Concesionario concesionario(String id, int vehiculos) {
+        Concesionario concesionario = new Concesionario();
+        concesionario.setId(id);
+        List<Vehiculo> lista = new ArrayList<>();
+        for (int i = 0; i < vehiculos; i++) {
+            Vehiculo vehiculo = new Vehiculo();
+            vehiculo.setId(id + "-v" + i);
+            lista.add(vehiculo);
+        }
+        concesionario.setVehiculos(lista);
+        return concesionario;
+    }
+}
@@ -0,0 +1,42 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gestion_vehiculos.dto.ResultadoValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.dto.ValidacionIdentificacionesDTO;
+import com.banquito.gestion_vehiculos.exception.SolicitudInvalidaException;
+
+class ValidacionIdentificacionesServiceTest {
+
+    private final ValidacionIdentificacionesService service = new ValidacionIdentificacionesService(4);
+
+    @Test
+    void devuelveLaValidezEnElOrdenDeLaSolicitud() {
+        ValidacionIdentificacionesDTO solicitud = new ValidacionIdentificacionesDTO();
+        solicitud.setCedulas(Arrays.asList("1710034065", null, "1710034066"));
+        solicitud.setRucs(null);
+
+        ResultadoValidacionIdentificacionesDTO resultado = service.validar(solicitud);
+
+        assertArrayEquals(new boolean[] { true, false, false }, resultado.getCedulas());
+        assertArrayEquals(new boolean[0], resultado.getRucs());
+        assertEquals(2, resultado.getCedulasInvalidas());
+        assertEquals(0, resultado.getRucsInvalidos());
+    }
+
+    @Test
+    void rechazaLotesMayoresAlMaximo() {
+        ValidacionIdentificacionesDTO solicitud = new ValidacionIdentificacionesDTO();
+        solicitud.setCedulas(Collections.nCopies(3, "1710034065"));
+        solicitud.setRucs(Collections.nCopies(2, "1710034065001"));
+
+        assertThrows(SolicitudInvalidaException.class, () -> service.validar(solicitud));
+    }
+}
@@ -0,0 +1,98 @@
+package com.banquito.gestion_vehiculos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.banquito.gestion_vehiculos.config.VerificacionPasswordConfig;
+import com.banquito.gestion_vehiculos.exception.ManejadorGlobalExcepciones;
+import com.banquito.gestion_vehiculos.exception.ServicioSaturadoException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Con un hilo y un lugar en la cola: la tercera verificación simultánea se rechaza de
+ * inmediato con 503 y Retry-After, y una verificación que excede el tiempo se cancela.
+ */
+class VerificadorPasswordTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final CountDownLatch enCurso = new CountDownLatch(1);
+    private final CountDownLatch interrumpida = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        executor = new VerificacionPasswordConfig().verificacionPasswordExecutor(registro, 1, 1);
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+                throw e;
+            }
+            return true;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void conElHiloYLaColaOcupadosRechazaConServicioSaturado() throws Exception {
+        VerificadorPassword verificador = new VerificadorPassword(passwordEncoder, executor, new SimpleMeterRegistry(), 5_000);
+        CompletableFuture<Boolean> primera = CompletableFuture.supplyAsync(() -> verificador.coincide("clave", "hash"));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> segunda = CompletableFuture.supplyAsync(() -> verificador.coincide("clave", "hash"));
+        while (executor.getQueue().isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        ServicioSaturadoException error = assertThrows(ServicioSaturadoException.class,
+                () -> verificador.coincide("clave", "hash"));
+        ResponseEntity<Map<String, String>> respuesta = new ManejadorGlobalExcepciones().manejarServicioSaturado(error);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, respuesta.getStatusCode());
+        assertEquals("1", respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        liberar.countDown();
+        assertTrue(primera.get(5, TimeUnit.SECONDS));
+        assertTrue(segunda.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void siExcedeElTiempoCancelaLaVerificacionYLiberaElHilo() throws Exception {
+        VerificadorPassword verificador = new VerificadorPassword(passwordEncoder, executor, new SimpleMeterRegistry(), 50);
+
+        assertThrows(ServicioSaturadoException.class, () -> verificador.coincide("clave", "hash"));
+
+        assertTrue(interrumpida.await(5, TimeUnit.SECONDS));
+        when(passwordEncoder.matches(any(), any())).thenReturn(false);
+        assertFalse(verificador.coincide("clave", "hash"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.banquito.gestion_vehiculos.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compara los validadores con la implementación original (subcadenas e Integer.parseInt)
+ * sobre todas las combinaciones de provincia, tercer dígito y dígito verificador, y sobre
+ * todos los caracteres posibles en cada posición.
+ */
+class ValidadoresIdentificacionTest {
+
+    private static final String[] CEDULAS_VALIDAS = { "1710034065", "0926687856", "2400000002" };
+
+    private final CedulaEcuatorianaValidator cedulaValidator = new CedulaEcuatorianaValidator();
+    private final RucEcuatorianoValidator rucValidator = new RucEcuatorianoValidator();
+
+    @Test
+    void casosConocidos() {
+        for (String cedula : CEDULAS_VALIDAS) {
+            assertTrue(cedulaValidator.isValid(cedula, null), cedula);
+            assertTrue(rucValidator.isValid(cedula + "001", null), cedula);
+            assertFalse(rucValidator.isValid(cedula + "002", null), cedula);
+        }
+        assertFalse(cedulaValidator.isValid(null, null));
+        assertFalse(rucValidator.isValid(null, null));
+        assertFalse(cedulaValidator.isValid("1710034066", null));
+        assertFalse(cedulaValidator.isValid("2510034065", null));
+    }
+
+    @Test
+    void coincidePorProvinciaTercerDigitoYVerificador() {
+        Random aleatorio = new Random(20240601);
+        char[] cedula = new char[10];
+        for (int prefijoYVerificador = 0; prefijoYVerificador < 10_000; prefijoYVerificador++) {
+            cedula[0] = (char) ('0' + prefijoYVerificador / 1000);
+            cedula[1] = (char) ('0' + prefijoYVerificador / 100 % 10);
+            cedula[2] = (char) ('0' + prefijoYVerificador / 10 % 10);
+            cedula[9] = (char) ('0' + prefijoYVerificador % 10);
+            for (int muestra = 0; muestra < 100; muestra++) {
+                for (int i = 3; i < 9; i++) {
+                    cedula[i] = (char) ('0' + aleatorio.nextInt(10));
+                }
+                comparar(new String(cedula));
+            }
+        }
+    }
+
+    @Test
+    void coincideConCualquierCaracterEnCadaPosicion() {
+        String base = CEDULAS_VALIDAS[0];
+        char[] cedula = base.toCharArray();
+        for (int posicion = 0; posicion < cedula.length; posicion++) {
+            for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+                cedula[posicion] = (char) c;
+                comparar(new String(cedula));
+            }
+            cedula[posicion] = base.charAt(posicion);
+        }
+    }
+
+    @Test
+    void rucCoincideConCualquierCaracterEnElSufijo() {
+        // Las posiciones de la cédula ya se recorren en comparar() con el sufijo 001
+        char[] ruc = (CEDULAS_VALIDAS[0] + "001").toCharArray();
+        for (int posicion = 10; posicion < ruc.length; posicion++) {
+            char original = ruc[posicion];
+            for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+                ruc[posicion] = (char) c;
+                String valor = new String(ruc);
+                assertEquals(rucOriginal(valor), rucValidator.isValid(valor, null), () -> codigos(valor));
+            }
+            ruc[posicion] = original;
+        }
+        for (int sufijo = 0; sufijo < 1000; sufijo++) {
+            String valor = CEDULAS_VALIDAS[1] + String.format("%03d", sufijo);
+            assertEquals(rucOriginal(valor), rucValidator.isValid(valor, null), valor);
+        }
+    }
+
+    @Test
+    void coincideConCualquierLongitud() {
+        String digitos = "17100340650011";
+        for (int longitud = 0; longitud <= digitos.length(); longitud++) {
+            String valor = digitos.substring(0, longitud);
+            comparar(valor);
+            assertEquals(rucOriginal(valor), rucValidator.isValid(valor, null), valor);
+        }
+    }
+
+    private void comparar(String cedula) {
+        boolean esperado = cedulaOriginal(cedula);
+        assertEquals(esperado, cedulaValidator.isValid(cedula, null), () -> codigos(cedula));
+        String ruc = cedula + "001";
+        assertEquals(esperado && cedula.length() == 10, rucValidator.isValid(ruc, null), () -> codigos(ruc));
+    }
+
+    private static String codigos(String valor) {
+        StringBuilder codigos = new StringBuilder();
+        valor.chars().forEach(c -> codigos.append(String.format("\\u%04x", c)));
+        return codigos.toString();
+    }
+
+    // Implementación anterior, referencia del comportamiento esperado
+    private static boolean cedulaOriginal(String cedula) {
+        if (cedula == null || cedula.length() != 10) return false;
+        try {
+            int provincia = Integer.parseInt(cedula.substring(0, 2));
+            int tercerDigito = Integer.parseInt(cedula.substring(2, 3));
+            if (provincia < 1 || provincia > 24 || tercerDigito >= 6) return false;
+
+            int suma = 0;
+            for (int i = 0; i < 9; i++) {
+                int valor = Integer.parseInt(cedula.substring(i, i + 1));
+                if (i % 2 == 0) {
+                    valor *= 2;
+                    if (valor > 9) valor -= 9;
+                }
+                suma += valor;
+            }
+            int digitoVerificador = Integer.parseInt(cedula.substring(9, 10));
+            int decenaSuperior = ((suma + 9) / 10) * 10;
+            int resultado = decenaSuperior - suma;
+            if (resultado == 10) resultado = 0;
+            return resultado == digitoVerificador;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean rucOriginal(String ruc) {
+        if (ruc == null || ruc.length() != 13) return false;
+        try {
+            if (!cedulaOriginal(ruc.substring(0, 10))) return false;
+            return ruc.substring(10).equals("001");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}